@@ -0,0 +1,344 @@
+package com.test.window.gui;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Writes Allure results as tests finish: one "{uuid}-result.json" per test, with payloads,
+ * responses and screenshots as attachment files, into "results" under a per-runner folder
+ * ("allure/api", "allure/ui"). After the run the bundled Allure command line turns them into an
+ * HTML report in "report" next to it. The previous report's history is copied into the new
+ * results first, so Allure's trend charts (durations, pass rate) carry over from run to run.
+ * A run that starts while the previous run's report is still being generated waits for it, so
+ * the generator never reads results or cleans a report that the new run is replacing.
+ *
+ * runner.json settings: "allureResults" (default true) turns the writer on, "allureGenerate"
+ * (default true) runs the generator, "allureDir" (default "allure") is the base folder and
+ * "allureHome" points at an Allure distribution if the bundled one is not found.
+ */
+public final class AllureResultsWriter {
+
+    private static final String BUNDLED_HOME = "allure-2.36.0";
+    private static final long GENERATE_TIMEOUT_MINUTES = 10;
+    private static final Map<Path, Thread> GENERATING = new ConcurrentHashMap<>(); // By base folder
+
+    private final Path baseDir;
+    private final Path resultsDir;
+    private final Path reportDir;
+    private final Path allureHome;
+    private final String suiteName;
+    private final String parentSuite;
+    private final ObjectMapper objectMapper;
+    private ReportBlobStore attachments;
+    private boolean failed;
+
+    /**
+     * @param baseDir     Folder holding "results" and "report".
+     * @param allureHome  Allure distribution used to generate the report, or null to skip it.
+     * @param parentSuite Runner name shown as the top-level suite ("API", "UI").
+     * @param suiteName   Test suite file name, shown as the suite.
+     */
+    public AllureResultsWriter(Path baseDir, Path allureHome, String parentSuite, String suiteName, ObjectMapper objectMapper) {
+        this.baseDir = baseDir.toAbsolutePath().normalize();
+        this.resultsDir = baseDir.resolve("results");
+        this.reportDir = baseDir.resolve("report");
+        this.allureHome = allureHome;
+        this.parentSuite = parentSuite;
+        this.suiteName = suiteName;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param runner    Folder name under "allureDir" and top-level suite, e.g. "api".
+     * @param suiteFile The loaded test suite, or null.
+     * @return A writer, or null if "allureResults" is false.
+     */
+    public static AllureResultsWriter fromSettings(RunnerSettings settings, String runner, File suiteFile, ObjectMapper objectMapper) {
+        if (!settings.getBoolean("allureResults", true)) {
+            return null;
+        }
+        Path baseDir = Paths.get(settings.getString("allureDir", "allure"), runner);
+        Path home = settings.getBoolean("allureGenerate", true) ? findAllureHome(settings.getString("allureHome", "")) : null;
+        String suite = suiteFile != null ? suiteFile.getName().replaceFirst("\\.[^.]+$", "") : runner;
+        return new AllureResultsWriter(baseDir, home, runner.toUpperCase(), suite, objectMapper);
+    }
+
+    /**
+     * Looks for the configured distribution, then the bundled one in the working directory or
+     * in the source tree.
+     */
+    private static Path findAllureHome(String configured) {
+        List<Path> candidates = new ArrayList<>();
+        if (!configured.trim().isEmpty()) {
+            candidates.add(Paths.get(configured.trim()));
+        }
+        candidates.add(Paths.get(BUNDLED_HOME));
+        candidates.add(Paths.get("src", "main", "java", "com", "test", "window", "gui", BUNDLED_HOME));
+        for (Path candidate : candidates) {
+            if (Files.isDirectory(candidate.resolve("lib"))) {
+                return candidate.toAbsolutePath();
+            }
+        }
+        System.err.println("Warning: Allure command line not found (tried " + candidates + "); the Allure report will not be generated");
+        return null;
+    }
+
+    /**
+     * Waits for the previous report of this folder to be generated, then empties the results
+     * folder and seeds it with the history of that report.
+     */
+    public void start() throws IOException {
+        awaitGeneration();
+        Files.createDirectories(resultsDir);
+        deleteTree(resultsDir, false);
+        Path history = reportDir.resolve("history");
+        if (Files.isDirectory(history)) {
+            Path target = Files.createDirectories(resultsDir.resolve("history"));
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(history)) {
+                for (Path file : files) {
+                    Files.copy(file, target.resolve(file.getFileName().toString()), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+        attachments = new ReportBlobStore(resultsDir);
+        failed = false;
+    }
+
+    /**
+     * Writes the result of one API test from its report row.
+     */
+    public void writeApiResult(Map<String, Object> reportData, long startMs, long stopMs) {
+        String testId = Objects.toString(reportData.get("testId"), "");
+        String description = Objects.toString(reportData.get("description"), "");
+        String status = Objects.toString(reportData.get("status"), "");
+        ObjectNode result = newResult(testId, description, "Pass".equalsIgnoreCase(status),
+            Objects.toString(reportData.get("failureReason"), ""), startMs, stopMs);
+        addParameter(result, "Request", Objects.toString(reportData.get("request"), ""));
+        addParameter(result, "End-Point", Objects.toString(reportData.get("endpoint"), ""));
+        addParameter(result, "Response Status", Objects.toString(reportData.get("responseStatus"), ""));
+        addParameter(result, "Response Time (ms)", Objects.toString(reportData.get("responseTimeMs"), ""));
+        addTextAttachment(result, "Payload", reportData.get("payload"));
+        if (!Boolean.TRUE.equals(reportData.get("responseBodySkipped"))) {
+            addTextAttachment(result, "Response Body", reportData.get("responseBody"));
+        }
+        addTextAttachment(result, "Verify Response", reportData.get("verifyResponse"));
+        write(result);
+    }
+
+    /**
+     * Writes the result of one UI test with a step per executed step and its screenshot. Call it
+     * once the step screenshots are stored (see {@link ScreenshotStore#afterPending(Runnable)}).
+     */
+    public void writeUiResult(HtmlReportGenerator.TestReportEntry entry, long startMs) {
+        String failure = entry.steps.stream().map(step -> step.error).filter(Objects::nonNull).findFirst().orElse("");
+        ObjectNode result = newResult(entry.testId, entry.description, "Passed".equals(entry.status), failure,
+            startMs, startMs + entry.totalDuration);
+        ArrayNode steps = result.withArray("steps");
+        long stepStart = startMs;
+        for (HtmlReportGenerator.StepReport step : entry.steps) {
+            ObjectNode node = steps.addObject();
+            node.put("name", step.stepNo + ". " + Objects.toString(step.testStep, ""));
+            node.put("status", step.error == null ? "passed" : "failed");
+            node.put("stage", "finished");
+            node.put("start", stepStart);
+            stepStart += step.durationMs;
+            node.put("stop", stepStart);
+            if (step.error != null) {
+                node.putObject("statusDetails").put("message", step.error);
+            }
+            node.putArray("attachments");
+            node.putArray("parameters");
+            node.putArray("steps");
+            if (step.screenshot != null && step.screenshot.getImage() != null) {
+                try {
+                    addAttachment(node, "Screenshot", "image/png", Files.readAllBytes(step.screenshot.getImage()), "png");
+                } catch (IOException e) {
+                    warnOnce("Failed to read screenshot " + step.screenshot.getImage() + ": " + e.getMessage());
+                }
+            }
+        }
+        write(result);
+    }
+
+    private ObjectNode newResult(String testId, String description, boolean passed, String message, long startMs, long stopMs) {
+        String fullName = suiteName + "#" + testId;
+        String historyId = ReportBlobStore.sha256Hex(fullName.getBytes(StandardCharsets.UTF_8));
+        ObjectNode result = objectMapper.createObjectNode();
+        result.put("uuid", UUID.randomUUID().toString());
+        result.put("historyId", historyId);
+        result.put("testCaseId", historyId);
+        result.put("fullName", fullName);
+        result.put("name", description.isEmpty() ? testId : testId + " - " + description);
+        result.put("status", passed ? "passed" : "failed");
+        if (!message.isEmpty()) {
+            result.putObject("statusDetails").put("message", message);
+        }
+        result.put("stage", "finished");
+        result.put("start", startMs);
+        result.put("stop", Math.max(startMs, stopMs));
+        ArrayNode labels = result.putArray("labels");
+        labels.addObject().put("name", "parentSuite").put("value", parentSuite);
+        labels.addObject().put("name", "suite").put("value", suiteName);
+        labels.addObject().put("name", "language").put("value", "java");
+        result.putArray("parameters");
+        result.putArray("attachments");
+        result.putArray("steps");
+        return result;
+    }
+
+    private void addParameter(ObjectNode result, String name, String value) {
+        if (!value.isEmpty()) {
+            result.withArray("parameters").addObject().put("name", name).put("value", value);
+        }
+    }
+
+    private void addTextAttachment(ObjectNode result, String name, Object text) {
+        String body = Objects.toString(text, "");
+        if (body.trim().isEmpty()) {
+            return;
+        }
+        boolean xml = XmlSupport.isXml(body);
+        addAttachment(result, name, xml ? "application/xml" : "application/json", body.getBytes(StandardCharsets.UTF_8), xml ? "xml" : "json");
+    }
+
+    /**
+     * Stores an attachment once per distinct content within the run and links it from the node.
+     */
+    private void addAttachment(ObjectNode node, String name, String type, byte[] content, String extension) {
+        if (attachments == null) {
+            return;
+        }
+        try {
+            String source = attachments.put(content, extension);
+            node.withArray("attachments").addObject().put("name", name).put("source", source).put("type", type);
+        } catch (IOException e) {
+            warnOnce("Failed to write Allure attachment " + name + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes a result under a temporary name and moves it into place, so a generator reading the
+     * folder never sees half a file.
+     */
+    private void write(ObjectNode result) {
+        if (attachments == null) {
+            return;
+        }
+        String fileName = result.get("uuid").asText() + "-result.json";
+        try {
+            Path temp = Files.createTempFile(resultsDir, "result", ".tmp");
+            try {
+                Files.write(temp, objectMapper.writeValueAsBytes(result));
+                Files.move(temp, resultsDir.resolve(fileName), StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            warnOnce("Failed to write Allure result " + fileName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts the bundled Allure command line on the results in the background. The thread is not
+     * a daemon, so the report is completed even if the window is closed right after the run.
+     */
+    public void generateReportAsync() {
+        if (allureHome == null || attachments == null) {
+            return;
+        }
+        Thread generator = new Thread(() -> {
+            try {
+                generateReport();
+            } catch (IOException e) {
+                System.err.println("Warning: Allure report generation failed: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "allure-generator");
+        GENERATING.put(baseDir, generator);
+        generator.start();
+    }
+
+    /**
+     * Blocks until the report generation started for this folder, if any, has finished.
+     */
+    private void awaitGeneration() throws IOException {
+        Thread generator = GENERATING.get(baseDir);
+        if (generator == null || !generator.isAlive()) {
+            return;
+        }
+        System.out.println("Debug: Waiting for the previous Allure report in " + baseDir + " to be generated");
+        try {
+            generator.join(TimeUnit.MINUTES.toMillis(GENERATE_TIMEOUT_MINUTES + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the previous Allure report", e);
+        }
+        if (generator.isAlive()) {
+            throw new IOException("Previous Allure report in " + baseDir + " is still being generated");
+        }
+        GENERATING.remove(baseDir, generator);
+    }
+
+    /**
+     * Runs "allure generate results -o report --clean" with the JVM running this application.
+     */
+    public void generateReport() throws IOException, InterruptedException {
+        String classpath = allureHome.resolve("lib") + File.separator + "*" + File.pathSeparator + allureHome.resolve("lib").resolve("config");
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        ProcessBuilder builder = new ProcessBuilder(java, "-cp", classpath, "io.qameta.allure.CommandLine",
+            "generate", resultsDir.toAbsolutePath().toString(), "-o", reportDir.toAbsolutePath().toString(), "--clean");
+        builder.environment().put("APP_HOME", allureHome.toString()); // Where Allure finds its config and plugins
+        builder.redirectErrorStream(true);
+        builder.redirectOutput(ProcessBuilder.Redirect.INHERIT);
+        Process process = builder.start();
+        if (!process.waitFor(GENERATE_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+            process.destroyForcibly();
+            throw new IOException("Allure did not finish within " + GENERATE_TIMEOUT_MINUTES + " minutes");
+        }
+        if (process.exitValue() != 0) {
+            throw new IOException("Allure exited with code " + process.exitValue());
+        }
+        System.out.println("Debug: Allure report generated at " + reportDir.resolve("index.html").toAbsolutePath());
+    }
+
+    private void warnOnce(String message) {
+        if (!failed) {
+            failed = true;
+            System.err.println("Warning: " + message + " (further Allure errors in this run are not logged)");
+        }
+    }
+
+    private static void deleteTree(Path dir, boolean deleteSelf) throws IOException {
+        try (Stream<Path> entries = Files.list(dir)) {
+            for (Path entry : (Iterable<Path>) entries::iterator) {
+                if (Files.isDirectory(entry)) {
+                    deleteTree(entry, true);
+                } else {
+                    Files.delete(entry);
+                }
+            }
+        }
+        if (deleteSelf) {
+            Files.delete(dir);
+        }
+    }
+}
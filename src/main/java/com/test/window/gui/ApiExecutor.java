@@ -1,7 +1,5 @@
 package com.test.window.gui;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.http.*;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.*;
@@ -13,12 +11,16 @@ import org.apache.http.message.BasicNameValuePair;
 import org.apache.http.util.EntityUtils;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Modern and robust API executor that accepts a pre-configured HttpClient
@@ -26,6 +28,9 @@ import java.util.Map;
  */
 public class ApiExecutor {
 
+    private static final long DRAIN_LIMIT_BYTES = 64 * 1024;
+    private static final int LOG_PREVIEW_CHARS = 2000;
+
     // ====================== AUTH & RESPONSE CLASSES ======================
     public static class Auth {
         private final String type;
@@ -46,20 +51,87 @@ public class ApiExecutor {
         public String getToken() { return token; }
     }
 
+    /**
+     * Reads a response body as it arrives instead of having it decoded into a String. Whatever
+     * the handler leaves unread is discarded with the connection.
+     */
+    @FunctionalInterface
+    public interface BodyStreamHandler {
+        void handle(InputStream body) throws IOException;
+    }
+
     public static class Response {
         private final int statusCode;
         private final String body;
         private final long responseTimeMs;
+        private final long waitTimeMs;
+        private final Map<String, List<String>> headers;
+        private final boolean bodySkipped;
+        private final boolean bodyStreamed;
+        private ResponseDocument document;
 
         public Response(int statusCode, String body, long responseTimeMs) {
+            this(statusCode, body, responseTimeMs, responseTimeMs, Collections.emptyMap(), false);
+        }
+
+        /**
+         * @param waitTimeMs  Time until the status line and headers arrived; the rest of
+         *                    responseTimeMs was spent reading the body.
+         * @param headers     Response headers by name; looked up case-insensitively.
+         * @param bodySkipped True if the body was not downloaded because no check needed it.
+         */
+        public Response(int statusCode, String body, long responseTimeMs, long waitTimeMs, Map<String, List<String>> headers, boolean bodySkipped) {
+            this(statusCode, body, responseTimeMs, waitTimeMs, headers, bodySkipped, false);
+        }
+
+        /**
+         * @param bodyStreamed True if the body went to a {@link BodyStreamHandler} and was not kept.
+         */
+        public Response(int statusCode, String body, long responseTimeMs, long waitTimeMs, Map<String, List<String>> headers,
+                        boolean bodySkipped, boolean bodyStreamed) {
             this.statusCode = statusCode;
             this.body = body != null ? body : "";
             this.responseTimeMs = responseTimeMs;
+            this.waitTimeMs = waitTimeMs;
+            Map<String, List<String>> byName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            byName.putAll(headers);
+            this.headers = Collections.unmodifiableMap(byName);
+            this.bodySkipped = bodySkipped;
+            this.bodyStreamed = bodyStreamed;
         }
 
         public int getStatusCode() { return statusCode; }
         public String getBody() { return body; }
         public long getResponseTimeMs() { return responseTimeMs; }
+
+        /** @return Time from sending the request until the headers arrived (time to first byte). */
+        public long getWaitTimeMs() { return waitTimeMs; }
+
+        /** @return Time spent reading (or skipping) the body after the headers. */
+        public long getDownloadTimeMs() { return Math.max(0L, responseTimeMs - waitTimeMs); }
+
+        /** @return All response headers in arrival order per name; names are case-insensitive. */
+        public Map<String, List<String>> getHeaders() { return headers; }
+
+        /** @return The first value of a header, or null if absent. */
+        public String getHeader(String name) {
+            List<String> values = headers.get(name);
+            return values == null || values.isEmpty() ? null : values.get(0);
+        }
+
+        /** @return True if the body was drained or aborted without being decoded. */
+        public boolean isBodySkipped() { return bodySkipped; }
+
+        /** @return True if the body was handed to a stream handler; {@link #getBody()} is then empty. */
+        public boolean isBodyStreamed() { return bodyStreamed; }
+
+        /** Lazily parsed view of the body, shared by capture, verification and reporting. */
+        public synchronized ResponseDocument getDocument() {
+            if (document == null) {
+                document = new ResponseDocument(body);
+            }
+            return document;
+        }
     }
     // =====================================================================
 
@@ -76,6 +148,46 @@ public class ApiExecutor {
             String payloadType,
             Auth auth,
             CloseableHttpClient client) throws Exception {
+        return execute(method, url, headers, params, payload, payloadType, auth, client, true);
+    }
+
+    /**
+     * Same as {@link #execute(String, String, Map, Map, String, String, Auth, CloseableHttpClient)};
+     * with readBody false the response entity is not decoded. Small bodies are drained so the
+     * connection can be reused, larger ones abort the request.
+     */
+    public Response execute(
+            String method,
+            String url,
+            Map<String, Object> headers,
+            Map<String, Object> params,
+            String payload,
+            String payloadType,
+            Auth auth,
+            CloseableHttpClient client,
+            boolean readBody) throws Exception {
+        return execute(method, url, headers, params, payload, payloadType, auth, client, readBody, 0L, null);
+    }
+
+    /**
+     * Same as {@link #execute(String, String, Map, Map, String, String, Auth, CloseableHttpClient, boolean)};
+     * a body to be read whose Content-Length is over {@code streamThresholdBytes} is given to the
+     * stream handler as it downloads and is neither decoded nor kept.
+     *
+     * @param streamHandler Consumer of large bodies, or null to always read them into a String.
+     */
+    public Response execute(
+            String method,
+            String url,
+            Map<String, Object> headers,
+            Map<String, Object> params,
+            String payload,
+            String payloadType,
+            Auth auth,
+            CloseableHttpClient client,
+            boolean readBody,
+            long streamThresholdBytes,
+            BodyStreamHandler streamHandler) throws Exception {
 
         if (client == null) {
             throw new IllegalArgumentException("HttpClient must not be null");
@@ -108,13 +220,47 @@ public class ApiExecutor {
             ((HttpEntityEnclosingRequestBase) request).setEntity(entity);
         }
 
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         try (CloseableHttpResponse httpResponse = client.execute(request)) {
+            long wait = (System.nanoTime() - start) / 1_000_000;
             int statusCode = httpResponse.getStatusLine().getStatusCode();
+            Map<String, List<String>> responseHeaders = new LinkedHashMap<>();
+            for (Header header : httpResponse.getAllHeaders()) {
+                responseHeaders.computeIfAbsent(header.getName(), k -> new ArrayList<>()).add(header.getValue());
+            }
             HttpEntity responseEntity = httpResponse.getEntity();
-            String body = responseEntity != null ? EntityUtils.toString(responseEntity, StandardCharsets.UTF_8) : "";
-            long time = System.currentTimeMillis() - start;
-            return new Response(statusCode, body, time);
+            String body = "";
+            boolean streamed = false;
+            if (responseEntity != null) {
+                if (readBody && streamHandler != null && responseEntity.getContentLength() > streamThresholdBytes) {
+                    streamHandler.handle(responseEntity.getContent()); // The rest, if any, is dropped when the response closes
+                    streamed = true;
+                } else if (readBody) {
+                    body = EntityUtils.toString(responseEntity, StandardCharsets.UTF_8);
+                } else {
+                    skipBody(request, responseEntity);
+                }
+            }
+            long time = (System.nanoTime() - start) / 1_000_000;
+            return new Response(statusCode, body, time, wait, responseHeaders, !readBody && responseEntity != null, streamed);
+        }
+    }
+
+    /**
+     * Discards a body without decoding it: drained if it is known to be small, otherwise the
+     * request is aborted so the rest is never transferred.
+     */
+    private void skipBody(HttpRequestBase request, HttpEntity entity) throws IOException {
+        long length = entity.getContentLength();
+        if (length >= 0 && length <= DRAIN_LIMIT_BYTES) {
+            try (InputStream in = entity.getContent()) {
+                byte[] buffer = new byte[8192];
+                while (in.read(buffer) != -1) {
+                    // Discard
+                }
+            }
+        } else {
+            request.abort();
         }
     }
 
@@ -204,12 +350,23 @@ public class ApiExecutor {
         if (response == null || response.getBody() == null || response.getBody().trim().isEmpty()) {
             return "";
         }
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            Object json = mapper.readValue(response.getBody(), Object.class);
-            return mapper.writerWithDefaultPrettyPrinter().writeValueAsString(json);
-        } catch (JsonProcessingException e) {
-            return response.getBody(); // Not JSON, return raw
+        return response.getDocument().toPrettyString(); // Not JSON, returns raw
+    }
+
+    /**
+     * Like {@link #toPrettyJson(Response)}, but a body over {@code unparsedMaxChars} that nothing
+     * has parsed yet (the streaming matcher verified it) is returned raw and cut to
+     * {@value #LOG_PREVIEW_CHARS} characters, instead of being parsed just to be logged.
+     */
+    public static String toPrettyJson(Response response, long unparsedMaxChars) {
+        if (response == null || response.getBody() == null) {
+            return "";
+        }
+        String body = response.getBody();
+        if (body.length() > unparsedMaxChars && !response.getDocument().isParsed()) {
+            return body.substring(0, (int) Math.min(body.length(), LOG_PREVIEW_CHARS))
+                + "... (" + body.length() + " characters, not parsed)";
         }
+        return toPrettyJson(response);
     }
 }
\ No newline at end of file
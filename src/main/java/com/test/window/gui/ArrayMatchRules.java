@@ -0,0 +1,162 @@
+package com.test.window.gui;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-path array matching modes from the optional "Array Match" column. One rule per line
+ * (or separated by ';'), written as path=mode:
+ *
+ * <pre>
+ * items=unordered
+ * data.users=key:id
+ * orders[*].lines=unordered
+ * $=unordered
+ * </pre>
+ *
+ * Paths use the same dotted notation as verification messages, with [*] for "any index" and $
+ * for the root. Modes are "ordered" (the default: compared by index), "unordered" (the arrays
+ * must contain the same elements as a multiset) and "key:field" (elements are paired by the value
+ * of the given field).
+ */
+public final class ArrayMatchRules {
+
+    public static final ArrayMatchRules NONE = new ArrayMatchRules(Collections.emptyMap());
+
+    public enum Kind { ORDERED, UNORDERED, KEYED }
+
+    /**
+     * How one array is matched.
+     */
+    public static final class Mode {
+        public static final Mode ORDERED = new Mode(Kind.ORDERED, null);
+        public static final Mode UNORDERED = new Mode(Kind.UNORDERED, null);
+
+        private final Kind kind;
+        private final String keyField;
+
+        private Mode(Kind kind, String keyField) {
+            this.kind = kind;
+            this.keyField = keyField;
+        }
+
+        public Kind getKind() { return kind; }
+
+        /** @return The field elements are paired by, for KEYED mode. */
+        public String getKeyField() { return keyField; }
+
+        @Override
+        public String toString() {
+            return kind == Kind.KEYED ? "key:" + keyField : kind.name().toLowerCase();
+        }
+    }
+
+    private final Map<String, Mode> modes;
+
+    private ArrayMatchRules(Map<String, Mode> modes) {
+        this.modes = modes;
+    }
+
+    /**
+     * Parses the column text.
+     *
+     * @throws IllegalArgumentException If a rule is not of the form path=mode or names an unknown mode.
+     */
+    public static ArrayMatchRules parse(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return NONE;
+        }
+        Map<String, Mode> modes = new HashMap<>();
+        for (String rule : text.split("[;\\r\\n]+")) {
+            String trimmed = rule.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int eq = trimmed.lastIndexOf('=');
+            if (eq <= 0 || eq == trimmed.length() - 1) {
+                throw new IllegalArgumentException("Invalid array match rule '" + trimmed + "', expected path=mode");
+            }
+            modes.put(normalizePath(trimmed.substring(0, eq).trim()), parseMode(trimmed.substring(eq + 1).trim()));
+        }
+        return modes.isEmpty() ? NONE : new ArrayMatchRules(Collections.unmodifiableMap(modes));
+    }
+
+    private static Mode parseMode(String text) {
+        String lower = text.toLowerCase();
+        if (lower.equals("ordered")) {
+            return Mode.ORDERED;
+        }
+        if (lower.equals("unordered")) {
+            return Mode.UNORDERED;
+        }
+        if (lower.startsWith("key:") && text.length() > 4) {
+            return new Mode(Kind.KEYED, text.substring(4).trim());
+        }
+        throw new IllegalArgumentException("Unknown array match mode '" + text + "', expected ordered, unordered or key:field");
+    }
+
+    private static String normalizePath(String path) {
+        String normalized = path;
+        if (normalized.equals("$")) {
+            return "";
+        }
+        if (normalized.startsWith("$.")) {
+            normalized = normalized.substring(2);
+        } else if (normalized.startsWith("$[")) {
+            normalized = normalized.substring(1);
+        }
+        return normalized.replaceAll("\\[(\\d*)]", "[*]");
+    }
+
+    public boolean isEmpty() {
+        return modes.isEmpty();
+    }
+
+    /**
+     * @param pattern The array's path with indices written as [*], as built by {@link #patternOf}.
+     * @return The configured mode, ORDERED if none.
+     */
+    public Mode modeFor(String pattern) {
+        Mode mode = modes.get(pattern);
+        return mode != null ? mode : Mode.ORDERED;
+    }
+
+    /**
+     * @return True if a rule applies inside the elements of the array at the pattern, in which
+     *         case elements cannot be compared by plain structural equality.
+     */
+    public boolean hasRulesBelow(String pattern) {
+        String prefix = pattern + "[*]";
+        for (String path : modes.keySet()) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds a rule pattern from a path stack of String keys and Integer indices.
+     */
+    static String patternOf(Object[] segments, int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            Object segment = segments[i];
+            if (segment instanceof Integer) {
+                sb.append("[*]");
+            } else {
+                if (sb.length() > 0) {
+                    sb.append('.');
+                }
+                sb.append(segment);
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return modes.toString();
+    }
+}
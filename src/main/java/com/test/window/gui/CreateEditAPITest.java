@@ -637,14 +637,9 @@ public class CreateEditAPITest extends Application {
                 return;
             }
             // Split text around placeholders and apply styles
-            String[] parts = newVal.split("(\\{\\{[^\\}]+\\}\\})");
-            for (String part : parts) {
-                Text text = new Text(part);
-                if (part.matches("\\{\\{[^\\}]+\\}\\}")) {
-                    text.setStyle(HIGHLIGHT_STYLE);
-                } else {
-                    text.setStyle("-fx-fill: white;");
-                }
+            for (PlaceholderTemplate.Segment segment : PlaceholderTemplate.compile(newVal).getSegments()) {
+                Text text = new Text(segment.isVariable() ? "{{" + segment.getText() + "}}" : segment.getText());
+                text.setStyle(segment.isVariable() ? HIGHLIGHT_STYLE : "-fx-fill: white;");
                 textFlow.getChildren().add(text);
             }
             // Update field style based on presence of pattern
@@ -671,14 +666,9 @@ public class CreateEditAPITest extends Application {
                 return;
             }
             // Split text around placeholders and apply styles
-            String[] parts = newVal.split("(\\{\\{[^\\}]+\\}\\})");
-            for (String part : parts) {
-                Text text = new Text(part);
-                if (part.matches("\\{\\{[^\\}]+\\}\\}")) {
-                    text.setStyle(HIGHLIGHT_STYLE);
-                } else {
-                    text.setStyle("-fx-fill: white;");
-                }
+            for (PlaceholderTemplate.Segment segment : PlaceholderTemplate.compile(newVal).getSegments()) {
+                Text text = new Text(segment.isVariable() ? "{{" + segment.getText() + "}}" : segment.getText());
+                text.setStyle(segment.isVariable() ? HIGHLIGHT_STYLE : "-fx-fill: white;");
                 textFlow.getChildren().add(text);
             }
             // Update area style based on presence of pattern
@@ -698,7 +688,7 @@ public class CreateEditAPITest extends Application {
      * @return True if a pattern is found.
      */
     private static boolean partContainsPattern(String text) {
-        return text != null && text.matches(".*\\{\\{[^\\}]+\\}\\}.*");
+        return text != null && PlaceholderTemplate.compile(text).hasVariables();
     }
 
     /**
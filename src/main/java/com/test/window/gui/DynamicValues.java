@@ -0,0 +1,326 @@
+package com.test.window.gui;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Built-in dynamic values for placeholders. A generator can be used as an env.json value
+ * ("id": "$uuid") or directly as a placeholder name ({{$uuid}}):
+ *
+ * <ul>
+ *   <li>$uuid - random UUID (version 4 layout)</li>
+ *   <li>$randomInt(min,max) - integer in [min, max]</li>
+ *   <li>$randomString(n) - n alphanumeric characters</li>
+ *   <li>$seq - 1, 2, 3, ... for the current run</li>
+ *   <li>$isoTimestamp, $epochMillis, $epochSeconds - current time</li>
+ *   <li>$csv(path,column) - next value of a CSV column (by header name or 0-based index), cycling</li>
+ * </ul>
+ *
+ * Random values come from per-thread SplittableRandom instances, so generation never
+ * contends on a shared lock. With "dynamicSeed" in runner.json the values are reproducible
+ * (per thread); with "dynamicPoolSize" the random generators referenced by a suite are
+ * pre-generated before the run so generation does not show up in request latency.
+ * One instance is created per run.
+ */
+public final class DynamicValues {
+
+    private static final DateTimeFormatter LEGACY_TIMESTAMP = DateTimeFormatter.ofPattern("MMddyyssSSS");
+    private static final char[] ALPHANUMERIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789".toCharArray();
+
+    /**
+     * A parsed generator expression; parsed once per distinct expression text.
+     */
+    private static final class Spec {
+        final String name;
+        final String[] args;
+
+        Spec(String name, String[] args) {
+            this.name = name;
+            this.args = args;
+        }
+    }
+
+    /**
+     * Pre-generated values consumed in order; falls back to live generation when drained.
+     */
+    private static final class Pool {
+        final String[] values;
+        final AtomicInteger cursor = new AtomicInteger();
+
+        Pool(String[] values) {
+            this.values = values;
+        }
+
+        String next() {
+            int i = cursor.getAndIncrement();
+            return i < values.length ? values[i] : null;
+        }
+    }
+
+    private static final Spec INVALID = new Spec("", new String[0]);
+
+    private final Long seed;
+    private final int poolSize;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger threadOrdinal = new AtomicInteger();
+    private final ThreadLocal<SplittableRandom> random;
+    private final Map<String, Spec> specs = new ConcurrentHashMap<>();
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+    private final Map<String, List<String>> csvColumns = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> csvCursors = new ConcurrentHashMap<>();
+
+    public DynamicValues(Long seed, int poolSize) {
+        this.seed = seed;
+        this.poolSize = Math.max(0, poolSize);
+        this.random = ThreadLocal.withInitial(() -> seed != null
+            ? new SplittableRandom(seed + threadOrdinal.getAndIncrement())
+            : new SplittableRandom());
+    }
+
+    /**
+     * Creates an instance configured from runner.json ("dynamicSeed", "dynamicPoolSize").
+     */
+    public static DynamicValues fromSettings(RunnerSettings settings) {
+        return new DynamicValues(settings.getOptionalLong("dynamicSeed"), settings.getInt("dynamicPoolSize", 0));
+    }
+
+    /**
+     * Formats the current time the way $timestamp always has (MMddyyssSSS).
+     */
+    public static String legacyTimestamp() {
+        return LocalDateTime.now().format(LEGACY_TIMESTAMP);
+    }
+
+    /**
+     * @return True if the text names one of the built-in generators.
+     */
+    public boolean isGenerator(String expression) {
+        return parse(expression) != null;
+    }
+
+    /**
+     * Produces the next value for a generator expression.
+     *
+     * @param expression For example "$randomInt(1,100)".
+     * @return The generated value, or null if the expression is not a known generator or is invalid.
+     */
+    public String generate(String expression) {
+        Spec spec = parse(expression);
+        if (spec == null) {
+            return null;
+        }
+        Pool pool = pools.get(expression);
+        if (pool != null) {
+            String pooled = pool.next();
+            if (pooled != null) {
+                return pooled;
+            }
+        }
+        try {
+            return generate(spec, random.get());
+        } catch (RuntimeException e) {
+            System.err.println("Failed to generate dynamic value for '" + expression + "': " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Pre-generates pools for the random generators among the given expressions.
+     * Does nothing unless a pool size is configured. Pools are filled sequentially from
+     * the seed, so a seeded run draws the same values in the same order.
+     */
+    public void prefill(Collection<String> expressions) {
+        if (poolSize <= 0) {
+            return;
+        }
+        SplittableRandom poolRandom = seed != null ? new SplittableRandom(seed) : new SplittableRandom();
+        for (String expression : expressions) {
+            Spec spec = parse(expression);
+            if (spec == null || pools.containsKey(expression) || !isRandom(spec.name)) {
+                continue;
+            }
+            String[] values = new String[poolSize];
+            try {
+                for (int i = 0; i < poolSize; i++) {
+                    values[i] = generate(spec, poolRandom);
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Skipping pool for '" + expression + "': " + e.getMessage());
+                continue;
+            }
+            pools.put(expression, new Pool(values));
+            System.out.println("Debug: Pre-generated " + poolSize + " values for '" + expression + "'");
+        }
+    }
+
+    private static boolean isRandom(String name) {
+        return name.equals("$uuid") || name.equals("$randomInt") || name.equals("$randomString");
+    }
+
+    private Spec parse(String expression) {
+        if (expression == null || !expression.startsWith("$")) {
+            return null;
+        }
+        Spec cached = specs.get(expression);
+        if (cached != null) {
+            return cached == INVALID ? null : cached;
+        }
+        String text = expression.trim();
+        String name = text;
+        String[] args = new String[0];
+        int open = text.indexOf('(');
+        if (open > 0) {
+            if (!text.endsWith(")")) {
+                specs.put(expression, INVALID);
+                return null;
+            }
+            name = text.substring(0, open);
+            String inner = text.substring(open + 1, text.length() - 1);
+            args = inner.trim().isEmpty() ? new String[0] : inner.split(",");
+            for (int i = 0; i < args.length; i++) {
+                args[i] = args[i].trim();
+            }
+        }
+        int expectedArgs;
+        switch (name) {
+            case "$uuid", "$seq", "$isoTimestamp", "$epochMillis", "$epochSeconds" -> expectedArgs = 0;
+            case "$randomString" -> expectedArgs = 1;
+            case "$randomInt", "$csv" -> expectedArgs = 2;
+            default -> {
+                specs.put(expression, INVALID);
+                return null;
+            }
+        }
+        if (args.length != expectedArgs) {
+            System.err.println("Invalid arguments for dynamic value '" + expression + "': expected " + expectedArgs);
+            specs.put(expression, INVALID);
+            return null;
+        }
+        Spec spec = new Spec(name, args);
+        specs.put(expression, spec);
+        return spec;
+    }
+
+    private String generate(Spec spec, SplittableRandom rnd) {
+        switch (spec.name) {
+            case "$uuid": {
+                long msb = (rnd.nextLong() & 0xFFFFFFFFFFFF0FFFL) | 0x0000000000004000L;
+                long lsb = (rnd.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+                return new UUID(msb, lsb).toString();
+            }
+            case "$randomInt": {
+                long min = Long.parseLong(spec.args[0]);
+                long max = Long.parseLong(spec.args[1]);
+                if (max < min) {
+                    throw new IllegalArgumentException("max < min");
+                }
+                if (max != Long.MAX_VALUE) {
+                    return String.valueOf(rnd.nextLong(min, max + 1));
+                }
+                // max + 1 overflows: shift the range down by one instead, so max can still be drawn
+                return String.valueOf(min == Long.MIN_VALUE ? rnd.nextLong() : rnd.nextLong(min - 1, max) + 1);
+            }
+            case "$randomString": {
+                int length = Integer.parseInt(spec.args[0]);
+                char[] chars = new char[length];
+                for (int i = 0; i < length; i++) {
+                    chars[i] = ALPHANUMERIC[rnd.nextInt(ALPHANUMERIC.length)];
+                }
+                return new String(chars);
+            }
+            case "$seq":
+                return String.valueOf(sequence.incrementAndGet());
+            case "$isoTimestamp":
+                return Instant.now().toString();
+            case "$epochMillis":
+                return String.valueOf(System.currentTimeMillis());
+            case "$epochSeconds":
+                return String.valueOf(System.currentTimeMillis() / 1000);
+            case "$csv": {
+                String key = spec.args[0] + "#" + spec.args[1];
+                List<String> column = csvColumns.computeIfAbsent(key, k -> readCsvColumn(spec.args[0], spec.args[1]));
+                if (column.isEmpty()) {
+                    return null;
+                }
+                int i = csvCursors.computeIfAbsent(key, k -> new AtomicInteger()).getAndIncrement();
+                return column.get(Math.floorMod(i, column.size()));
+            }
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Reads one column of a CSV file once per run. The first row is the header; the column
+     * is matched by name, or by 0-based index when the argument is numeric.
+     */
+    private static List<String> readCsvColumn(String path, String column) {
+        List<String> values = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(path), StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null) {
+                return values;
+            }
+            List<String> headers = splitCsvLine(header);
+            int index = headers.indexOf(column);
+            if (index < 0) {
+                try {
+                    index = Integer.parseInt(column);
+                } catch (NumberFormatException e) {
+                    System.err.println("Column '" + column + "' not found in CSV '" + path + "'");
+                    return values;
+                }
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                List<String> cells = splitCsvLine(line);
+                if (index < cells.size()) {
+                    values.add(cells.get(index));
+                }
+            }
+            System.out.println("Debug: Loaded " + values.size() + " values from column '" + column + "' of CSV '" + path + "'");
+        } catch (IOException e) {
+            System.err.println("Failed to read CSV '" + path + "': " + e.getMessage());
+        }
+        return values;
+    }
+
+    private static List<String> splitCsvLine(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                cells.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        cells.add(current.toString().trim());
+        return cells;
+    }
+}
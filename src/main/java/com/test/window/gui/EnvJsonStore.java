@@ -0,0 +1,142 @@
+package com.test.window.gui;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Write-behind persistence of env.json for captured variables.
+ *
+ * Tests hand over the full map to save via {@link #update(Map)}; only the latest map is kept,
+ * so many updates between flushes coalesce into one write. A background thread flushes on an
+ * interval, {@link #close()} flushes at the end of the run, and a shutdown hook flushes if the
+ * application exits mid-run. Each write goes to a temp file in the same directory and is moved
+ * over env.json with ATOMIC_MOVE, so the file is never left half-written.
+ */
+public final class EnvJsonStore implements AutoCloseable {
+
+    private final Path target;
+    private final ObjectMapper objectMapper;
+    private final AtomicReference<Map<String, String>> pending = new AtomicReference<>();
+    private final AtomicInteger writeCount = new AtomicInteger();
+    private final ScheduledExecutorService flusher;
+    private final Thread shutdownHook;
+    private volatile boolean closed = false;
+
+    /**
+     * @param envFile         The env.json file to maintain.
+     * @param objectMapper    Mapper used to serialize the map (pretty printed).
+     * @param flushIntervalMs Delay between background flushes.
+     */
+    public EnvJsonStore(File envFile, ObjectMapper objectMapper, long flushIntervalMs) {
+        this.target = envFile.getAbsoluteFile().toPath();
+        this.objectMapper = objectMapper;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "env-json-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(100L, flushIntervalMs);
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        this.shutdownHook = new Thread(this::flushQuietly, "env-json-shutdown-flush");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Queues the complete set of variables to persist, replacing any earlier unsaved map.
+     */
+    public void update(Map<String, String> envVarsToSave) {
+        if (closed) {
+            throw new IllegalStateException("env.json store is closed");
+        }
+        pending.set(envVarsToSave);
+    }
+
+    /**
+     * Writes the latest queued map, if any.
+     *
+     * @throws IOException If the temp file cannot be written or moved into place.
+     */
+    public synchronized void flush() throws IOException {
+        Map<String, String> toWrite = pending.getAndSet(null);
+        if (toWrite == null) {
+            return;
+        }
+        try {
+            writeAtomically(toWrite);
+        } catch (IOException e) {
+            pending.compareAndSet(null, toWrite); // Keep it for the next attempt unless newer data arrived
+            throw e;
+        }
+    }
+
+    /**
+     * @return How many times env.json has actually been written.
+     */
+    public int getWriteCount() {
+        return writeCount.get();
+    }
+
+    /**
+     * Stops the background flusher and writes any remaining update.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException ignored) {
+            // JVM is already shutting down; the hook will flush
+        }
+        flush();
+        System.out.println("Debug: env.json store closed after " + writeCount.get() + " write(s)");
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            System.err.println("Error writing to env.json: " + e.getMessage());
+        }
+    }
+
+    private void writeAtomically(Map<String, String> envVarsToSave) throws IOException {
+        Path dir = target.getParent();
+        Path temp = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                objectMapper.writerWithDefaultPrettyPrinter().writeValue(out, envVarsToSave);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            writeCount.incrementAndGet();
+            System.out.println("Debug: Wrote env.json with " + envVarsToSave.size() + " variables");
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
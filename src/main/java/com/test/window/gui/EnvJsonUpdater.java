@@ -11,8 +11,6 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.HashSet;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * A utility class for updating an environment JSON file (env.json) based on placeholders
@@ -77,7 +75,7 @@ public class EnvJsonUpdater {
 
     /**
      * Extracts unique placeholder keys from all cells in the TableView.
-     * Scans for patterns matching {{key}} and returns the captured 'key' parts.
+     * Compiles each cell as a {@link PlaceholderTemplate} and returns its variable names.
      *
      * @param table The TableView to scan.
      * @return A Set of unique extracted keys.
@@ -85,19 +83,13 @@ public class EnvJsonUpdater {
     private static Set<String> extractKeysFromTable(TableView<String[]> table) {
         // Use a HashSet to ensure uniqueness of keys.
         Set<String> keys = new HashSet<>();
-        // Compile regex pattern to match {{key}} where 'key' is any non-empty string.
-        Pattern pattern = Pattern.compile("\\{\\{(.*?)\\}\\}");
         // Get the observable list of rows (String[]).
         ObservableList<String[]> items = table.getItems();
         for (String[] row : items) {
             for (String cell : row) {
-                if (cell != null) {
-                    // Find all matches in the cell content.
-                    Matcher matcher = pattern.matcher(cell);
-                    while (matcher.find()) {
-                        // Add the captured group (the key inside {{}}).
-                        keys.add(matcher.group(1));
-                    }
+                if (cell != null && cell.contains("{{")) {
+                    // Add every key referenced inside {{}}.
+                    keys.addAll(PlaceholderTemplate.compile(cell).variableNames());
                 }
             }
         }
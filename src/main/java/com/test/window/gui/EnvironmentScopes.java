@@ -0,0 +1,174 @@
+package com.test.window.gui;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Layered environment variables for one API run.
+ *
+ * <ul>
+ *   <li>Suite layer: an immutable snapshot of env.json taken when the run starts.</li>
+ *   <li>Published layer: values captured from responses and resolved $timestamp values,
+ *       replaced copy-on-write as a whole map, so readers always see either all or none of a
+ *       test's captures.</li>
+ *   <li>Worker layer: captures committed by tests on the same worker thread.</li>
+ *   <li>Test layer: writes made while rendering one test ({{null}} markers) plus that test's
+ *       timestamp; discarded when the test ends.</li>
+ * </ul>
+ *
+ * Lookups go test, worker, published (as seen when the test started), then suite. Nothing is
+ * shared mutably between tests, so concurrent workers never need a lock or observe
+ * half-written state.
+ */
+public final class EnvironmentScopes {
+
+    private final Map<String, String> suite;
+    private final AtomicReference<Map<String, String>> published = new AtomicReference<>(Collections.emptyMap());
+
+    /**
+     * @param suiteValues The contents of env.json; values are kept as strings.
+     */
+    public EnvironmentScopes(Map<String, ?> suiteValues) {
+        Map<String, String> copy = new HashMap<>();
+        if (suiteValues != null) {
+            suiteValues.forEach((k, v) -> copy.put(k, v != null ? String.valueOf(v) : null));
+        }
+        this.suite = Collections.unmodifiableMap(copy);
+    }
+
+    /**
+     * @return The immutable env.json snapshot the run started with.
+     */
+    public Map<String, String> getSuiteValues() {
+        return suite;
+    }
+
+    /**
+     * @return An immutable merged view of the suite layer and all published captures.
+     */
+    public Map<String, String> snapshot() {
+        Map<String, String> merged = new HashMap<>(suite);
+        merged.putAll(published.get());
+        return Collections.unmodifiableMap(merged);
+    }
+
+    /**
+     * Publishes captured values by swapping in a new map; concurrent publishers retry.
+     */
+    public void publish(Map<String, String> captured) {
+        if (captured.isEmpty()) {
+            return;
+        }
+        Map<String, String> current;
+        Map<String, String> next;
+        do {
+            current = published.get();
+            next = new HashMap<>(current);
+            next.putAll(captured);
+        } while (!published.compareAndSet(current, Collections.unmodifiableMap(next)));
+    }
+
+    /**
+     * @return A new worker scope; each worker thread should own exactly one.
+     */
+    public Worker newWorker() {
+        return new Worker();
+    }
+
+    /**
+     * Per-worker overlay holding the captures committed by this worker's tests.
+     * Not thread-safe: confined to the worker thread.
+     */
+    public final class Worker {
+        private final Map<String, String> overlay = new HashMap<>();
+
+        private Worker() {
+        }
+
+        /**
+         * Starts a test scope that reads the published layer as of now.
+         */
+        public Test beginTest() {
+            return new Test(this, published.get());
+        }
+    }
+
+    /**
+     * Per-test overlay. Not thread-safe: confined to the thread running the test.
+     */
+    public final class Test {
+        private final Worker worker;
+        private final Map<String, String> publishedView;
+        private final Map<String, String> local = new HashMap<>();
+        private final Map<String, String> captured = new LinkedHashMap<>();
+        private String currentTimestamp;
+
+        private Test(Worker worker, Map<String, String> publishedView) {
+            this.worker = worker;
+            this.publishedView = publishedView;
+        }
+
+        public boolean containsKey(String name) {
+            return local.containsKey(name) || worker.overlay.containsKey(name)
+                || publishedView.containsKey(name) || suite.containsKey(name);
+        }
+
+        public String get(String name) {
+            if (local.containsKey(name)) return local.get(name);
+            if (worker.overlay.containsKey(name)) return worker.overlay.get(name);
+            if (publishedView.containsKey(name)) return publishedView.get(name);
+            return suite.get(name);
+        }
+
+        /**
+         * Writes a value visible only to the rest of this test.
+         */
+        public void put(String name, String value) {
+            local.put(name, value);
+        }
+
+        /**
+         * Records a value captured from the response; published when the test commits.
+         */
+        public void capture(String name, String value) {
+            local.put(name, value);
+            captured.put(name, value);
+        }
+
+        /**
+         * Records the value a run-wide marker such as $timestamp resolved to and publishes it at
+         * once, so later tests keep reusing it instead of resolving the marker again.
+         */
+        public void resolve(String name, String value) {
+            local.put(name, value);
+            worker.overlay.put(name, value);
+            publish(Collections.singletonMap(name, value));
+        }
+
+        public Map<String, String> getCaptured() {
+            return Collections.unmodifiableMap(captured);
+        }
+
+        public String getCurrentTimestamp() {
+            return currentTimestamp;
+        }
+
+        public void setCurrentTimestamp(String currentTimestamp) {
+            this.currentTimestamp = currentTimestamp;
+        }
+
+        /**
+         * Moves this test's captures into the worker overlay and publishes them to other workers.
+         */
+        public void commit() {
+            if (captured.isEmpty()) {
+                return;
+            }
+            worker.overlay.putAll(captured);
+            publish(captured);
+        }
+    }
+}
@@ -5,9 +5,11 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.awt.Desktop;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.Date;
 import java.util.List;
 import java.util.TimeZone;
@@ -21,12 +23,16 @@ import java.util.TimeZone;
  * 2. For each executed TestCase, create a TestReportEntry and populate its steps while executing.
  * 3. For each step: Create StepReport, construct testStepStr based on action, measure duration, catch exceptions for error.
  * 4. If "OPEN_WINDOW", update lastAppFamilyName from testData.split("\\|")[0].
- * 5. If "TAKE_SCREENSHOT", call GlueCode.takeScreenshotAsBytes() and set stepReport.screenshotBytes.
+ * 5. If "TAKE_SCREENSHOT", pass GlueCode.takeScreenshotAsBytes() to the run's ScreenshotStore and set stepReport.screenshot.
  * 6. After execution: entry.status = testPassed ? "Passed" : "Failed";
  * 7. Count passed/failed from reportEntries.
  * 8. Compute totalRunTimeMs = sum of entry.totalDuration.
  * 9. Call HtmlReportGenerator.generateReport(new File("reports/report.html"), reportEntries, totalRunTimeMs, lastLoadedFile, passedCount, failedCount, 0);
  * 10. After calling generateReport, call HtmlReportGenerator.openReportAutomatically(new File("reports/report.html")) to open the report in the default browser, regardless of test outcomes.
+ *
+ * Screenshots are not embedded: the step shows the thumbnail and the modal the full image, both files written
+ * by {@link ScreenshotStore} during the run and linked relative to the report, so keep them with the report
+ * when sharing it. Close the store before generating the report so every file is written.
  */
 public class HtmlReportGenerator {
 
@@ -50,7 +56,7 @@ public class HtmlReportGenerator {
         public long durationMs;
         public String stepDesc;
         public String error;
-        public byte[] screenshotBytes;
+        public ScreenshotStore.Screenshot screenshot;
     }
 
     /**
@@ -168,10 +174,11 @@ public class HtmlReportGenerator {
                 html.append("                                    <td>" + step.stepNo + "</td>\n");
                 // Embed screenshot in Test Step column for TAKE_SCREENSHOT steps
                 html.append("                                    <td>");
-                if ("Take screen-shot".equals(step.testStep) && step.screenshotBytes != null && step.screenshotBytes.length > 0) {
-                    String base64Image = Base64.getEncoder().encodeToString(step.screenshotBytes);
+                if ("Take screen-shot".equals(step.testStep) && step.screenshot != null && step.screenshot.getImage() != null) {
+                    String imageSrc = relativeLink(outputFile, step.screenshot.getImage().toFile());
+                    String thumbnailSrc = relativeLink(outputFile, step.screenshot.getThumbnail().toFile());
                     String modalId = "screenshotModal" + entry.testId + "_" + step.stepNo;
-                    html.append("<img src=\"data:image/png;base64," + base64Image + "\" alt=\"Screenshot\" class=\"screenshot-img\" data-bs-toggle=\"modal\" data-bs-target=\"#" + modalId + "\">");
+                    html.append("<img src=\"" + thumbnailSrc + "\" alt=\"Screenshot\" class=\"screenshot-img\" loading=\"lazy\" data-bs-toggle=\"modal\" data-bs-target=\"#" + modalId + "\">");
                     // Modal for full-screen screenshot
                     html.append("<div class=\"modal fade\" id=\"" + modalId + "\" tabindex=\"-1\" aria-labelledby=\"" + modalId + "Label\" aria-hidden=\"true\">");
                     html.append("<div class=\"modal-dialog modal-dialog-centered modal-xl\">");
@@ -181,7 +188,7 @@ public class HtmlReportGenerator {
                     html.append("<button type=\"button\" class=\"btn-close\" data-bs-dismiss=\"modal\" aria-label=\"Close\"></button>");
                     html.append("</div>");
                     html.append("<div class=\"modal-body text-center\">");
-                    html.append("<img src=\"data:image/png;base64," + base64Image + "\" alt=\"Full Screenshot\" class=\"modal-img\">");
+                    html.append("<img src=\"" + imageSrc + "\" alt=\"Full Screenshot\" class=\"modal-img\" loading=\"lazy\">");
                     html.append("</div>");
                     html.append("</div>");
                     html.append("</div>");
@@ -319,6 +326,19 @@ public class HtmlReportGenerator {
         }
     }
 
+    /**
+     * @return A URL path from the report's folder to the file.
+     */
+    private static String relativeLink(File report, File target) {
+        Path from = report.getAbsoluteFile().getParentFile().toPath().normalize();
+        String link = from.relativize(target.getAbsoluteFile().toPath().normalize()).toString().replace(File.separatorChar, '/');
+        StringBuilder encoded = new StringBuilder();
+        for (String segment : link.split("/")) {
+            encoded.append(encoded.length() > 0 ? "/" : "").append(URLEncoder.encode(segment, StandardCharsets.UTF_8).replace("+", "%20"));
+        }
+        return encoded.toString();
+    }
+
     /**
      * Escapes HTML entities for safe output.
      */
@@ -1,33 +1,36 @@
 package com.test.window.gui;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import java.io.FileWriter;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.StringReader;
-import java.io.StringWriter;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import org.w3c.dom.Document;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
+import java.util.zip.GZIPOutputStream;
 
 public class HtmlReportGeneratorApi {
 
@@ -43,6 +46,278 @@ public class HtmlReportGeneratorApi {
         <script src="https://cdn.jsdelivr.net/npm/bootstrap@5.3.8/dist/js/bootstrap.bundle.min.js" integrity="sha384-FKyoEForCGlyvwx9Hj09JcYn3nv7wiPVlz7YYwJrWVcXK/BmnVDxM+D2scQbITxI" crossorigin="anonymous"></script>
         """;
 
+    private static final String PAGE_SCRIPT = """
+        <script>
+        document.addEventListener('DOMContentLoaded', function() {
+         const allBtn = document.getElementById('filterAllBtn');
+         const passBtn = document.getElementById('filterPassBtn');
+         const failBtn = document.getElementById('filterFailBtn');
+         const searchBox = document.getElementById('searchBox');
+         const scrollToTopBtn = document.getElementById('scrollToTopBtn');
+         const tableContainer = document.getElementById('tableContainer');
+         const tbody = document.querySelector('#testReportTable tbody');
+         // Rows arrive as data, one JSON array per line: [status, search text, row markup].
+         // Only the rows near the visible part of the table are turned into DOM.
+         const statuses = [];
+         const texts = [];
+         const markup = [];
+         const rowData = document.getElementById('reportRows');
+         (rowData ? rowData.textContent.split('\\n') : []).forEach(line => {
+         if (!line.trim()) {
+         return;
+         }
+         try {
+         const row = JSON.parse(line);
+         statuses.push(row[0]);
+         texts.push(row[1]);
+         markup.push(row[2]);
+         } catch (e) {
+         console.error('Skipping incomplete report row: ', e); // Report cut short mid-row
+         }
+         });
+         const heights = new Float64Array(markup.length); // Measured row heights; 0 until rendered
+         let measuredTotal = 0;
+         let measuredCount = 0;
+         let visible = [];
+         let statusFilter = 'all';
+         let renderedFirst = -1;
+         let renderedLast = -1;
+         let renderPending = false;
+         let settlePasses = 0;
+         if (allBtn && passBtn && failBtn && scrollToTopBtn && tableContainer) {
+         allBtn.addEventListener('click', function() { filterTests('all'); });
+         passBtn.addEventListener('click', function() { filterTests('pass'); });
+         failBtn.addEventListener('click', function() { filterTests('fail'); });
+         scrollToTopBtn.addEventListener('click', function() {
+         scrollToTop();
+         });
+         tableContainer.addEventListener('scroll', scheduleRender);
+         window.addEventListener('resize', scheduleRender);
+         }
+         if (searchBox) {
+         let searchTimer = null;
+         searchBox.addEventListener('input', function() {
+         clearTimeout(searchTimer);
+         searchTimer = setTimeout(applyFilters, 150);
+         });
+         }
+         if (allBtn && allBtn.textContent === '-') {
+         countRows();
+         }
+         filterTests('all');
+         function filterTests(filterType) {
+         statusFilter = filterType;
+         applyFilters();
+         }
+         function applyFilters() {
+         const query = searchBox ? searchBox.value.trim().toLowerCase() : '';
+         visible = [];
+         for (let i = 0; i < statuses.length; i++) {
+         if ((statusFilter === 'all' || statuses[i] === statusFilter) && (!query || texts[i].indexOf(query) >= 0)) {
+         visible.push(i);
+         }
+         }
+         renderedFirst = -1;
+         renderedLast = -1;
+         if (tableContainer) {
+         tableContainer.scrollTop = 0;
+         }
+         renderRows();
+         }
+         function heightOf(index) {
+         return heights[index] || (measuredCount > 0 ? measuredTotal / measuredCount : 120);
+         }
+         function scheduleRender() {
+         settlePasses = 0;
+         queueRender();
+         }
+         function queueRender() {
+         if (!renderPending) {
+         renderPending = true;
+         requestAnimationFrame(function() {
+         renderPending = false;
+         renderRows();
+         });
+         }
+         }
+         function spacer(height) {
+         return "<tr class='spacer-row'><td colspan='15' style='height:" + height + "px'></td></tr>";
+         }
+         function renderRows() {
+         if (!tbody || !tableContainer) {
+         return;
+         }
+         const head = document.querySelector('#testReportTable thead');
+         const viewTop = tableContainer.scrollTop - (head ? head.offsetHeight : 0);
+         const viewHeight = tableContainer.clientHeight;
+         let offset = 0;
+         let first = 0;
+         while (first < visible.length && offset + heightOf(visible[first]) < viewTop - viewHeight) {
+         offset += heightOf(visible[first]);
+         first++;
+         }
+         const top = offset;
+         let last = first;
+         while (last < visible.length && offset < viewTop + 2 * viewHeight) {
+         offset += heightOf(visible[last]);
+         last++;
+         }
+         if (first === renderedFirst && last === renderedLast) {
+         return;
+         }
+         let bottom = 0;
+         for (let k = last; k < visible.length; k++) {
+         bottom += heightOf(visible[k]);
+         }
+         const html = [spacer(top)];
+         for (let k = first; k < last; k++) {
+         html.push(markup[visible[k]]);
+         }
+         html.push(spacer(bottom));
+         tbody.innerHTML = html.join('');
+         renderedFirst = first;
+         renderedLast = last;
+         let changed = false;
+         for (let k = first; k < last; k++) {
+         const row = tbody.rows[k - first + 1];
+         const index = visible[k];
+         const height = row.offsetHeight;
+         if (heights[index] !== height) {
+         if (heights[index] === 0) {
+         measuredCount++;
+         } else {
+         measuredTotal -= heights[index];
+         }
+         measuredTotal += height;
+         heights[index] = height;
+         changed = true;
+         }
+         }
+         if (changed && settlePasses < 3) {
+         // Estimates were replaced by real heights; lay the window out again with them
+         settlePasses++;
+         renderedFirst = -1;
+         queueRender();
+         }
+         }
+         function rememberRow(row) {
+         // Keep a row's expanded state when it scrolls out and back in
+         const index = parseInt(row.id.substring(4), 10);
+         if (!isNaN(index) && index < markup.length) {
+         markup[index] = row.outerHTML;
+         renderedFirst = -1;
+         scheduleRender();
+         }
+         }
+         function countRows() {
+         // Report cut short before finish(): count the rows that were written
+         let pass = 0, fail = 0;
+         statuses.forEach(status => {
+         if (status === 'pass') pass++;
+         else if (status === 'fail') fail++;
+         });
+         allBtn.textContent = statuses.length;
+         passBtn.textContent = pass;
+         failBtn.textContent = fail;
+         const totalTime = document.getElementById('totalTime');
+         if (totalTime) {
+         totalTime.textContent = 'incomplete run';
+         }
+         }
+         function scrollToTop() {
+         const container = document.getElementById('tableContainer');
+         if (container) {
+         try {
+         container.scrollTo({ top: 0, behavior: 'smooth' });
+         } catch (e) {
+         container.scrollTop = 0;
+         }
+         } else {
+         try {
+         window.scrollTo({ top: 0, behavior: 'smooth' });
+         } catch (e) {
+         window.scrollTop = 0;
+         }
+         }
+         }
+         // External layout: a full body is loaded from its blob script on first expand
+         const table = document.getElementById('testReportTable');
+         const blobsDir = table ? table.getAttribute('data-blobs') : null;
+         const blobRequests = {};
+         const blobCallbacks = {};
+         window.reportBlob = function(hash, data) {
+         const callback = blobCallbacks[hash];
+         delete blobCallbacks[hash];
+         if (callback) {
+         callback(data);
+         }
+         };
+         function inflateBlob(data) {
+         const binary = atob(data);
+         const bytes = new Uint8Array(binary.length);
+         for (let i = 0; i < binary.length; i++) {
+         bytes[i] = binary.charCodeAt(i);
+         }
+         const stream = new Blob([bytes]).stream().pipeThrough(new DecompressionStream('gzip'));
+         return new Response(stream).text();
+         }
+         function loadBlob(hash) {
+         if (!blobRequests[hash]) {
+         blobRequests[hash] = new Promise(function(resolve, reject) {
+         const script = document.createElement('script');
+         blobCallbacks[hash] = function(data) {
+         script.remove();
+         inflateBlob(data).then(resolve, reject);
+         };
+         script.onerror = function() {
+         delete blobCallbacks[hash];
+         delete blobRequests[hash];
+         script.remove();
+         reject(new Error('Missing ' + script.src));
+         };
+         script.src = blobsDir + '/' + hash + '.js';
+         document.head.appendChild(script);
+         });
+         }
+         return blobRequests[hash];
+         }
+         document.addEventListener('click', function(event) {
+         const button = event.target.closest('.body-expand');
+         if (!button || !blobsDir) {
+         return;
+         }
+         const preview = button.previousElementSibling;
+         const full = button.nextElementSibling;
+         if (full.getAttribute('data-loaded')) {
+         const showFull = full.style.display === 'none';
+         full.style.display = showFull ? '' : 'none';
+         preview.style.display = showFull ? 'none' : '';
+         button.textContent = showFull ? 'Hide full body' : button.getAttribute('data-label');
+         rememberRow(button.closest('tr'));
+         return;
+         }
+         if (!button.getAttribute('data-label')) {
+         button.setAttribute('data-label', button.textContent);
+         }
+         button.disabled = true;
+         button.textContent = 'Loading...';
+         loadBlob(button.getAttribute('data-blob')).then(function(body) {
+         full.innerHTML = body;
+         full.setAttribute('data-loaded', 'true');
+         preview.style.display = 'none';
+         button.textContent = 'Hide full body';
+         }).catch(function(e) {
+         console.error('Error loading report body: ', e);
+         button.textContent = button.getAttribute('data-label') + ' - could not be loaded';
+         }).finally(function() {
+         button.disabled = false;
+         rememberRow(button.closest('tr'));
+         });
+         });
+        });
+        </script>
+        """;
+
     private static final String CSS_STYLE = """
          body {
              margin: 0;
@@ -173,6 +448,20 @@ public class HtmlReportGeneratorApi {
              margin: 0;
              font-size: 10px;
          }
+         .spacer-row td {
+             padding: 0 !important;
+             border: 0 !important;
+         }
+         .search-box {
+             max-width: 400px;
+             margin: 10px auto 0;
+             font-size: 12px;
+         }
+         .body-expand {
+             display: block;
+             margin-top: 4px;
+             font-size: 10px;
+         }
          .map-content {
              white-space: pre;
              padding: 10px;
@@ -279,52 +568,163 @@ public class HtmlReportGeneratorApi {
              font-weight: bold;
              color: #212529;
          }
+         .json-diff {
+             margin-top: 6px;
+         }
+         .json-diff summary {
+             cursor: pointer;
+             font-weight: bold;
+         }
+         .json-diff pre {
+             white-space: pre-wrap;
+             word-break: break-all;
+             background-color: #F8F9FA;
+             padding: 6px;
+             border-radius: 4px;
+             margin: 4px 0 0 0;
+             font-size: 10px;
+         }
+         .diff-add {
+             color: #008000;
+         }
+         .diff-remove {
+             color: #FF0000;
+         }
+         .diff-replace {
+             color: #B35900;
+         }
          """;
 
     // NEW: Total execution time in milliseconds
+    private static final String REPORT_FILE = "report.html";
+
+    /**
+     * Rows are pretty-printed, wrapped, escaped and highlighted on these threads; each row is
+     * independent, and the results are written in the order the rows were appended.
+     */
+    private static final int RENDER_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+    private static final ExecutorService RENDERER = Executors.newFixedThreadPool(RENDER_THREADS, r -> {
+        Thread thread = new Thread(r, "api-report-renderer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Rows rendered ahead of the file; the appending thread waits beyond this
+    private static final int MAX_PENDING_ROWS = RENDER_THREADS * 4;
+
+    // External layout: bodies longer than the preview live in <report>-blobs/<sha-256>.js
+    private final boolean externalBodies;
+    private final int bodyPreviewChars;
+    private final int bodyMaxChars;
+    private long unparsedBodyMaxChars = Long.MAX_VALUE;
+    private ReportBlobStore blobs;
+
     private long totalResponseTimeMs = 0L;
+    private Writer writer;
+    private String reportFile;
+    private int rowCount;
+    private int rowsWritten;
+    private int passCount;
+    private int failCount;
+    private final Deque<Future<String>> pendingRows = new ArrayDeque<>();
+    private IntConsumer progressListener;
 
-    public void generateReport(List<Map<String, Object>> reportDataList, ObjectMapper objectMapper) {
-        int totalTests = reportDataList.size();
-        int passCount = 0;
-        int failCount = 0;
-        totalResponseTimeMs = 0L;
+    /**
+     * Creates a generator that inlines every body in report.html.
+     */
+    public HtmlReportGeneratorApi() {
+        this(false, 0, 0);
+    }
 
-        for (Map<String, Object> reportData : reportDataList) {
-            String status = safeToString(reportData.get("status"));
-            if (status.equalsIgnoreCase("Pass") || status.equalsIgnoreCase("passed")) {
-                passCount++;
-            } else if (status.equalsIgnoreCase("Fail") || status.equalsIgnoreCase("failed")) {
-                failCount++;
-            }
+    /**
+     * @param externalBodies   Keep only a preview of long payload, response and verify bodies in the
+     *                         table and store each full formatted body once, as a compressed
+     *                         script named by content hash, loaded when the body is expanded.
+     * @param bodyPreviewChars Bodies up to this length stay inline; longer ones show this many
+     *                         characters in the table.
+     * @param bodyMaxChars     Longer external bodies are cut to this length before formatting;
+     *                         0 for no limit.
+     */
+    public HtmlReportGeneratorApi(boolean externalBodies, int bodyPreviewChars, int bodyMaxChars) {
+        this.externalBodies = externalBodies;
+        this.bodyPreviewChars = Math.max(0, bodyPreviewChars);
+        this.bodyMaxChars = Math.max(0, bodyMaxChars);
+    }
 
-            // Accumulate total response time
-            String respTimeStr = safeToString(reportData.get("responseTimeMs"));
-            if (!respTimeStr.isEmpty()) {
-                try {
-                    totalResponseTimeMs += Long.parseLong(respTimeStr);
-                } catch (NumberFormatException ignored) {}
-            }
-        }
-        System.out.println("DEBUG - Total: " + totalTests + ", Pass: " + passCount + ", Fail: " + failCount);
+    /**
+     * Reads "reportLayout" ("inline" or "external"), "reportBodyPreviewChars" and
+     * "reportBodyMaxChars" from runner.json, and "streamingVerifyThresholdBytes" for
+     * {@link #setUnparsedBodyMaxChars(long)}.
+     */
+    public static HtmlReportGeneratorApi fromSettings(RunnerSettings settings) {
+        boolean external = "external".equalsIgnoreCase(settings.getString("reportLayout", "inline").trim());
+        HtmlReportGeneratorApi generator = new HtmlReportGeneratorApi(external, settings.getInt("reportBodyPreviewChars", 2000),
+            settings.getInt("reportBodyMaxChars", 5 * 1024 * 1024));
+        generator.setUnparsedBodyMaxChars(settings.getLong("streamingVerifyThresholdBytes", 1024L * 1024L));
+        return generator;
+    }
 
-        // Post-processing validation for unresolved placeholders
-        for (Map<String, Object> data : reportDataList) {
-            String testId = safeToString(data.get("testId"));
-            List<String> fieldsToCheck = Arrays.asList("endpoint", "payload", "verifyResponse");
-            for (String field : fieldsToCheck) {
-                String value = safeToString(data.get(field));
-                if (value != null && value.contains("{{")) {
-                    System.err.println("Warning: Unresolved placeholders in " + field + " for Test ID " + testId + ": " + value);
-                }
+    /**
+     * @param maxChars JSON response bodies longer than this that the run did not parse (the
+     *                 streaming matcher verified them) are shown raw rather than parsed and
+     *                 pretty-printed for the report. A body the run parsed reuses its tree.
+     */
+    public void setUnparsedBodyMaxChars(long maxChars) {
+        this.unparsedBodyMaxChars = maxChars;
+    }
+
+    /**
+     * Writes a complete report from rows collected in memory.
+     */
+    public void generateReport(List<Map<String, Object>> reportDataList, ObjectMapper objectMapper) {
+        try {
+            begin(REPORT_FILE);
+            for (Map<String, Object> reportData : reportDataList) {
+                appendRow(reportData, objectMapper);
             }
+            finish();
+        } catch (IOException e) {
+            System.err.println("Error writing HTML report: " + e.getMessage());
+            throw new RuntimeException("Failed to write HTML report", e);
         }
+    }
+
+    /**
+     * @param listener Called with the number of rows written to the file so far, on the thread
+     *                 appending rows or finishing the report; null to stop reporting.
+     */
+    public synchronized void setProgressListener(IntConsumer listener) {
+        this.progressListener = listener;
+    }
+
+    /**
+     * Starts a streaming report at report.html.
+     */
+    public void begin() throws IOException {
+        begin(REPORT_FILE);
+    }
+
+    /**
+     * Starts a streaming report: writes the page header, scripts and the empty table, then opens
+     * the row data so rows can be appended as tests finish. The page draws only the rows in view.
+     * The summary counts are patched in by {@link #finish()}; a report cut short by a crash counts
+     * its rows in the browser instead.
+     */
+    public synchronized void begin(String fileName) throws IOException {
+        writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileName), StandardCharsets.UTF_8));
+        reportFile = fileName;
+        rowCount = 0;
+        rowsWritten = 0;
+        pendingRows.clear();
+        passCount = 0;
+        failCount = 0;
+        totalResponseTimeMs = 0L;
+        blobs = externalBodies ? ReportBlobStore.forReport(Paths.get(fileName)) : null;
 
         ZonedDateTime now = ZonedDateTime.now();
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss z");
         String dateTime = now.format(formatter);
 
-        StringBuilder html = new StringBuilder();
+        StringBuilder html = new StringBuilder(CSS_STYLE.length() + 4096);
         html.append("<!DOCTYPE html>\n")
             .append("<html lang='en'>\n")
             .append("<head>\n")
@@ -334,6 +734,8 @@ public class HtmlReportGeneratorApi {
             .append(BOOTSTRAP_CSS)
             .append(BOOTSTRAP_ICONS_CSS)
             .append("<style>\n").append(CSS_STYLE).append("</style>\n")
+            .append(BOOTSTRAP_JS)
+            .append(PAGE_SCRIPT)
             .append("</head>\n")
             .append("<body>\n")
             .append("<div class='report-container'>\n")
@@ -341,16 +743,20 @@ public class HtmlReportGeneratorApi {
             .append("<div class='text-center mb-3'>\n")
             .append("<div class='date-line'><p>Generated on: ").append(escapeHtml(dateTime)).append("</p></div>\n")
             .append("<div class='summary-buttons'>\n")
-            .append("Total Tests: <button id='filterAllBtn' class='count-btn'>").append(totalTests).append("</button> | ")
-            .append("Passed: <button id='filterPassBtn' class='count-btn'>").append(passCount).append("</button> | ")
-            .append("Failed: <button id='filterFailBtn' class='count-btn'>").append(failCount).append("</button> | ")
-            .append("<span class='total-time'>Total Time: </span><span style=\"letter-spacing:-1px\">")
-            .append(formatTotalTime(totalResponseTimeMs))
+            .append("Total Tests: <button id='filterAllBtn' class='count-btn'>-</button> | ")
+            .append("Passed: <button id='filterPassBtn' class='count-btn'>-</button> | ")
+            .append("Failed: <button id='filterFailBtn' class='count-btn'>-</button> | ")
+            .append("<span class='total-time'>Total Time: </span><span id='totalTime' style=\"letter-spacing:-1px\">-")
             .append("</span>\n")
             .append("</div>\n")
+            .append("<input type='search' id='searchBox' class='form-control search-box' placeholder='Filter by test ID, description, endpoint or failure reason'>\n")
+            .append("</div>\n")
+            .append("<div class='scroll-to-top' id='scrollToTop'>\n")
+            .append("<button id='scrollToTopBtn' title='Scroll to Top'><i class='bi bi-arrow-up'></i></button>\n")
             .append("</div>\n")
             .append("<div class='table-container' id='tableContainer'>\n")
-            .append("<table class='table table-hover table-bordered' id='testReportTable'>\n")
+            .append("<table class='table table-hover table-bordered' id='testReportTable'")
+            .append(blobs != null ? " data-blobs='" + escapeHtml(blobs.getDirectoryName()) + "'" : "").append(">\n")
             .append("<thead>\n")
             .append("<tr>\n")
             .append("<th>Test ID</th>\n")
@@ -370,176 +776,324 @@ public class HtmlReportGeneratorApi {
             .append("<th>Capture Summary</th>\n")
             .append("</tr>\n")
             .append("</thead>\n")
-            .append("<tbody>\n");
-
-        int rowIndex = 0;
-        for (Map<String, Object> reportData : reportDataList) {
-            String status = safeToString(reportData.get("status"));
-            html.append("<tr id='row-").append(rowIndex).append("' data-status='").append(status.toLowerCase()).append("'>\n");
-            html.append("<td>").append(safeToString(reportData.get("testId"))).append("</td>\n");
-            String description = safeToString(reportData.get("description"));
-            html.append("<td class='description'><span>").append(escapeHtml(description)).append("</span></td>\n");
-
-            html.append("<td class='").append(status.equalsIgnoreCase("Pass") ? "pass" : status.equalsIgnoreCase("Fail") ? "fail" : "").append("'>")
-                .append(status).append("</td>\n");
-
-            html.append("<td>").append(safeToString(reportData.get("request"))).append("</td>\n");
-            String endpointRaw = reportData.get("endpoint") != null ? String.valueOf(reportData.get("endpoint")) : "";
-            String endpointContent;
-            if (endpointRaw.length() > 100) {
-                String endpointWrapped = wrapLongValue(endpointRaw, 100);
-                String endpointEscaped = escapeHtml(endpointWrapped);
-                String endpointHighlighted = highlightPlaceholders(endpointEscaped);
-                endpointContent = endpointHighlighted.replace("\n", "<br>");
-            } else {
-                String endpointEscaped = escapeHtml(endpointRaw);
-                endpointContent = highlightPlaceholders(endpointEscaped);
+            .append("<tbody>\n")
+            .append("</tbody>\n")
+            .append("</table>\n")
+            .append("</div>\n")
+            .append("</div>\n")
+            // Rows follow as inert text, one per line, and are drawn by PAGE_SCRIPT
+            .append("<script type='text/plain' id='reportRows'>\n");
+
+        writer.write(html.toString());
+        writer.flush();
+    }
+
+    /**
+     * Queues one finished test for rendering and writes every row rendered so far, in order, so the
+     * file holds all completed rows but the few still being formatted. The map must not be changed
+     * afterwards.
+     */
+    public synchronized void appendRow(Map<String, Object> reportData, ObjectMapper objectMapper) throws IOException {
+        if (writer == null) {
+            throw new IllegalStateException("Report not started");
+        }
+        String status = safeToString(reportData.get("status"));
+        if (status.equalsIgnoreCase("Pass") || status.equalsIgnoreCase("passed")) {
+            passCount++;
+        } else if (status.equalsIgnoreCase("Fail") || status.equalsIgnoreCase("failed")) {
+            failCount++;
+        }
+        String respTimeStr = safeToString(reportData.get("responseTimeMs"));
+        if (!respTimeStr.isEmpty()) {
+            try {
+                totalResponseTimeMs += Long.parseLong(respTimeStr);
+            } catch (NumberFormatException ignored) {}
+        }
+
+        // Post-processing validation for unresolved placeholders
+        String testId = safeToString(reportData.get("testId"));
+        for (String field : Arrays.asList("endpoint", "payload", "verifyResponse")) {
+            String value = safeToString(reportData.get(field));
+            if (value.contains("{{")) {
+                System.err.println("Warning: Unresolved placeholders in " + field + " for Test ID " + testId + ": " + value);
             }
-            html.append("<td>").append(endpointContent).append("</td>\n");
+        }
 
-            String payloadStr = reportData.get("payload") != null ? String.valueOf(reportData.get("payload")) : "";
-            html.append("<td>").append(formatJsonContent(payloadStr, objectMapper, "payload")).append("</td>\n");
+        int rowIndex = rowCount++;
+        pendingRows.addLast(RENDERER.submit(() -> rowLine(reportData, renderRow(reportData, rowIndex, objectMapper), objectMapper)));
+        writeRenderedRows(pendingRows.size() > MAX_PENDING_ROWS);
+    }
 
-            String headersContent = formatMap(reportData.get("headers"), objectMapper, false);
-            html.append("<td>").append(headersContent.startsWith("<span") ? headersContent : "<pre class='map-content'>" + headersContent + "</pre>").append("</td>\n");
+    /**
+     * Writes rendered rows from the head of the queue, stopping at the first one still being
+     * rendered unless asked to wait for it.
+     *
+     * @param waitForHead Wait for the oldest row even if it is not ready yet.
+     */
+    private void writeRenderedRows(boolean waitForHead) throws IOException {
+        boolean wrote = false;
+        while (!pendingRows.isEmpty() && (waitForHead || pendingRows.peekFirst().isDone())) {
+            Future<String> row = pendingRows.removeFirst();
+            try {
+                writer.write(row.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while rendering report rows", e);
+            } catch (ExecutionException e) {
+                throw new IOException("Failed to render report row: " + e.getCause().getMessage(), e.getCause());
+            }
+            rowsWritten++;
+            wrote = true;
+            waitForHead = false;
+        }
+        if (wrote) {
+            writer.flush();
+            if (progressListener != null) {
+                progressListener.accept(rowsWritten);
+            }
+        }
+    }
 
-            String parametersContent = formatMap(reportData.get("parameters"), objectMapper, false);
-            html.append("<td>").append(parametersContent.startsWith("<span") ? parametersContent : "<pre class='map-content'>" + parametersContent + "</pre>").append("</td>\n");
+    /**
+     * Writes every queued row, waiting for those still being rendered.
+     */
+    private void writeAllRows() throws IOException {
+        while (!pendingRows.isEmpty()) {
+            writeRenderedRows(true);
+        }
+    }
 
-            String authContent;
-            Object authObj = reportData.get("authentication");
-            if (authObj == null || !(authObj instanceof Map) || ((Map<?, ?>) authObj).isEmpty() || 
-                ((Map<?, ?>) authObj).get("Type") == null || 
-                "".equals(String.valueOf(((Map<?, ?>) authObj).get("Type")).trim()) || 
-                "None".equalsIgnoreCase(String.valueOf(((Map<?, ?>) authObj).get("Type")))) {
-                authContent = "<span class='not-available'>None</span>";
-            } else {
-                authContent = formatMap(authObj, objectMapper, true);
+    /**
+     * Closes the table, patches the summary counts into the header and closes the file.
+     */
+    public synchronized void finish() throws IOException {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writeAllRows();
+        } catch (IOException e) {
+            for (Future<String> row : pendingRows) {
+                row.cancel(true);
             }
-            html.append("<td>").append(authContent.startsWith("<span") ? authContent : "<pre class='map-content'>" + authContent + "</pre>").append("</td>\n");
+            pendingRows.clear();
+            writer.close();
+            writer = null;
+            throw e;
+        }
+        System.out.println("DEBUG - Total: " + rowCount + ", Pass: " + passCount + ", Fail: " + failCount);
+        StringBuilder html = new StringBuilder();
+        html.append("</script>\n")
+            .append("<script>\n")
+            .append("document.getElementById('filterAllBtn').textContent = '").append(rowCount).append("';\n")
+            .append("document.getElementById('filterPassBtn').textContent = '").append(passCount).append("';\n")
+            .append("document.getElementById('filterFailBtn').textContent = '").append(failCount).append("';\n")
+            .append("document.getElementById('totalTime').innerHTML = '").append(formatTotalTime(totalResponseTimeMs)).append("';\n")
+            .append("</script>\n")
+            .append("</body>\n")
+            .append("</html>");
+        try {
+            writer.write(html.toString());
+        } finally {
+            writer.close();
+            writer = null;
+        }
+        System.out.println("Report generated successfully at: " + reportFile);
+        if (blobs != null) {
+            try {
+                blobs.retainUsed(); // Only this report links the folder; drop bodies of earlier runs
+            } catch (IOException e) {
+                System.err.println("Warning: Failed to prune " + blobs.getDirectory() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private String renderRow(Map<String, Object> reportData, int rowIndex, ObjectMapper objectMapper) {
+        StringBuilder html = new StringBuilder(4096);
+        String status = safeToString(reportData.get("status"));
+        html.append("<tr id='row-").append(rowIndex).append("' data-status='").append(status.toLowerCase()).append("'>\n");
+        html.append("<td>").append(safeToString(reportData.get("testId"))).append("</td>\n");
+        String description = safeToString(reportData.get("description"));
+        html.append("<td class='description'><span>").append(escapeHtml(description)).append("</span></td>\n");
 
-            html.append("<td>").append(safeToString(reportData.get("responseStatus"))).append("</td>\n");
+        html.append("<td class='").append(status.equalsIgnoreCase("Pass") ? "pass" : status.equalsIgnoreCase("Fail") ? "fail" : "").append("'>")
+            .append(status).append("</td>\n");
 
-            String responseTimeMs = safeToString(reportData.get("responseTimeMs"));
-            System.out.println("DEBUG - Rendering Response Time (ms) for Test ID " + safeToString(reportData.get("testId")) + ": " + responseTimeMs);
-            html.append("<td>").append(responseTimeMs).append("</td>\n");
+        html.append("<td>").append(safeToString(reportData.get("request"))).append("</td>\n");
+        String endpointRaw = reportData.get("endpoint") != null ? String.valueOf(reportData.get("endpoint")) : "";
+        String endpointContent;
+        if (endpointRaw.length() > 100) {
+            String endpointWrapped = wrapLongValue(endpointRaw, 100);
+            String endpointEscaped = escapeHtml(endpointWrapped);
+            String endpointHighlighted = highlightPlaceholders(endpointEscaped);
+            endpointContent = endpointHighlighted.replace("\n", "<br>");
+        } else {
+            String endpointEscaped = escapeHtml(endpointRaw);
+            endpointContent = highlightPlaceholders(endpointEscaped);
+        }
+        html.append("<td>").append(endpointContent).append("</td>\n");
 
-            String responseBodyStr = reportData.get("responseBody") != null ? String.valueOf(reportData.get("responseBody")) : "";
-            String contentType = detectContentType(responseBodyStr);
-            html.append("<td>").append(formatContent(responseBodyStr, objectMapper, "response-body", contentType)).append("</td>\n");
+        String payloadStr = reportData.get("payload") != null ? String.valueOf(reportData.get("payload")) : "";
+        String payloadType = XmlSupport.isXml(payloadStr) ? "xml" : "json";
+        html.append("<td>").append(bodyCell(payloadStr, "payload",
+            text -> formatContent(text, objectMapper, "payload", payloadType))).append("</td>\n");
 
-            String verifyResponseStr = reportData.get("verifyResponse") != null ? String.valueOf(reportData.get("verifyResponse")) : "";
-            String failureReasonStr = safeToString(reportData.get("failureReason"));
-            boolean isStatusMismatchFail = "Fail".equalsIgnoreCase(status) && !failureReasonStr.isEmpty() && failureReasonStr.contains("Status code mismatch");
-            boolean isNonResponseFailure = "Fail".equalsIgnoreCase(status) && (responseBodyStr.trim().isEmpty() || failureReasonStr.contains("Illegal character in path"));
-            String verifyResponseContent;
-            String verifyCssClass;
+        String headersContent = formatMap(reportData.get("headers"), objectMapper, false);
+        html.append("<td>").append(headersContent.startsWith("<span") ? headersContent : "<pre class='map-content'>" + headersContent + "</pre>").append("</td>\n");
 
-            System.out.println("DEBUG - Test ID: " + safeToString(reportData.get("testId")) + ", status: " + status + ", verifyResponse: " + verifyResponseStr + ", verificationPassed: " + reportData.get("verificationPassed") + ", failureReason: " + failureReasonStr + ", responseBody: " + responseBodyStr);
+        String parametersContent = formatMap(reportData.get("parameters"), objectMapper, false);
+        html.append("<td>").append(parametersContent.startsWith("<span") ? parametersContent : "<pre class='map-content'>" + parametersContent + "</pre>").append("</td>\n");
 
-            if (verifyResponseStr.trim().isEmpty()) {
-                verifyCssClass = "verify-response-gray";
-                verifyResponseContent = "<span class='not-available'>None</span>";
-            } else if ("Pass".equalsIgnoreCase(status)) {
+        String authContent;
+        Object authObj = reportData.get("authentication");
+        if (authObj == null || !(authObj instanceof Map) || ((Map<?, ?>) authObj).isEmpty() || 
+            ((Map<?, ?>) authObj).get("Type") == null || 
+            "".equals(String.valueOf(((Map<?, ?>) authObj).get("Type")).trim()) || 
+            "None".equalsIgnoreCase(String.valueOf(((Map<?, ?>) authObj).get("Type")))) {
+            authContent = "<span class='not-available'>None</span>";
+        } else {
+            authContent = formatMap(authObj, objectMapper, true);
+        }
+        html.append("<td>").append(authContent.startsWith("<span") ? authContent : "<pre class='map-content'>" + authContent + "</pre>").append("</td>\n");
+
+        html.append("<td>").append(safeToString(reportData.get("responseStatus"))).append("</td>\n");
+
+        String responseTimeMs = safeToString(reportData.get("responseTimeMs"));
+        System.out.println("DEBUG - Rendering Response Time (ms) for Test ID " + safeToString(reportData.get("testId")) + ": " + responseTimeMs);
+        html.append("<td>").append(responseTimeMs).append("</td>\n");
+
+        String responseBodyStr = reportData.get("responseBody") != null ? String.valueOf(reportData.get("responseBody")) : "";
+        String contentType = detectContentType(responseBodyStr);
+        JsonNode parsed = null;
+        Object responseDocument = reportData.get("responseDocument");
+        boolean parsedDuringRun = responseDocument instanceof ResponseDocument && ((ResponseDocument) responseDocument).isParsed();
+        if ("json".equals(contentType) && parsedDuringRun) {
+            try {
+                parsed = ((ResponseDocument) responseDocument).getTree();
+            } catch (Exception ignored) {} // Not JSON; formatContent falls back to the raw body
+        }
+        boolean rawOnly = !parsedDuringRun && responseBodyStr.length() > unparsedBodyMaxChars;
+        if (Boolean.TRUE.equals(reportData.get("responseBodySkipped"))) {
+            html.append("<td><span class='not-available'>Not downloaded (no check used the body)</span></td>\n");
+        } else if (Boolean.TRUE.equals(reportData.get("responseBodyStreamed"))) {
+            html.append("<td><span class='not-available'>Not kept (verified while downloading)</span></td>\n");
+        } else {
+            JsonNode parsedResponse = parsed;
+            int responseLength = responseBodyStr.length();
+            html.append("<td>").append(bodyCell(responseBodyStr, "response-body",
+                text -> rawOnly ? formatRaw(text, "response-body")
+                    : formatContent(text, text.length() == responseLength ? parsedResponse : null, objectMapper, "response-body", contentType)))
+                .append("</td>\n");
+        }
+
+        String verifyResponseStr = reportData.get("verifyResponse") != null ? String.valueOf(reportData.get("verifyResponse")) : "";
+        String failureReasonStr = safeToString(reportData.get("failureReason"));
+        boolean isStatusMismatchFail = "Fail".equalsIgnoreCase(status) && !failureReasonStr.isEmpty() && failureReasonStr.contains("Status code mismatch");
+        boolean isNonResponseFailure = "Fail".equalsIgnoreCase(status) && !Boolean.TRUE.equals(reportData.get("responseBodyStreamed"))
+            && (responseBodyStr.trim().isEmpty() || failureReasonStr.contains("Illegal character in path"));
+        String verifyResponseContent;
+        String verifyCssClass;
+
+        System.out.println("DEBUG - Test ID: " + safeToString(reportData.get("testId")) + ", status: " + status + ", verifyResponse: " + verifyResponseStr + ", verificationPassed: " + reportData.get("verificationPassed") + ", failureReason: " + failureReasonStr + ", responseBody: " + responseBodyStr);
+
+        if (verifyResponseStr.trim().isEmpty()) {
+            verifyCssClass = "verify-response-gray";
+            verifyResponseContent = "<span class='not-available'>None</span>";
+        } else {
+            if ("Pass".equalsIgnoreCase(status)) {
                 verifyCssClass = "verify-response-green";
-                verifyResponseContent = formatJsonContent(verifyResponseStr, objectMapper, verifyCssClass);
             } else if ("Fail".equalsIgnoreCase(status) && !isStatusMismatchFail && !isNonResponseFailure) {
                 verifyCssClass = "verify-response-red";
-                verifyResponseContent = formatJsonContent(verifyResponseStr, objectMapper, verifyCssClass);
             } else {
                 verifyCssClass = "verify-response-gray";
-                verifyResponseContent = formatJsonContent(verifyResponseStr, objectMapper, verifyCssClass);
             }
-            html.append("<td>").append(verifyResponseContent).append("</td>\n");
+            String verifyType = XmlSupport.isXml(verifyResponseStr) ? "xml" : "json";
+            verifyResponseContent = bodyCell(verifyResponseStr, verifyCssClass,
+                text -> formatContent(text, objectMapper, verifyCssClass, verifyType));
+        }
+        html.append("<td>").append(verifyResponseContent).append(formatAssertions(reportData.get("assertionResults"))).append("</td>\n");
 
-            String failureReason = safeToString(reportData.get("failureReason"));
-            String formattedFailureReason = formatFailureReason(failureReason);
-            html.append("<td class='failure-reason'>").append(formattedFailureReason).append("</td>\n");
+        String failureReason = safeToString(reportData.get("failureReason"));
+        String formattedFailureReason = formatFailureReason(failureReason);
+        html.append("<td class='failure-reason'>").append(formattedFailureReason)
+            .append(formatDiff(reportData.get("verifyDiff"), safeToString(reportData.get("verifyDiffNote"))))
+            .append(formatSchemaViolations(reportData.get("schemaViolations"), safeToString(reportData.get("schemaViolationsNote"))))
+            .append("</td>\n");
+
+        String captureIssues = safeToString(reportData.get("captureIssues"));
+        String captureIssuesEscaped = escapeHtml(captureIssues);
+        String wrappedCaptureIssues = wrapLongLines(captureIssuesEscaped, 100);
+        html.append("<td class='capture-issues'><span>").append(wrappedCaptureIssues.replace("\n", "<br>")).append("</span></td>\n");
+
+        html.append("</tr>\n");
+        return html.toString();
+    }
 
-            String captureIssues = safeToString(reportData.get("captureIssues"));
-            String captureIssuesEscaped = escapeHtml(captureIssues);
-            String wrappedCaptureIssues = wrapLongLines(captureIssuesEscaped, 100);
-            html.append("<td class='capture-issues'><span>").append(wrappedCaptureIssues.replace("\n", "<br>")).append("</span></td>\n");
+    /**
+     * Packs a rendered row into one line of the row data: [status, search text, markup]. The
+     * search text holds the fields the filter box matches, lower-cased. Sequences that could end
+     * or confuse the enclosing script element are escaped inside the JSON strings.
+     */
+    private String rowLine(Map<String, Object> reportData, String rowHtml, ObjectMapper objectMapper) throws IOException {
+        String searchText = String.join(" ", Objects.toString(reportData.get("testId"), ""), Objects.toString(reportData.get("description"), ""),
+            Objects.toString(reportData.get("request"), ""), Objects.toString(reportData.get("endpoint"), ""),
+            Objects.toString(reportData.get("responseStatus"), ""), Objects.toString(reportData.get("failureReason"), "")).toLowerCase();
+        String json = objectMapper.writeValueAsString(new String[] {
+            safeToString(reportData.get("status")).toLowerCase(), searchText, rowHtml });
+        return json.replace("<!--", "<\\u0021--").replace("</", "<\\/") + "\n";
+    }
 
-            html.append("</tr>\n");
-            rowIndex++;
+    /**
+     * Formats a payload, response or verify body. In the external layout a body longer than the
+     * preview shows only its first characters and an expand button; the formatted body, cut to
+     * the size cap, is stored as a blob keyed by the hash of the body and its style, so a body
+     * already stored by an earlier row or run is neither formatted nor written again.
+     */
+    private String bodyCell(String body, String cssClass, Function<String, String> formatter) {
+        if (blobs == null || body.length() <= bodyPreviewChars) {
+            return formatter.apply(body);
         }
-        html.append("</tbody>\n")
-            .append("</table>\n")
-            .append("</div>\n")
-            .append("</div>\n")
-            .append("<div class='scroll-to-top' id='scrollToTop'>\n")
-            .append("<button id='scrollToTopBtn' title='Scroll to Top'><i class='bi bi-arrow-up'></i></button>\n")
-            .append("</div>\n")
-            .append(BOOTSTRAP_JS)
-            .append("<script>\n")
-            .append("document.addEventListener('DOMContentLoaded', function() {\n")
-            .append(" const allBtn = document.getElementById('filterAllBtn');\n")
-            .append(" const passBtn = document.getElementById('filterPassBtn');\n")
-            .append(" const failBtn = document.getElementById('filterFailBtn');\n")
-            .append(" const scrollToTopBtn = document.getElementById('scrollToTopBtn');\n")
-            .append(" const tableContainer = document.getElementById('tableContainer');\n")
-            .append(" if (allBtn && passBtn && failBtn && scrollToTopBtn && tableContainer) {\n")
-            .append(" allBtn.addEventListener('click', function() { filterTests('all'); });\n")
-            .append(" passBtn.addEventListener('click', function() { filterTests('pass'); });\n")
-            .append(" failBtn.addEventListener('click', function() { filterTests('fail'); });\n")
-            .append(" scrollToTopBtn.addEventListener('click', function() {\n");
-        html.append(" scrollToTop();\n");
-        html.append(" });\n");
-        html.append(" }\n");
-        html.append(" filterTests('all');\n");
-        html.append(" function filterTests(filterType) {\n");
-        html.append(" const rows = document.querySelectorAll('#testReportTable tbody tr');\n");
-        html.append(" if (rows.length === 0) {\n");
-        html.append(" return;\n");
-        html.append(" }\n");
-        html.append(" rows.forEach(row => {\n");
-        html.append(" const status = row.getAttribute('data-status') || '';\n");
-        html.append(" row.style.display = (filterType === 'all' || status === filterType) ? '' : 'none';\n");
-        html.append(" });\n");
-        html.append(" const container = document.getElementById('tableContainer');\n");
-        html.append(" if (!container) {\n");
-        html.append(" return;\n");
-        html.append(" }\n");
-        html.append(" try {\n");
-        html.append(" container.scrollTo({ top: 0, behavior: 'smooth' });\n");
-        html.append(" } catch (e) {\n");
-        html.append(" container.scrollTop = 0;\n");
-        html.append(" }\n");
-        html.append(" try {\n");
-        html.append(" wrapLongContent();\n");
-        html.append(" } catch (e) {\n");
-        html.append(" console.error('Error in wrapLongContent after filter: ', e);\n");
-        html.append(" }\n");
-        html.append(" }\n");
-        html.append(" function scrollToTop() {\n");
-        html.append(" const container = document.getElementById('tableContainer');\n");
-        html.append(" if (container) {\n");
-        html.append(" try {\n");
-        html.append(" container.scrollTo({ top: 0, behavior: 'smooth' });\n");
-        html.append(" } catch (e) {\n");
-        html.append(" container.scrollTop = 0;\n");
-        html.append(" }\n");
-        html.append(" } else {\n");
-        html.append(" try {\n");
-        html.append(" window.scrollTo({ top: 0, behavior: 'smooth' });\n");
-        html.append(" } catch (e) {\n");
-        html.append(" window.scrollTop = 0;\n");
-        html.append(" }\n");
-        html.append(" }\n");
-        html.append(" }\n");
-        html.append("});\n");
-        html.append("</script>\n");
-        html.append("</body>\n")
-            .append("</html>");
+        String hash = ReportBlobStore.sha256Hex((cssClass + "\n" + body).getBytes(StandardCharsets.UTF_8));
+        try {
+            blobs.putIfAbsent(hash, "js", () -> {
+                boolean truncated = bodyMaxChars > 0 && body.length() > bodyMaxChars;
+                String full = formatter.apply(truncated ? body.substring(0, bodyMaxChars) : body);
+                if (truncated) {
+                    full += "<span class='not-available'>Truncated at " + formatSize(bodyMaxChars) + " of " + formatSize(body.length()) + "</span>";
+                }
+                return blobScript(hash, full);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store report body " + hash, e);
+        }
+        String preview = wrapLongLines(body.substring(0, bodyPreviewChars), 100);
+        return "<pre class='" + cssClass + "'>" + escapeHtml(preview) + " ...</pre>"
+            + "<button type='button' class='btn btn-sm btn-outline-primary body-expand' data-blob='" + hash + "'>"
+            + "Show full body (" + formatSize(body.length()) + ")</button>"
+            + "<div class='body-full'></div>";
+    }
 
-        try (FileWriter fileWriter = new FileWriter("report.html")) {
-            fileWriter.write(html.toString());
-            System.out.println("Report generated successfully at: report.html");
+    /**
+     * A body blob is a script that hands gzip-compressed HTML to the page, rather than a plain
+     * file, so the report also works when opened from disk, where browsers refuse fetch() of
+     * local files.
+     */
+    private static byte[] blobScript(String hash, String html) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(html.getBytes(StandardCharsets.UTF_8));
         } catch (IOException e) {
-            System.err.println("Error writing HTML report: " + e.getMessage());
-            throw new RuntimeException("Failed to write HTML report", e);
+            throw new UncheckedIOException(e); // In-memory stream
+        }
+        String script = "reportBlob('" + hash + "', '" + Base64.getEncoder().encodeToString(compressed.toByteArray()) + "');\n";
+        return script.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static String formatSize(long chars) {
+        if (chars < 1024) {
+            return chars + " chars";
         }
+        return chars < 1024 * 1024 ? String.format("%.1f KB", chars / 1024.0) : String.format("%.1f MB", chars / (1024.0 * 1024.0));
     }
 
     // UPDATED: Format total time as mm:ss.SSS (including milliseconds)
@@ -691,6 +1245,10 @@ public class HtmlReportGeneratorApi {
     }
 
     private String formatContent(String content, ObjectMapper objectMapper, String cssClass, String contentType) {
+        return formatContent(content, null, objectMapper, cssClass, contentType);
+    }
+
+    private String formatContent(String content, JsonNode parsed, ObjectMapper objectMapper, String cssClass, String contentType) {
         if (content == null || content.trim().isEmpty()) {
             String appliedClass = (cssClass.equals("verify-response-green") || cssClass.equals("verify-response-red") || cssClass.equals("verify-response-gray")) ? "not-available" : "not-available";
             System.out.println("formatContent: Content is null or empty, using class: " + appliedClass);
@@ -699,11 +1257,11 @@ public class HtmlReportGeneratorApi {
         try {
             String formattedContent;
             if ("xml".equals(contentType)) {
-                String prettyXml = prettyPrintXml(content);
+                String prettyXml = XmlSupport.prettyPrint(content);
                 formattedContent = prettyXml;
                 System.out.println("formatContent: Formatted XML for class: " + cssClass + ", content: " + prettyXml);
             } else {
-                Object json = objectMapper.readValue(content, Object.class);
+                Object json = parsed != null ? parsed : objectMapper.readValue(content, Object.class);
                 String prettyJson = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(json);
                 formattedContent = prettyJson;
                 System.out.println("formatContent: Formatted JSON for class: " + cssClass + ", content: " + prettyJson);
@@ -717,16 +1275,23 @@ public class HtmlReportGeneratorApi {
             return "<pre class='" + cssClass + "'>" + highlighted + "</pre>";
         } catch (Exception e) {
             System.out.println("formatContent: Failed to parse " + contentType + ", using raw content for class: " + cssClass + ", content: " + content);
-            String escaped = escapeHtml(content);
-            String formattedContent = wrapLongLines(escaped, 100);
-            String highlighted = highlightPlaceholders(formattedContent);
-            if (cssClass.startsWith("verify-response")) {
-                highlighted = highlightAnyValue(highlighted);
-            }
-            return "<pre class='" + cssClass + "'>" + highlighted + "</pre>";
+            return formatRaw(content, cssClass);
         }
     }
 
+    /**
+     * Shows content as it is, without parsing it.
+     */
+    private String formatRaw(String content, String cssClass) {
+        String escaped = escapeHtml(content);
+        String formattedContent = wrapLongLines(escaped, 100);
+        String highlighted = highlightPlaceholders(formattedContent);
+        if (cssClass.startsWith("verify-response")) {
+            highlighted = highlightAnyValue(highlighted);
+        }
+        return "<pre class='" + cssClass + "'>" + highlighted + "</pre>";
+    }
+
     private String detectContentType(String body) {
         if (body == null || body.trim().isEmpty()) {
             return "text";
@@ -738,25 +1303,6 @@ public class HtmlReportGeneratorApi {
         return "json";
     }
 
-    private String prettyPrintXml(String xml) {
-        try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document document = builder.parse(new InputSource(new StringReader(xml)));
-
-            TransformerFactory transformerFactory = TransformerFactory.newInstance();
-            Transformer transformer = transformerFactory.newTransformer();
-            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-            transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
-
-            StringWriter writer = new StringWriter();
-            transformer.transform(new DOMSource(document), new StreamResult(writer));
-            return writer.getBuffer().toString();
-        } catch (ParserConfigurationException | SAXException | IOException | TransformerException e) {
-            return xml;
-        }
-    }
-
     private String highlightAnyValue(String text) {
         if (text == null || !text.contains("$any-value")) {
             return text;
@@ -804,21 +1350,108 @@ public class HtmlReportGeneratorApi {
         return highlightPlaceholders(sb.toString());
     }
 
+    /**
+     * Renders the verification diff as a collapsed list: "+" for values missing from the response,
+     * "-" for unexpected ones, "~" for changed values (actual, then expected).
+     */
+    private String formatDiff(Object diffObj, String note) {
+        if (!(diffObj instanceof List) || ((List<?>) diffObj).isEmpty()) {
+            return "";
+        }
+        List<?> operations = (List<?>) diffObj;
+        StringBuilder sb = new StringBuilder();
+        sb.append("<details class='json-diff'><summary>").append(operations.size())
+            .append(operations.size() == 1 ? " difference" : " differences").append("</summary><pre>");
+        for (Object item : operations) {
+            if (!(item instanceof Map)) {
+                continue;
+            }
+            Map<?, ?> operation = (Map<?, ?>) item;
+            String op = String.valueOf(operation.get("op"));
+            String path = String.valueOf(operation.get("path"));
+            String displayPath = escapeHtml(path.isEmpty() ? "/" : path);
+            switch (op) {
+                case "add" -> sb.append("<span class='diff-add'>+ ").append(displayPath).append(": ")
+                    .append(escapeHtml(diffValue(operation.get("value")))).append("</span>\n");
+                case "remove" -> sb.append("<span class='diff-remove'>- ").append(displayPath).append(": ")
+                    .append(escapeHtml(diffValue(operation.get("actual")))).append("</span>\n");
+                default -> sb.append("<span class='diff-replace'>~ ").append(displayPath).append(": ")
+                    .append(escapeHtml(diffValue(operation.get("actual")))).append(" &rarr; ")
+                    .append(escapeHtml(diffValue(operation.get("value")))).append("</span>\n");
+            }
+        }
+        if (!note.isEmpty()) {
+            sb.append("<span class='not-available'>").append(note).append("</span>\n");
+        }
+        sb.append("</pre></details>");
+        return sb.toString();
+    }
+
+    /**
+     * Renders Response Schema violations as a collapsed list: the response path, the message and
+     * the schema path of the keyword that failed.
+     */
+    private String formatSchemaViolations(Object violationsObj, String note) {
+        if (!(violationsObj instanceof List) || ((List<?>) violationsObj).isEmpty()) {
+            return "";
+        }
+        List<?> violations = (List<?>) violationsObj;
+        StringBuilder sb = new StringBuilder();
+        sb.append("<details class='json-diff'><summary>").append(violations.size())
+            .append(violations.size() == 1 ? " schema violation" : " schema violations").append("</summary><pre>");
+        for (Object item : violations) {
+            if (!(item instanceof Map)) {
+                continue;
+            }
+            Map<?, ?> violation = (Map<?, ?>) item;
+            String path = String.valueOf(violation.get("path"));
+            sb.append("<span class='diff-remove'>").append(escapeHtml(path.isEmpty() ? "/" : path)).append(": ")
+                .append(escapeHtml(diffValue(violation.get("message")))).append("</span> ")
+                .append("<span class='not-available'>").append(escapeHtml(String.valueOf(violation.get("schemaPath")))).append("</span>\n");
+        }
+        if (!note.isEmpty()) {
+            sb.append("<span class='not-available'>").append(note).append("</span>\n");
+        }
+        sb.append("</pre></details>");
+        return sb.toString();
+    }
+
+    /**
+     * Lists the outcome of each entry of the Assertions column below the Verify Response.
+     */
+    private String formatAssertions(Object resultsObj) {
+        if (!(resultsObj instanceof List) || ((List<?>) resultsObj).isEmpty()) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder("<pre class='map-content assertions'>");
+        for (Object item : (List<?>) resultsObj) {
+            if (!(item instanceof Map)) {
+                continue;
+            }
+            Map<?, ?> result = (Map<?, ?>) item;
+            boolean passed = Boolean.TRUE.equals(result.get("passed"));
+            sb.append("<span class='").append(passed ? "pass" : "fail").append("'>").append(passed ? "PASS" : "FAIL").append("</span> ")
+                .append(escapeHtml(String.valueOf(result.get("assertion"))));
+            if (!passed) {
+                sb.append(" (got ").append(escapeHtml(diffValue(result.get("actual")))).append(")");
+            }
+            sb.append("\n");
+        }
+        sb.append("</pre>");
+        return sb.toString();
+    }
+
+    private String diffValue(Object value) {
+        String text = String.valueOf(value);
+        return text.length() > 200 ? text.substring(0, 200) + "..." : text;
+    }
+
     private String highlightPlaceholders(String text) {
         if (text == null || !text.contains("{{")) {
             return text;
         }
-        Pattern pattern = Pattern.compile("\\{\\{[^}]+\\}\\}");
-        Matcher matcher = pattern.matcher(text);
-        StringBuffer result = new StringBuffer();
-        while (matcher.find()) {
-            String placeholder = matcher.group();
-            String escapedPlaceholder = escapeHtml(placeholder);
-            String quotedPlaceholder = Matcher.quoteReplacement(escapedPlaceholder);
-            matcher.appendReplacement(result, "<span class=\"placeholder\">" + quotedPlaceholder + "</span>");
-        }
-        matcher.appendTail(result);
-        return result.toString();
+        return PlaceholderTemplate.compile(text)
+            .render(name -> "<span class=\"placeholder\">" + escapeHtml("{{" + name + "}}") + "</span>");
     }
 
     private String safeToString(Object obj) {
@@ -0,0 +1,218 @@
+package com.test.window.gui;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes JUnit XML ("TEST-{suite}.xml", one file per suite) for CI servers, with a StAX stream
+ * writer. Each &lt;testcase&gt; is written to disk as its test finishes, into "{suite}.xml.part";
+ * {@link #close()} writes the &lt;testsuite&gt; element, whose counts are only known at the end,
+ * and copies the test cases into it. Memory stays constant whatever the number of tests.
+ *
+ * runner.json settings: "junitResults" (default true) turns the writer on and "junitDir"
+ * (default "junit") is the base folder; each runner writes to its own subfolder.
+ */
+public final class JUnitXmlWriter implements AutoCloseable {
+
+    private static final XMLOutputFactory OUTPUT = XMLOutputFactory.newInstance();
+    private static final int MESSAGE_MAX_CHARS = 500;
+
+    /**
+     * An open suite: its test cases so far are in the part file.
+     */
+    private static final class Suite {
+        final String name;
+        final Path part;
+        final OutputStream out;
+        final XMLStreamWriter xml;
+        final String timestamp = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        int tests;
+        int failures;
+        long timeMs;
+
+        Suite(String name, Path part) throws IOException, XMLStreamException {
+            this.name = name;
+            this.part = part;
+            this.out = new BufferedOutputStream(Files.newOutputStream(part));
+            this.xml = OUTPUT.createXMLStreamWriter(out, "UTF-8");
+        }
+    }
+
+    private final Path directory;
+    private final Map<String, Suite> suites = new LinkedHashMap<>();
+
+    public JUnitXmlWriter(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    /**
+     * @param runner Subfolder under "junitDir", e.g. "api".
+     * @return A writer, or null if "junitResults" is false.
+     */
+    public static JUnitXmlWriter fromSettings(RunnerSettings settings, String runner) throws IOException {
+        if (!settings.getBoolean("junitResults", true)) {
+            return null;
+        }
+        return new JUnitXmlWriter(Paths.get(settings.getString("junitDir", "junit"), runner));
+    }
+
+    /**
+     * Writes one finished test to its suite's file.
+     *
+     * @param suite   Suite name, normally the test suite file name without extension.
+     * @param name    Test name.
+     * @param timeMs  Measured duration.
+     * @param failure Failure message, or null/empty if the test passed.
+     */
+    public synchronized void addTestCase(String suite, String name, long timeMs, String failure) throws IOException {
+        try {
+            Suite open = suites.get(suite);
+            if (open == null) {
+                open = new Suite(suite, directory.resolve(fileName(suite) + ".xml.part"));
+                suites.put(suite, open);
+            }
+            XMLStreamWriter xml = open.xml;
+            xml.writeCharacters("\n  ");
+            boolean failed = failure != null && !failure.trim().isEmpty();
+            if (failed) {
+                xml.writeStartElement("testcase");
+            } else {
+                xml.writeEmptyElement("testcase");
+            }
+            xml.writeAttribute("name", clean(name));
+            xml.writeAttribute("classname", clean(suite));
+            xml.writeAttribute("time", seconds(timeMs));
+            if (failed) {
+                String message = clean(failure.trim().split("\\R", 2)[0]);
+                xml.writeCharacters("\n    ");
+                xml.writeStartElement("failure");
+                xml.writeAttribute("message", message.length() > MESSAGE_MAX_CHARS ? message.substring(0, MESSAGE_MAX_CHARS) + "..." : message);
+                xml.writeAttribute("type", "AssertionError");
+                xml.writeCharacters(clean(failure));
+                xml.writeEndElement();
+                xml.writeCharacters("\n  ");
+                xml.writeEndElement();
+            } else {
+                xml.writeCharacters(""); // Completes the empty element, so the file holds whole test cases
+            }
+            xml.flush();
+            open.out.flush();
+            open.tests++;
+            open.timeMs += timeMs;
+            if (failed) {
+                open.failures++;
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to write JUnit test case for " + name, e);
+        }
+    }
+
+    /**
+     * Completes every suite file and removes the part files.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        IOException first = null;
+        for (Suite suite : suites.values()) {
+            try {
+                finish(suite);
+            } catch (IOException e) {
+                first = first != null ? first : e;
+            }
+        }
+        suites.clear();
+        if (first != null) {
+            throw first;
+        }
+    }
+
+    private void finish(Suite suite) throws IOException {
+        try {
+            suite.xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to close JUnit part file " + suite.part, e);
+        } finally {
+            suite.out.close();
+        }
+        Path target = directory.resolve("TEST-" + fileName(suite.name) + ".xml");
+        Path temp = Files.createTempFile(directory, "junit", ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                XMLStreamWriter xml = OUTPUT.createXMLStreamWriter(out, "UTF-8");
+                xml.writeStartDocument("UTF-8", "1.0");
+                xml.writeCharacters("\n");
+                xml.writeStartElement("testsuite");
+                xml.writeAttribute("name", clean(suite.name));
+                xml.writeAttribute("tests", String.valueOf(suite.tests));
+                xml.writeAttribute("failures", String.valueOf(suite.failures));
+                xml.writeAttribute("errors", "0");
+                xml.writeAttribute("skipped", "0");
+                xml.writeAttribute("time", seconds(suite.timeMs));
+                xml.writeAttribute("timestamp", suite.timestamp);
+                xml.writeCharacters(""); // Closes the start tag before the test cases are copied in
+                xml.flush();
+                Files.copy(suite.part, out);
+                xml.writeCharacters("\n");
+                xml.writeEndElement();
+                xml.writeEndDocument();
+                xml.writeCharacters("\n");
+                xml.close();
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.deleteIfExists(suite.part);
+            System.out.println("Debug: JUnit results written to " + target.toAbsolutePath());
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to write " + target, e);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String seconds(long millis) {
+        return String.format(Locale.ROOT, "%.3f", millis / 1000.0);
+    }
+
+    private static String fileName(String suite) {
+        return suite.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    /**
+     * Replaces characters XML 1.0 cannot hold, such as control characters from response bodies.
+     */
+    private static String clean(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            boolean valid = c == '\t' || c == '\n' || c == '\r' || (c >= 0x20 && c <= 0xD7FF) || (c >= 0xE000 && c <= 0xFFFD)
+                || Character.isSurrogate(c);
+            if (!valid) {
+                if (sb == null) {
+                    sb = new StringBuilder(text.length());
+                    sb.append(text, 0, i);
+                }
+                sb.append('?');
+            } else if (sb != null) {
+                sb.append(c);
+            }
+        }
+        return sb != null ? sb.toString() : text;
+    }
+}
@@ -0,0 +1,126 @@
+package com.test.window.gui;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.regex.Pattern;
+
+/**
+ * A compiled entry of the "Assertions" column: a JSONPath expression, optionally followed by an
+ * operator and an expected value.
+ *
+ * <pre>
+ * $.items[?(@.active)].length() == 3
+ * $.user.name == 'alice'
+ * $.total &gt;= 10.5
+ * $.id =~ /[0-9a-f-]{36}/
+ * $.items[0].tags == ["a","b"]
+ * $.token
+ * </pre>
+ *
+ * Without an operator the assertion passes when the path matches something. The expected value is
+ * a literal as in filters, or any JSON value. Compiled assertions are immutable and thread-safe.
+ */
+public final class JsonAssertion {
+
+    /**
+     * Outcome of one assertion against one response.
+     */
+    public static final class Outcome {
+        private final boolean passed;
+        private final String actual;
+
+        Outcome(boolean passed, String actual) {
+            this.passed = passed;
+            this.actual = actual;
+        }
+
+        public boolean isPassed() { return passed; }
+
+        /** @return The value the path produced, as JSON text; "missing" if nothing matched. */
+        public String getActual() { return actual; }
+    }
+
+    private final String source;
+    private final JsonPathExpression path;
+    private final String operator;
+    private final JsonNode expected;
+    private final Pattern regex;
+
+    private JsonAssertion(String source, JsonPathExpression path, String operator, JsonNode expected, Pattern regex) {
+        this.source = source;
+        this.path = path;
+        this.operator = operator;
+        this.expected = expected;
+        this.regex = regex;
+    }
+
+    /**
+     * @throws IllegalArgumentException If the assertion is not valid.
+     */
+    public static JsonAssertion compile(String assertion) {
+        if (assertion == null || assertion.trim().isEmpty()) {
+            throw new IllegalArgumentException("Empty assertion");
+        }
+        String text = assertion.trim();
+        String pathText = text.startsWith("$") ? text : "$." + text;
+        JsonPathExpression.Parser parser = new JsonPathExpression.Parser(pathText, text);
+        JsonPathExpression path = parser.parsePath();
+        parser.skipWhitespace();
+        if (parser.atEnd()) {
+            return new JsonAssertion(text, path, null, null, null);
+        }
+        String operator = parser.parseOperator();
+        if (operator == null) {
+            throw parser.error("Expected an operator (==, !=, <, <=, >, >=, =~)");
+        }
+        parser.skipWhitespace();
+        if (parser.atEnd()) {
+            throw parser.error("Expected a value after '" + operator + "'");
+        }
+        JsonNode expected = null;
+        Pattern regex = null;
+        if (operator.equals("=~")) {
+            if (parser.peek() != '/') {
+                throw parser.error("Expected /regex/ after =~");
+            }
+            regex = parser.parseRegex();
+        } else if (parser.peek() == '[' || parser.peek() == '{') {
+            try {
+                expected = JsonSupport.TREE_READER.readValue(parser.rest());
+            } catch (JsonProcessingException e) {
+                throw parser.error("Invalid JSON value: " + e.getOriginalMessage());
+            }
+            return new JsonAssertion(text, path, operator, expected, null);
+        } else {
+            expected = parser.parseLiteral();
+        }
+        parser.skipWhitespace();
+        if (!parser.atEnd()) {
+            throw parser.error("Unexpected '" + parser.peek() + "'");
+        }
+        return new JsonAssertion(text, path, operator, expected, regex);
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Evaluates the assertion against a parsed response.
+     */
+    public Outcome evaluate(JsonNode root) {
+        JsonNode actual = path.evaluate(root);
+        String actualText = actual == null ? "missing" : actual.toString();
+        if (operator == null) {
+            boolean exists = actual != null && (path.isDefinite() || actual.size() > 0);
+            return new Outcome(exists, actualText);
+        }
+        return new Outcome(JsonPathExpression.applyOperator(operator, actual, expected, regex), actualText);
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
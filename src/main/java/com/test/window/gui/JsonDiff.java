@@ -0,0 +1,317 @@
+package com.test.window.gui;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects every difference between an expected JSON tree and the actual response tree, for
+ * the report of a failed verification. {@link JsonMatcher} decides pass/fail; this class explains
+ * the failure in full instead of stopping at the first difference.
+ *
+ * Differences are listed as JSON-patch-like operations that would turn the actual document into
+ * the expected one, with JSON Pointer paths:
+ *
+ * <pre>
+ * {"op":"add",     "path":"/user/email", "kind":"missing", "value":"a@b.c"}
+ * {"op":"remove",  "path":"/debug",      "kind":"extra",   "actual":true}
+ * {"op":"replace", "path":"/items/0/id", "kind":"value",   "value":1, "actual":2}
+ * </pre>
+ *
+ * "kind" is one of missing, extra, value, type, length (array elements present on only one side)
+ * or unmatched (elements of an unordered array without a counterpart; expected ones are added at
+ * "/-"). $any-value in the expected tree matches anything. Work is bounded by a maximum number of
+ * entries and a time budget; when either is hit the result is marked truncated.
+ */
+public class JsonDiff {
+
+    private static final int CLOCK_CHECK_INTERVAL = 256;
+
+    /**
+     * The collected operations and whether the diff was cut short.
+     */
+    public static final class Result {
+        private final List<Map<String, Object>> operations;
+        private final String truncationReason;
+
+        Result(List<Map<String, Object>> operations, String truncationReason) {
+            this.operations = Collections.unmodifiableList(operations);
+            this.truncationReason = truncationReason;
+        }
+
+        /** @return The patch-like operations, in document order. */
+        public List<Map<String, Object>> getOperations() { return operations; }
+
+        public boolean isTruncated() { return truncationReason != null; }
+
+        /** @return Why the diff stopped early, or null if it is complete. */
+        public String getTruncationReason() { return truncationReason; }
+    }
+
+    private final int maxEntries;
+    private final long timeBudgetNanos;
+    private final ArrayMatchRules arrayRules;
+    private final JsonMatcher elementMatcher;
+    private final JsonPathStack path = new JsonPathStack();
+    private List<Map<String, Object>> operations;
+    private String truncationReason;
+    private long deadline;
+    private int visited;
+
+    /**
+     * @param maxEntries   Maximum number of operations to collect (at least 1).
+     * @param timeBudgetMs Maximum time to spend; 0 or less for no limit.
+     */
+    public JsonDiff(int maxEntries, long timeBudgetMs) {
+        this(maxEntries, timeBudgetMs, ArrayMatchRules.NONE);
+    }
+
+    /**
+     * @param maxEntries   Maximum number of operations to collect (at least 1).
+     * @param timeBudgetMs Maximum time to spend; 0 or less for no limit.
+     * @param arrayRules   Per-path array matching modes, as used for verification.
+     */
+    public JsonDiff(int maxEntries, long timeBudgetMs, ArrayMatchRules arrayRules) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.timeBudgetNanos = timeBudgetMs > 0 ? timeBudgetMs * 1_000_000L : 0L;
+        this.arrayRules = arrayRules != null ? arrayRules : ArrayMatchRules.NONE;
+        this.elementMatcher = new JsonMatcher(1, this.arrayRules);
+    }
+
+    /**
+     * @param expected The parsed Verify Response.
+     * @param actual   The parsed response body.
+     * @return All differences, up to the configured limits.
+     */
+    public Result diff(JsonNode expected, JsonNode actual) {
+        operations = new ArrayList<>();
+        truncationReason = null;
+        path.clear();
+        visited = 0;
+        deadline = timeBudgetNanos > 0 ? System.nanoTime() + timeBudgetNanos : 0L;
+        compare(expected, actual);
+        Result result = new Result(operations, truncationReason);
+        operations = null;
+        return result;
+    }
+
+    private void compare(JsonNode expected, JsonNode actual) {
+        if (stopped() || JsonMatcher.isWildcard(expected)) {
+            return;
+        }
+        if (expected.isObject() && actual.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = expected.fields();
+            while (fields.hasNext() && !stopped()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                push(field.getKey());
+                JsonNode actualValue = actual.get(field.getKey());
+                if (actualValue == null) {
+                    record("add", "missing", field.getValue(), null);
+                } else {
+                    compare(field.getValue(), actualValue);
+                }
+                pop();
+            }
+            Iterator<Map.Entry<String, JsonNode>> actualFields = actual.fields();
+            while (actualFields.hasNext() && !stopped()) {
+                Map.Entry<String, JsonNode> field = actualFields.next();
+                if (!expected.has(field.getKey())) {
+                    push(field.getKey());
+                    record("remove", "extra", null, field.getValue());
+                    pop();
+                }
+            }
+            return;
+        }
+        if (expected.isArray() && actual.isArray()) {
+            ArrayMatchRules.Mode mode = arrayRules.isEmpty() ? ArrayMatchRules.Mode.ORDERED : arrayRules.modeFor(path.pattern());
+            if (mode.getKind() == ArrayMatchRules.Kind.UNORDERED) {
+                diffUnordered(expected, actual);
+                return;
+            }
+            if (mode.getKind() == ArrayMatchRules.Kind.KEYED) {
+                diffKeyed(expected, actual, mode.getKeyField());
+                return;
+            }
+            int common = Math.min(expected.size(), actual.size());
+            for (int i = 0; i < common && !stopped(); i++) {
+                push(i);
+                compare(expected.get(i), actual.get(i));
+                pop();
+            }
+            for (int i = common; i < expected.size() && !stopped(); i++) {
+                push(i);
+                record("add", "length", expected.get(i), null);
+                pop();
+            }
+            for (int i = common; i < actual.size() && !stopped(); i++) {
+                push(i);
+                record("remove", "length", null, actual.get(i));
+                pop();
+            }
+            return;
+        }
+        if (expected.isContainerNode() || actual.isContainerNode() || expected.getNodeType() != actual.getNodeType()) {
+            record("replace", "type", expected, actual);
+        } else if (!expected.equals(actual)) {
+            record("replace", "value", expected, actual);
+        }
+    }
+
+    /**
+     * Pairs equal elements regardless of position; what is left over is reported as elements to
+     * append ("/-") and elements to remove. Plain elements are paired through a hash map of the
+     * actual elements; elements with $any-value or nested rules are probed against the unused
+     * actual elements that can match them and paired by a maximum matching, as in verification.
+     */
+    private void diffUnordered(JsonNode expected, JsonNode actual) {
+        boolean structural = !arrayRules.hasRulesBelow(path.pattern());
+        Map<JsonNode, Deque<Integer>> positions = new HashMap<>(actual.size() * 2);
+        for (int j = 0; j < actual.size(); j++) {
+            positions.computeIfAbsent(actual.get(j), k -> new ArrayDeque<>()).add(j);
+        }
+        boolean[] used = new boolean[actual.size()];
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < expected.size(); i++) {
+            JsonNode element = expected.get(i);
+            Deque<Integer> candidates = structural && !JsonMatcher.containsWildcard(element) ? positions.get(element) : null;
+            if (candidates != null && !candidates.isEmpty()) {
+                used[candidates.poll()] = true;
+            } else {
+                pending.add(i);
+            }
+        }
+        List<Integer> unused = new ArrayList<>();
+        List<JsonNode> leftovers = new ArrayList<>();
+        for (int j = 0; j < actual.size(); j++) {
+            if (!used[j]) {
+                unused.add(j);
+                leftovers.add(actual.get(j));
+            }
+        }
+        JsonMatcher.Candidates index = new JsonMatcher.Candidates(leftovers);
+        int[][] candidates = new int[pending.size()][];
+        for (int p = 0; p < pending.size(); p++) {
+            if (stopped()) {
+                return;
+            }
+            JsonNode element = expected.get(pending.get(p));
+            List<Integer> possible = index.of(element);
+            int[] edges = new int[possible.size()];
+            int found = 0;
+            for (int l : possible) {
+                push(unused.get(l));
+                if (elementMatcher.matchesAt(path, element, leftovers.get(l))) {
+                    edges[found++] = l;
+                }
+                pop();
+            }
+            candidates[p] = found == edges.length ? edges : Arrays.copyOf(edges, found);
+        }
+        int[] pairs = JsonMatcher.pairElements(candidates, leftovers.size());
+        for (int p = 0; p < pending.size(); p++) {
+            if (pairs[p] >= 0) {
+                used[unused.get(pairs[p])] = true;
+            }
+        }
+        for (int p = 0; p < pending.size() && !stopped(); p++) {
+            if (pairs[p] < 0) {
+                push("-");
+                record("add", "unmatched", expected.get(pending.get(p)), null);
+                pop();
+            }
+        }
+        for (int j = 0; j < actual.size() && !stopped(); j++) {
+            if (!used[j]) {
+                push(j);
+                record("remove", "unmatched", null, actual.get(j));
+                pop();
+            }
+        }
+    }
+
+    /**
+     * Pairs elements by key field and diffs each pair at the actual element's index.
+     */
+    private void diffKeyed(JsonNode expected, JsonNode actual, String keyField) {
+        Map<JsonNode, Integer> byKey = new HashMap<>(actual.size() * 2);
+        for (int j = 0; j < actual.size(); j++) {
+            JsonNode key = actual.get(j).get(keyField);
+            if (key != null) {
+                byKey.putIfAbsent(key, j);
+            }
+        }
+        boolean[] used = new boolean[actual.size()];
+        for (int i = 0; i < expected.size() && !stopped(); i++) {
+            JsonNode element = expected.get(i);
+            JsonNode key = element.get(keyField);
+            Integer j = key != null ? byKey.get(key) : null;
+            if (j == null || used[j]) {
+                push("-");
+                record("add", "missing", element, null);
+                pop();
+                continue;
+            }
+            used[j] = true;
+            push(j);
+            compare(element, actual.get(j));
+            pop();
+        }
+        for (int j = 0; j < actual.size() && !stopped(); j++) {
+            if (!used[j]) {
+                push(j);
+                record("remove", "extra", null, actual.get(j));
+                pop();
+            }
+        }
+    }
+
+    private void push(Object segment) {
+        path.push(segment);
+    }
+
+    private void pop() {
+        path.pop();
+    }
+
+    private boolean stopped() {
+        if (truncationReason != null) {
+            return true;
+        }
+        if (deadline != 0L && ++visited % CLOCK_CHECK_INTERVAL == 0 && System.nanoTime() > deadline) {
+            truncationReason = "time budget of " + (timeBudgetNanos / 1_000_000L) + " ms exceeded";
+        }
+        return truncationReason != null;
+    }
+
+    /**
+     * Adds an operation; a difference found once the limit is reached is not added but marks
+     * the result truncated, so a diff with exactly the maximum number of entries is complete.
+     */
+    private void record(String op, String kind, JsonNode value, JsonNode actual) {
+        if (operations.size() >= maxEntries) {
+            truncationReason = "more than " + maxEntries + " differences";
+            return;
+        }
+        Map<String, Object> operation = new LinkedHashMap<>();
+        operation.put("op", op);
+        operation.put("path", path.toPointer());
+        operation.put("kind", kind);
+        if (value != null) {
+            operation.put("value", value);
+        }
+        if (actual != null) {
+            operation.put("actual", actual);
+        }
+        operations.add(operation);
+    }
+}
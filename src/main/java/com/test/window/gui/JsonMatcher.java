@@ -0,0 +1,588 @@
+package com.test.window.gui;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches an expected JSON tree ("Verify Response") against the actual response tree in one walk.
+ * The string "$any-value" in the expected tree is a wildcard: the key or index must exist in the
+ * response, but any value (including null) is accepted.
+ *
+ * Rules are the same as the previous Map/List comparison: objects must have exactly the same keys,
+ * arrays must have the same length and are compared by index, scalars must be equal.
+ * The current path is kept as a stack of keys and indices and only turned into a string when a
+ * mismatch is recorded. Arrays are compared by index unless {@link ArrayMatchRules} configure an
+ * unordered or keyed mode for their path. By default the walk stops at the first mismatch; a larger
+ * maximum collects several. A matcher instance is not thread-safe; create one per comparison.
+ */
+public class JsonMatcher {
+
+    public static final String ANY_VALUE = "$any-value";
+
+    /**
+     * One difference between the expected and the actual document.
+     */
+    public static final class Mismatch {
+        private final String kind;
+        private final String path;
+        private final String detail;
+
+        Mismatch(String kind, String path, String detail) {
+            this.kind = kind;
+            this.path = path;
+            this.detail = detail;
+        }
+
+        /** @return For example "Value mismatch", "Type mismatch", "Key not found in response". */
+        public String getKind() { return kind; }
+
+        /** @return Dotted path of the mismatch, e.g. "items[2].id"; empty for the root. */
+        public String getPath() { return path; }
+
+        public String getDetail() { return detail; }
+
+        /**
+         * Formats the mismatch the way the runner has always reported it.
+         */
+        public String describe(Integer testId) {
+            return kind + " at path '" + path + "' for Test ID " + testId + (detail.isEmpty() ? "" : ": " + detail);
+        }
+    }
+
+    /**
+     * Outcome of a match: the mismatches found, up to the configured maximum.
+     */
+    public static final class Result {
+        private final List<Mismatch> mismatches;
+        private final boolean truncated;
+
+        Result(List<Mismatch> mismatches, boolean truncated) {
+            this.mismatches = Collections.unmodifiableList(mismatches);
+            this.truncated = truncated;
+        }
+
+        public boolean isMatched() { return mismatches.isEmpty(); }
+
+        public List<Mismatch> getMismatches() { return mismatches; }
+
+        /** @return The first mismatch, or null when matched. */
+        public Mismatch getFirst() { return mismatches.isEmpty() ? null : mismatches.get(0); }
+
+        /** @return True if comparison stopped at the maximum and more differences may exist. */
+        public boolean isTruncated() { return truncated; }
+
+        /**
+         * Formats the first mismatch; further mismatches are appended on their own lines.
+         */
+        public String describe(Integer testId) {
+            if (mismatches.isEmpty()) {
+                return "Matched";
+            }
+            StringBuilder sb = new StringBuilder(mismatches.get(0).describe(testId));
+            for (int i = 1; i < mismatches.size(); i++) {
+                sb.append("\n").append(mismatches.get(i).describe(testId));
+            }
+            if (truncated && mismatches.size() > 1) {
+                sb.append("\n(stopped after ").append(mismatches.size()).append(" mismatches)");
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Parses a Verify Response text, quoting bare $any-value tokens outside strings first
+     * so that expressions like {"id": $any-value} are valid JSON.
+     *
+     * @throws JsonProcessingException If the text is not valid JSON.
+     */
+    public static JsonNode parseExpected(String verifyExpression) throws JsonProcessingException {
+        return JsonSupport.TREE_READER.readValue(quoteBareAnyValue(verifyExpression));
+    }
+
+    static String quoteBareAnyValue(String text) {
+        if (text == null || !text.contains(ANY_VALUE)) {
+            return text;
+        }
+        StringBuilder sb = new StringBuilder(text.length() + 16);
+        boolean inString = false;
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (inString) {
+                if (c == '\\' && i + 1 < text.length()) {
+                    sb.append(c).append(text.charAt(i + 1));
+                    i += 2;
+                    continue;
+                }
+                if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (text.startsWith(ANY_VALUE, i)) {
+                sb.append('"').append(ANY_VALUE).append('"');
+                i += ANY_VALUE.length();
+                continue;
+            }
+            sb.append(c);
+            i++;
+        }
+        return sb.toString();
+    }
+
+    private final int maxMismatches;
+    protected final ArrayMatchRules arrayRules;
+    private final JsonPathStack path = new JsonPathStack();
+    private List<Mismatch> mismatches = new ArrayList<>();
+    private boolean truncated = false;
+    private int probeDepth = 0;
+    private boolean probeFailed = false;
+
+    /**
+     * Creates a matcher that stops at the first mismatch.
+     */
+    public JsonMatcher() {
+        this(1);
+    }
+
+    /**
+     * @param maxMismatches How many mismatches to collect before stopping (at least 1).
+     */
+    public JsonMatcher(int maxMismatches) {
+        this(maxMismatches, ArrayMatchRules.NONE);
+    }
+
+    /**
+     * @param maxMismatches How many mismatches to collect before stopping (at least 1).
+     * @param arrayRules    Per-path array matching modes; arrays without a rule are compared by index.
+     */
+    public JsonMatcher(int maxMismatches, ArrayMatchRules arrayRules) {
+        this.maxMismatches = Math.max(1, maxMismatches);
+        this.arrayRules = arrayRules != null ? arrayRules : ArrayMatchRules.NONE;
+    }
+
+    /**
+     * Walks both trees once, stopping when the maximum number of mismatches is reached.
+     *
+     * @param expected The parsed Verify Response.
+     * @param actual   The parsed response body.
+     * @return The match result.
+     */
+    public Result match(JsonNode expected, JsonNode actual) {
+        reset();
+        compare(expected, actual);
+        return finish();
+    }
+
+    /**
+     * Checks whether the subtrees match as if they were located at the given path, so that
+     * array rules below that path apply. Used to pair elements of unordered arrays.
+     */
+    boolean matchesAt(JsonPathStack basePath, JsonNode expected, JsonNode actual) {
+        reset();
+        path.copyOf(basePath);
+        compare(expected, actual);
+        return finish().isMatched();
+    }
+
+    /**
+     * Tree comparison at the current path; subclasses use it for subtrees they materialize.
+     */
+    protected final void compare(JsonNode expected, JsonNode actual) {
+        if (isWildcard(expected)) {
+            return;
+        }
+        if (expected.isObject()) {
+            if (actual == null || !actual.isObject()) {
+                mismatch("Type mismatch", "expected Map, got " + typeName(actual));
+                return;
+            }
+            Iterator<Map.Entry<String, JsonNode>> fields = expected.fields();
+            while (fields.hasNext() && !isFull()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                push(field.getKey());
+                JsonNode actualValue = actual.get(field.getKey());
+                if (actualValue == null) {
+                    mismatch("Key not found in response", "");
+                } else {
+                    compare(field.getValue(), actualValue);
+                }
+                pop();
+            }
+            if (actual.size() != expected.size()) {
+                Iterator<String> names = actual.fieldNames();
+                while (names.hasNext() && !isFull()) {
+                    String name = names.next();
+                    if (!expected.has(name)) {
+                        extraKey(name);
+                    }
+                }
+            }
+            return;
+        }
+        if (expected.isArray()) {
+            if (actual == null || !actual.isArray()) {
+                mismatch("Type mismatch", "expected List, got " + typeName(actual));
+                return;
+            }
+            ArrayMatchRules.Mode mode = arrayMode();
+            if (mode.getKind() == ArrayMatchRules.Kind.KEYED) {
+                compareKeyed(expected, actual, mode.getKeyField());
+                return;
+            }
+            if (actual.size() != expected.size()) {
+                mismatch("List size mismatch", "expected " + expected.size() + ", got " + actual.size());
+                return;
+            }
+            if (mode.getKind() == ArrayMatchRules.Kind.UNORDERED) {
+                compareUnordered(expected, actual);
+                return;
+            }
+            for (int i = 0; i < expected.size() && !isFull(); i++) {
+                push(i);
+                compare(expected.get(i), actual.get(i));
+                pop();
+            }
+            return;
+        }
+        if (!expected.equals(actual)) {
+            mismatch("Value mismatch", "expected '" + scalarText(expected) + "', got '" + scalarText(actual) + "'");
+        }
+    }
+
+    /**
+     * @return The mode configured for the array at the current path.
+     */
+    protected final ArrayMatchRules.Mode arrayMode() {
+        return arrayRules.isEmpty() ? ArrayMatchRules.Mode.ORDERED : arrayRules.modeFor(path.pattern());
+    }
+
+    /**
+     * Multiset comparison of two arrays of equal size. Actual elements are counted in a hash map
+     * keyed by the element itself (JsonNode hashing and equality are structural), so plain
+     * expected elements are matched in O(n). Expected elements containing $any-value, or arrays
+     * with rules below them, are then probed against the remaining actual elements that can match
+     * them (see {@link Candidates}), and the pairs are chosen by a maximum matching, so an element
+     * is only reported when no assignment of the remaining elements can satisfy it.
+     */
+    private void compareUnordered(JsonNode expected, JsonNode actual) {
+        boolean structural = !arrayRules.hasRulesBelow(path.pattern());
+        Map<JsonNode, Integer> remaining = new HashMap<>(actual.size() * 2);
+        for (JsonNode element : actual) {
+            remaining.merge(element, 1, Integer::sum);
+        }
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < expected.size(); i++) {
+            JsonNode element = expected.get(i);
+            if (structural && !containsWildcard(element) && take(remaining, element)) {
+                continue;
+            }
+            pending.add(i);
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<JsonNode> leftovers = new ArrayList<>(pending.size());
+        for (JsonNode element : actual) {
+            if (take(remaining, element)) {
+                leftovers.add(element);
+            }
+        }
+        Candidates index = new Candidates(leftovers);
+        int[][] candidates = new int[pending.size()][];
+        for (int p = 0; p < pending.size(); p++) {
+            int i = pending.get(p);
+            JsonNode element = expected.get(i);
+            List<Integer> possible = index.of(element);
+            int[] edges = new int[possible.size()];
+            int found = 0;
+            push(i);
+            for (int j : possible) {
+                if (probe(element, leftovers.get(j))) {
+                    edges[found++] = j;
+                }
+            }
+            pop();
+            candidates[p] = found == edges.length ? edges : Arrays.copyOf(edges, found);
+        }
+        int[] pairs = pairElements(candidates, leftovers.size());
+        for (int p = 0; p < pending.size() && !isFull(); p++) {
+            if (pairs[p] < 0) {
+                int i = pending.get(p);
+                push(i);
+                mismatch("No matching element in response", "expected " + expected.get(i));
+                pop();
+            }
+        }
+    }
+
+    /**
+     * The actual elements of an unordered array that are left for pairwise probing, indexed so an
+     * expected element is only probed against those that can match it: the same keys for objects
+     * (and the same value of the first key the expected element fixes to a scalar), the same node
+     * type otherwise.
+     */
+    static final class Candidates {
+        private final List<JsonNode> elements;
+        private final List<Integer> all;
+        private final Map<String, List<Integer>> byShape = new HashMap<>();
+        private final Map<String, Map<String, Map<JsonNode, List<Integer>>>> byField = new HashMap<>();
+
+        Candidates(List<JsonNode> elements) {
+            this.elements = elements;
+            this.all = new ArrayList<>(elements.size());
+            for (int j = 0; j < elements.size(); j++) {
+                all.add(j);
+                byShape.computeIfAbsent(shapeOf(elements.get(j)), k -> new ArrayList<>()).add(j);
+            }
+        }
+
+        /**
+         * @return Positions of the elements the expected element may match, in order.
+         */
+        List<Integer> of(JsonNode expected) {
+            if (isWildcard(expected)) {
+                return all;
+            }
+            String shape = shapeOf(expected);
+            List<Integer> sameShape = byShape.getOrDefault(shape, Collections.emptyList());
+            Iterator<Map.Entry<String, JsonNode>> fields = expected.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (field.getValue().isValueNode() && !isWildcard(field.getValue())) {
+                    Map<JsonNode, List<Integer>> byValue = byField.computeIfAbsent(shape, k -> new HashMap<>())
+                        .computeIfAbsent(field.getKey(), name -> index(sameShape, name));
+                    return byValue.getOrDefault(field.getValue(), Collections.emptyList());
+                }
+            }
+            return sameShape;
+        }
+
+        private Map<JsonNode, List<Integer>> index(List<Integer> positions, String name) {
+            Map<JsonNode, List<Integer>> byValue = new HashMap<>(positions.size() * 2);
+            for (int j : positions) {
+                byValue.computeIfAbsent(elements.get(j).get(name), k -> new ArrayList<>()).add(j);
+            }
+            return byValue;
+        }
+
+        private static String shapeOf(JsonNode node) {
+            if (!node.isObject()) {
+                return node.getNodeType().name();
+            }
+            List<String> names = new ArrayList<>(node.size());
+            node.fieldNames().forEachRemaining(names::add);
+            Collections.sort(names);
+            return "{" + String.join(",", names);
+        }
+    }
+
+    /**
+     * Maximum bipartite matching by augmenting paths, each found with a breadth-first search.
+     *
+     * @param candidates For each expected element, the actual elements it matches.
+     * @param actualCount Number of actual elements.
+     * @return For each expected element, the actual element paired with it, or -1.
+     */
+    static int[] pairElements(int[][] candidates, int actualCount) {
+        int[] pairOfExpected = new int[candidates.length];
+        int[] pairOfActual = new int[actualCount];
+        Arrays.fill(pairOfExpected, -1);
+        Arrays.fill(pairOfActual, -1);
+        int[] reachedFrom = new int[actualCount];
+        int[] visitedIn = new int[actualCount];
+        int[] queue = new int[candidates.length];
+        for (int start = 0; start < candidates.length; start++) {
+            int head = 0;
+            int tail = 0;
+            int free = -1;
+            queue[tail++] = start;
+            while (head < tail && free < 0) {
+                int e = queue[head++];
+                for (int a : candidates[e]) {
+                    if (visitedIn[a] == start + 1) {
+                        continue;
+                    }
+                    visitedIn[a] = start + 1;
+                    reachedFrom[a] = e;
+                    if (pairOfActual[a] < 0) {
+                        free = a;
+                        break;
+                    }
+                    queue[tail++] = pairOfActual[a];
+                }
+            }
+            // Flip the path: every expected element on it moves to the actual element that reached it
+            while (free >= 0) {
+                int e = reachedFrom[free];
+                int previous = pairOfExpected[e];
+                pairOfExpected[e] = free;
+                pairOfActual[free] = e;
+                free = previous;
+            }
+        }
+        return pairOfExpected;
+    }
+
+    /**
+     * Pairs elements by the value of a key field; the arrays may differ in order and size.
+     */
+    private void compareKeyed(JsonNode expected, JsonNode actual, String keyField) {
+        Map<JsonNode, Integer> byKey = new HashMap<>(actual.size() * 2);
+        for (int j = 0; j < actual.size(); j++) {
+            JsonNode key = actual.get(j).get(keyField);
+            if (key != null) {
+                byKey.putIfAbsent(key, j);
+            }
+        }
+        boolean[] used = new boolean[actual.size()];
+        for (int i = 0; i < expected.size() && !isFull(); i++) {
+            JsonNode element = expected.get(i);
+            JsonNode key = element.get(keyField);
+            if (key == null || isWildcard(key)) {
+                push(i);
+                mismatch("Invalid keyed element", "expected element has no '" + keyField + "' value");
+                pop();
+                continue;
+            }
+            Integer j = byKey.get(key);
+            if (j == null || used[j]) {
+                push(i);
+                mismatch("Key not found in response", "no element with " + keyField + " = " + key);
+                pop();
+                continue;
+            }
+            used[j] = true;
+            push(j);
+            compare(element, actual.get(j));
+            pop();
+        }
+        for (int j = 0; j < actual.size() && !isFull(); j++) {
+            if (!used[j]) {
+                push(j);
+                JsonNode key = actual.get(j).get(keyField);
+                mismatch("Unexpected extra element in response", keyField + " = " + (key != null ? key : "missing"));
+                pop();
+            }
+        }
+    }
+
+    private static boolean take(Map<JsonNode, Integer> counts, JsonNode element) {
+        Integer count = counts.get(element);
+        if (count == null) {
+            return false;
+        }
+        if (count == 1) {
+            counts.remove(element);
+        } else {
+            counts.put(element, count - 1);
+        }
+        return true;
+    }
+
+    static boolean containsWildcard(JsonNode node) {
+        if (node.isContainerNode()) {
+            for (JsonNode child : node) {
+                if (containsWildcard(child)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return isWildcard(node);
+    }
+
+    /**
+     * Compares without recording anything; returns whether the subtrees match.
+     */
+    private boolean probe(JsonNode expected, JsonNode actual) {
+        probeDepth++;
+        probeFailed = false;
+        compare(expected, actual);
+        boolean matched = !probeFailed;
+        probeDepth--;
+        probeFailed = false;
+        return matched;
+    }
+
+    protected final void reset() {
+        path.clear();
+        probeDepth = 0;
+        probeFailed = false;
+        mismatches = new ArrayList<>();
+        truncated = false;
+    }
+
+    protected final Result finish() {
+        Result result = new Result(mismatches, truncated);
+        mismatches = new ArrayList<>();
+        return result;
+    }
+
+    /**
+     * @return True once the maximum number of mismatches has been collected; walkers stop descending.
+     */
+    protected final boolean isFull() {
+        return truncated || probeFailed;
+    }
+
+    protected final void extraKey(String name) {
+        push(name);
+        mismatch("Unexpected extra key '" + name + "' in response", "");
+        pop();
+    }
+
+    protected static boolean isWildcard(JsonNode expected) {
+        return expected.isTextual() && ANY_VALUE.equals(expected.textValue());
+    }
+
+    protected final void push(Object segment) {
+        path.push(segment);
+    }
+
+    protected final void pop() {
+        path.pop();
+    }
+
+    protected final void mismatch(String kind, String detail) {
+        if (probeDepth > 0) {
+            probeFailed = true;
+            return;
+        }
+        if (truncated) {
+            return;
+        }
+        mismatches.add(new Mismatch(kind, currentPath(), detail));
+        truncated = mismatches.size() >= maxMismatches;
+    }
+
+    /**
+     * @return The current path in the runner's dotted notation, e.g. "data.items[0].id".
+     */
+    protected final String currentPath() {
+        return path.toDotted();
+    }
+
+    static String typeName(JsonNode node) {
+        if (node == null || node.isNull()) return "null";
+        if (node.isObject()) return "Map";
+        if (node.isArray()) return "List";
+        if (node.isTextual()) return "String";
+        if (node.isBoolean()) return "Boolean";
+        if (node.isNumber()) return "Number";
+        return node.getNodeType().name();
+    }
+
+    static String scalarText(JsonNode node) {
+        if (node == null || node.isNull()) return "null";
+        return node.isValueNode() ? node.asText() : node.toString();
+    }
+}
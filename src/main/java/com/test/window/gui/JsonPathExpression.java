@@ -0,0 +1,593 @@
+package com.test.window.gui;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled JSONPath expression evaluated directly against a parsed Jackson tree.
+ *
+ * Supported syntax (a subset of the common JSONPath dialect):
+ * <ul>
+ *   <li>$ root, .name and ['name'] children, [n] and [-n] indices, .* and [*] wildcards</li>
+ *   <li>..name and ..* deep scan</li>
+ *   <li>[?(...)] filters on array elements, using @ paths, literals ('text', numbers, true, false,
+ *       null, /regex/), comparisons == != &lt; &lt;= &gt; &gt;= =~, !, &amp;&amp;, || and parentheses</li>
+ *   <li>a trailing .length() or .size()</li>
+ * </ul>
+ *
+ * Paths without a leading $ are read as the older dotted capture keys ("data.items[0].id").
+ * Expressions are immutable and thread-safe once compiled.
+ */
+public final class JsonPathExpression {
+
+    private interface Segment {
+        void apply(JsonNode node, List<JsonNode> out);
+
+        default boolean isDefinite() {
+            return false;
+        }
+    }
+
+    private static final class Field implements Segment {
+        final String name;
+
+        Field(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void apply(JsonNode node, List<JsonNode> out) {
+            JsonNode child = node.isObject() ? node.get(name) : null;
+            if (child != null) {
+                out.add(child);
+            }
+        }
+
+        @Override
+        public boolean isDefinite() {
+            return true;
+        }
+    }
+
+    private static final class Index implements Segment {
+        final int index;
+
+        Index(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void apply(JsonNode node, List<JsonNode> out) {
+            if (node.isArray()) {
+                int i = index < 0 ? node.size() + index : index;
+                if (i >= 0 && i < node.size()) {
+                    out.add(node.get(i));
+                }
+            }
+        }
+
+        @Override
+        public boolean isDefinite() {
+            return true;
+        }
+    }
+
+    private static final class Wildcard implements Segment {
+        @Override
+        public void apply(JsonNode node, List<JsonNode> out) {
+            if (node.isContainerNode()) {
+                for (JsonNode child : node) {
+                    out.add(child);
+                }
+            }
+        }
+    }
+
+    private static final class DeepScan implements Segment {
+        final String name; // null for ..*
+
+        DeepScan(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void apply(JsonNode node, List<JsonNode> out) {
+            if (node.isObject()) {
+                Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    if (name == null || name.equals(field.getKey())) {
+                        out.add(field.getValue());
+                    }
+                    apply(field.getValue(), out);
+                }
+            } else if (node.isArray()) {
+                for (JsonNode child : node) {
+                    if (name == null) {
+                        out.add(child);
+                    }
+                    apply(child, out);
+                }
+            }
+        }
+    }
+
+    private static final class Filter implements Segment {
+        final Predicate predicate;
+
+        Filter(Predicate predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        public void apply(JsonNode node, List<JsonNode> out) {
+            if (node.isContainerNode()) {
+                for (JsonNode child : node) {
+                    if (predicate.test(child)) {
+                        out.add(child);
+                    }
+                }
+            }
+        }
+    }
+
+    private interface Predicate {
+        boolean test(JsonNode current);
+    }
+
+    /**
+     * One side of a filter comparison: a path relative to the current element (@), or a literal.
+     */
+    private static final class Operand {
+        final JsonPathExpression path; // null for literals
+        final JsonNode literal;
+        final Pattern regex;
+
+        Operand(JsonPathExpression path, JsonNode literal, Pattern regex) {
+            this.path = path;
+            this.literal = literal;
+            this.regex = regex;
+        }
+
+        JsonNode value(JsonNode current) {
+            return path != null ? path.evaluate(current) : literal;
+        }
+    }
+
+    private final String source;
+    private final List<Segment> segments;
+    private final boolean lengthFunction;
+    private final boolean definite;
+
+    private JsonPathExpression(String source, List<Segment> segments, boolean lengthFunction) {
+        this.source = source;
+        this.segments = segments;
+        this.lengthFunction = lengthFunction;
+        boolean allDefinite = true;
+        for (Segment segment : segments) {
+            allDefinite &= segment.isDefinite();
+        }
+        this.definite = allDefinite;
+    }
+
+    /**
+     * Compiles an expression.
+     *
+     * @throws IllegalArgumentException If the expression is not valid.
+     */
+    public static JsonPathExpression compile(String expression) {
+        if (expression == null || expression.trim().isEmpty()) {
+            throw new IllegalArgumentException("Empty JSONPath expression");
+        }
+        String text = expression.trim();
+        String path = text.startsWith("$") ? text : text.startsWith("[") ? "$" + text : "$." + text;
+        Parser parser = new Parser(path, text);
+        JsonPathExpression compiled = parser.parsePath();
+        parser.skipWhitespace();
+        if (!parser.atEnd()) {
+            throw parser.error("Unexpected '" + parser.peek() + "'");
+        }
+        return compiled;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * @return True if the path can match at most one node (only names and indices).
+     */
+    public boolean isDefinite() {
+        return definite;
+    }
+
+    /**
+     * @return Every node the path selects, in document order.
+     */
+    public List<JsonNode> select(JsonNode root) {
+        List<JsonNode> current = Collections.singletonList(root);
+        for (Segment segment : segments) {
+            List<JsonNode> next = new ArrayList<>();
+            for (JsonNode node : current) {
+                segment.apply(node, next);
+            }
+            if (next.isEmpty()) {
+                return next;
+            }
+            current = next;
+        }
+        return current;
+    }
+
+    /**
+     * Evaluates the expression the way JSONPath tools usually present results: the single node
+     * for a definite path (null if missing), an array of matches otherwise, and a number for
+     * .length()/.size().
+     */
+    public JsonNode evaluate(JsonNode root) {
+        List<JsonNode> matches = select(root);
+        if (lengthFunction) {
+            if (definite) {
+                if (matches.isEmpty()) {
+                    return null;
+                }
+                JsonNode node = matches.get(0);
+                return IntNode.valueOf(node.isTextual() ? node.textValue().length() : node.size());
+            }
+            return IntNode.valueOf(matches.size());
+        }
+        if (definite) {
+            return matches.isEmpty() ? null : matches.get(0);
+        }
+        ArrayNode result = JsonNodeFactory.instance.arrayNode(matches.size());
+        result.addAll(matches);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    /**
+     * Compares two values for filters and assertions: numbers numerically, strings
+     * lexicographically, anything else only for (in)equality.
+     *
+     * @return The comparison result, or null if the values are not ordered relative to each other.
+     */
+    static Integer compareValues(JsonNode left, JsonNode right) {
+        if (left == null || right == null) {
+            return null;
+        }
+        if (left.isNumber() && right.isNumber()) {
+            return left.decimalValue().compareTo(right.decimalValue());
+        }
+        if (left.isTextual() && right.isTextual()) {
+            return left.textValue().compareTo(right.textValue());
+        }
+        return null;
+    }
+
+    static boolean valuesEqual(JsonNode left, JsonNode right) {
+        if (left == null || right == null) {
+            return left == null && right == null;
+        }
+        Integer order = compareValues(left, right);
+        return order != null ? order == 0 : left.equals(right);
+    }
+
+    static boolean applyOperator(String op, JsonNode left, JsonNode right, Pattern regex) {
+        switch (op) {
+            case "==":
+                return valuesEqual(left, right);
+            case "!=":
+                return !valuesEqual(left, right);
+            case "=~":
+                return left != null && left.isValueNode() && regex.matcher(left.asText()).matches();
+            default:
+                Integer order = compareValues(left, right);
+                if (order == null) {
+                    return false;
+                }
+                switch (op) {
+                    case "<": return order < 0;
+                    case "<=": return order <= 0;
+                    case ">": return order > 0;
+                    case ">=": return order >= 0;
+                    default: return false;
+                }
+        }
+    }
+
+    /**
+     * Recursive-descent parser for paths, filters and literals. Also used by {@link JsonAssertion}.
+     */
+    static final class Parser {
+        private final String text;
+        private final String original;
+        private int pos;
+
+        Parser(String text, String original) {
+            this.text = text;
+            this.original = original;
+        }
+
+        int position() {
+            return pos;
+        }
+
+        boolean atEnd() {
+            return pos >= text.length();
+        }
+
+        char peek() {
+            return text.charAt(pos);
+        }
+
+        String rest() {
+            return text.substring(pos);
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + pos + " in JSONPath '" + original + "'");
+        }
+
+        void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        boolean consume(String token) {
+            if (text.startsWith(token, pos)) {
+                pos += token.length();
+                return true;
+            }
+            return false;
+        }
+
+        void expect(String token) {
+            skipWhitespace();
+            if (!consume(token)) {
+                throw error("Expected '" + token + "'");
+            }
+        }
+
+        /**
+         * Parses a path starting at $ or @; stops at the first character that cannot continue it.
+         */
+        JsonPathExpression parsePath() {
+            int start = pos;
+            if (!consume("$") && !consume("@")) {
+                throw error("Expected '$' or '@'");
+            }
+            List<Segment> segments = new ArrayList<>();
+            boolean lengthFunction = false;
+            while (!atEnd() && !lengthFunction) {
+                if (consume("..")) {
+                    if (consume("*")) {
+                        segments.add(new DeepScan(null));
+                    } else if (!atEnd() && peek() == '[') {
+                        segments.add(new DeepScan(null));
+                        segments.add(parseBracket());
+                    } else {
+                        segments.add(new DeepScan(parseName()));
+                    }
+                } else if (consume(".")) {
+                    if (consume("*")) {
+                        segments.add(new Wildcard());
+                    } else {
+                        String name = parseName();
+                        if ((name.equals("length") || name.equals("size")) && consume("()")) {
+                            lengthFunction = true;
+                        } else {
+                            segments.add(new Field(name));
+                        }
+                    }
+                } else if (peek() == '[') {
+                    segments.add(parseBracket());
+                } else {
+                    break;
+                }
+            }
+            return new JsonPathExpression(text.substring(start, pos), segments, lengthFunction);
+        }
+
+        private String parseName() {
+            int start = pos;
+            while (pos < text.length()) {
+                char c = text.charAt(pos);
+                if (c == '.' || c == '[' || c == '(' || c == ')' || Character.isWhitespace(c)
+                    || c == '=' || c == '!' || c == '<' || c == '>' || c == '&' || c == '|') {
+                    break;
+                }
+                pos++;
+            }
+            if (pos == start) {
+                throw error("Expected a property name");
+            }
+            return text.substring(start, pos);
+        }
+
+        private Segment parseBracket() {
+            expect("[");
+            skipWhitespace();
+            Segment segment;
+            if (consume("*")) {
+                segment = new Wildcard();
+            } else if (consume("?")) {
+                expect("(");
+                Predicate predicate = parseOr();
+                expect(")");
+                segment = new Filter(predicate);
+            } else if (!atEnd() && (peek() == '\'' || peek() == '"')) {
+                segment = new Field(parseQuoted());
+            } else {
+                int start = pos;
+                if (!atEnd() && peek() == '-') {
+                    pos++;
+                }
+                while (!atEnd() && Character.isDigit(peek())) {
+                    pos++;
+                }
+                try {
+                    segment = new Index(Integer.parseInt(text.substring(start, pos)));
+                } catch (NumberFormatException e) {
+                    throw error("Expected an index, '*', a quoted name or a filter");
+                }
+            }
+            expect("]");
+            return segment;
+        }
+
+        String parseQuoted() {
+            char quote = text.charAt(pos++);
+            StringBuilder sb = new StringBuilder();
+            while (pos < text.length() && text.charAt(pos) != quote) {
+                char c = text.charAt(pos++);
+                if (c == '\\' && pos < text.length()) {
+                    c = text.charAt(pos++);
+                }
+                sb.append(c);
+            }
+            if (atEnd()) {
+                throw error("Unterminated string");
+            }
+            pos++;
+            return sb.toString();
+        }
+
+        private Predicate parseOr() {
+            Predicate left = parseAnd();
+            skipWhitespace();
+            while (consume("||")) {
+                Predicate l = left;
+                Predicate r = parseAnd();
+                left = node -> l.test(node) || r.test(node);
+                skipWhitespace();
+            }
+            return left;
+        }
+
+        private Predicate parseAnd() {
+            Predicate left = parseUnary();
+            skipWhitespace();
+            while (consume("&&")) {
+                Predicate l = left;
+                Predicate r = parseUnary();
+                left = node -> l.test(node) && r.test(node);
+                skipWhitespace();
+            }
+            return left;
+        }
+
+        private Predicate parseUnary() {
+            skipWhitespace();
+            if (consume("!")) {
+                Predicate inner = parseUnary();
+                return node -> !inner.test(node);
+            }
+            if (consume("(")) {
+                Predicate inner = parseOr();
+                expect(")");
+                return inner;
+            }
+            Operand left = parseOperand();
+            skipWhitespace();
+            String op = parseOperator();
+            if (op == null) {
+                if (left.path == null) {
+                    throw error("Expected a comparison after literal");
+                }
+                // Existence test, as in [?(@.isbn)]
+                return node -> {
+                    JsonNode value = left.value(node);
+                    return value != null && (left.path.isDefinite() || value.size() > 0);
+                };
+            }
+            skipWhitespace();
+            Operand right = parseOperand();
+            if (op.equals("=~") && right.regex == null) {
+                throw error("Expected /regex/ after =~");
+            }
+            return node -> applyOperator(op, left.value(node), right.value(node), right.regex);
+        }
+
+        String parseOperator() {
+            for (String op : new String[] {"==", "!=", "<=", ">=", "=~", "<", ">"}) {
+                if (consume(op)) {
+                    return op;
+                }
+            }
+            return null;
+        }
+
+        private Operand parseOperand() {
+            skipWhitespace();
+            if (atEnd()) {
+                throw error("Unexpected end of expression");
+            }
+            char c = peek();
+            if (c == '@') {
+                return new Operand(parsePath(), null, null);
+            }
+            if (c == '/') {
+                return new Operand(null, null, parseRegex());
+            }
+            return new Operand(null, parseLiteral(), null);
+        }
+
+        Pattern parseRegex() {
+            pos++; // opening slash
+            StringBuilder sb = new StringBuilder();
+            while (pos < text.length() && text.charAt(pos) != '/') {
+                char c = text.charAt(pos++);
+                if (c == '\\' && pos < text.length() && text.charAt(pos) == '/') {
+                    c = text.charAt(pos++);
+                } else if (c == '\\' && pos < text.length()) {
+                    sb.append(c);
+                    c = text.charAt(pos++);
+                }
+                sb.append(c);
+            }
+            if (atEnd()) {
+                throw error("Unterminated regex");
+            }
+            pos++;
+            int flags = consume("i") ? Pattern.CASE_INSENSITIVE : 0;
+            return Pattern.compile(sb.toString(), flags);
+        }
+
+        /**
+         * Parses a 'single' or "double" quoted string, a number, true, false or null.
+         */
+        JsonNode parseLiteral() {
+            skipWhitespace();
+            if (!atEnd() && (peek() == '\'' || peek() == '"')) {
+                return JsonNodeFactory.instance.textNode(parseQuoted());
+            }
+            if (consume("true")) return JsonNodeFactory.instance.booleanNode(true);
+            if (consume("false")) return JsonNodeFactory.instance.booleanNode(false);
+            if (consume("null")) return JsonNodeFactory.instance.nullNode();
+            int start = pos;
+            while (!atEnd() && (Character.isDigit(peek()) || "+-.eE".indexOf(peek()) >= 0)) {
+                pos++;
+            }
+            try {
+                return JsonNodeFactory.instance.numberNode(new BigDecimal(text.substring(start, pos)));
+            } catch (NumberFormatException e) {
+                throw error("Expected a literal");
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.test.window.gui;
+
+import java.util.Arrays;
+
+/**
+ * The path of the node a JSON walk is at, kept as a stack of String keys and Integer indices
+ * and only turned into text when a difference is recorded. Used by {@link JsonMatcher},
+ * {@link JsonDiff} and the {@link JsonSchema} validator. Not thread-safe.
+ */
+final class JsonPathStack {
+
+    private Object[] segments = new Object[16];
+    private int depth;
+
+    void push(Object segment) {
+        if (depth == segments.length) {
+            segments = Arrays.copyOf(segments, depth * 2);
+        }
+        segments[depth++] = segment;
+    }
+
+    void pop() {
+        segments[--depth] = null;
+    }
+
+    int depth() {
+        return depth;
+    }
+
+    void clear() {
+        Arrays.fill(segments, 0, depth, null);
+        depth = 0;
+    }
+
+    /**
+     * Replaces this path with a copy of another.
+     */
+    void copyOf(JsonPathStack other) {
+        clear();
+        for (int i = 0; i < other.depth; i++) {
+            push(other.segments[i]);
+        }
+    }
+
+    /**
+     * @return The path as an {@link ArrayMatchRules} pattern, indices written as [*].
+     */
+    String pattern() {
+        return ArrayMatchRules.patternOf(segments, depth);
+    }
+
+    /**
+     * @return The path in the runner's dotted notation, e.g. "data.items[0].id".
+     */
+    String toDotted() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            Object segment = segments[i];
+            if (segment instanceof Integer) {
+                sb.append('[').append(segment).append(']');
+            } else {
+                if (sb.length() > 0) {
+                    sb.append('.');
+                }
+                sb.append(segment);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return The path as a JSON Pointer, e.g. "/data/items/0/id"; empty for the root.
+     */
+    String toPointer() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            Object segment = segments[i];
+            sb.append('/').append(segment instanceof Integer ? segment.toString() : escape((String) segment));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Escapes a key for use in a JSON Pointer ("~" as "~0", "/" as "~1").
+     */
+    static String escape(String key) {
+        if (key.indexOf('~') < 0 && key.indexOf('/') < 0) {
+            return key;
+        }
+        return key.replace("~", "~0").replace("/", "~1");
+    }
+}
@@ -0,0 +1,636 @@
+package com.test.window.gui;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A compiled JSON Schema used by the "Response Schema" column.
+ *
+ * The schema is compiled once into a tree of keyword checks and can then validate any number of
+ * parsed responses. The validation keywords of draft-07 and 2020-12 are supported: type, enum,
+ * const, properties, patternProperties, additionalProperties, required, propertyNames,
+ * min/maxProperties, dependentRequired (and draft-07 dependencies), dependentSchemas, items,
+ * prefixItems (and draft-07 array items with additionalItems), contains, min/maxItems,
+ * uniqueItems, min/maxLength, pattern, minimum, maximum, exclusiveMinimum/Maximum (number or
+ * draft-04 boolean), multipleOf, allOf, anyOf, oneOf, not, if/then/else and local $ref
+ * ("#", "#/$defs/...", "#/definitions/..."). format and other annotations are ignored.
+ *
+ * Each violation carries the JSON Pointer of the offending value and the schema path of the
+ * keyword that rejected it. Compiled schemas are immutable and thread-safe.
+ */
+public final class JsonSchema {
+
+    /**
+     * One keyword that rejected one value.
+     */
+    public static final class Violation {
+        private final String instancePath;
+        private final String schemaPath;
+        private final String message;
+
+        Violation(String instancePath, String schemaPath, String message) {
+            this.instancePath = instancePath;
+            this.schemaPath = schemaPath;
+            this.message = message;
+        }
+
+        /** @return JSON Pointer of the value in the response; "" for the root. */
+        public String getInstancePath() { return instancePath; }
+
+        /** @return Path of the failing keyword in the schema, e.g. #/properties/id/type. */
+        public String getSchemaPath() { return schemaPath; }
+
+        public String getMessage() { return message; }
+
+        public String describe() {
+            return (instancePath.isEmpty() ? "/" : instancePath) + ": " + message + " (" + schemaPath + ")";
+        }
+    }
+
+    /**
+     * The violations found, in document order, up to the requested limit.
+     */
+    public static final class Result {
+        private final List<Violation> violations;
+        private final boolean truncated;
+
+        Result(List<Violation> violations, boolean truncated) {
+            this.violations = Collections.unmodifiableList(violations);
+            this.truncated = truncated;
+        }
+
+        public boolean isValid() { return violations.isEmpty(); }
+
+        public List<Violation> getViolations() { return violations; }
+
+        /** @return True if validation stopped at the violation limit. */
+        public boolean isTruncated() { return truncated; }
+    }
+
+    /**
+     * A compiled (sub)schema. Filled in by the compiler, read-only afterwards.
+     */
+    private static final class Node {
+        final String path;
+        Boolean constant; // true/false schema
+        Node ref;
+        Set<String> types;
+        List<JsonNode> enumValues;
+        JsonNode constValue;
+        Map<String, Node> properties;
+        List<Pattern> patternKeys;
+        List<Node> patternNodes;
+        Node additionalProperties;
+        List<String> required;
+        Node propertyNames;
+        Integer minProperties, maxProperties;
+        Map<String, List<String>> dependentRequired;
+        Map<String, Node> dependentSchemas;
+        List<Node> prefixItems;
+        Node items;
+        Node contains;
+        Integer minItems, maxItems;
+        boolean uniqueItems;
+        Integer minLength, maxLength;
+        Pattern pattern;
+        BigDecimal minimum, maximum, exclusiveMinimum, exclusiveMaximum, multipleOf;
+        List<Node> allOf, anyOf, oneOf;
+        Node not, ifNode, thenNode, elseNode;
+
+        Node(String path) {
+            this.path = path;
+        }
+    }
+
+    private final Node root;
+
+    private JsonSchema(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * @throws IllegalArgumentException If the schema is not a valid schema or uses a remote $ref.
+     */
+    public static JsonSchema compile(JsonNode schema) {
+        return new JsonSchema(new Compiler(schema).compile(schema, "#"));
+    }
+
+    /**
+     * @return Hex SHA-256 of the schema text, used as the compiled-schema cache key.
+     */
+    public static String contentHash(String schemaText) {
+        return ReportBlobStore.sha256Hex(schemaText.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param instance      The parsed response.
+     * @param maxViolations Maximum number of violations to collect (at least 1).
+     */
+    public Result validate(JsonNode instance, int maxViolations) {
+        Validator validator = new Validator(Math.max(1, maxViolations));
+        validator.validate(root, instance);
+        return new Result(validator.violations, validator.isFull());
+    }
+
+    private static final class Compiler {
+        private final JsonNode document;
+        private final Map<String, Node> byPath = new HashMap<>();
+
+        Compiler(JsonNode document) {
+            this.document = document;
+        }
+
+        Node compile(JsonNode schema, String path) {
+            Node existing = byPath.get(path);
+            if (existing != null) {
+                return existing; // Recursive $ref
+            }
+            Node node = new Node(path);
+            byPath.put(path, node);
+            if (schema.isBoolean()) {
+                node.constant = schema.booleanValue();
+                return node;
+            }
+            if (!schema.isObject()) {
+                throw new IllegalArgumentException("Schema at " + path + " must be an object or boolean");
+            }
+            JsonNode ref = schema.get("$ref");
+            if (ref != null) {
+                node.ref = resolve(ref.asText(), path);
+            }
+            JsonNode type = schema.get("type");
+            if (type != null) {
+                node.types = new LinkedHashSet<>();
+                if (type.isArray()) {
+                    type.forEach(t -> node.types.add(t.asText()));
+                } else {
+                    node.types.add(type.asText());
+                }
+            }
+            JsonNode enumNode = schema.get("enum");
+            if (enumNode != null) {
+                node.enumValues = new ArrayList<>();
+                enumNode.forEach(node.enumValues::add);
+            }
+            node.constValue = schema.get("const");
+
+            JsonNode properties = schema.get("properties");
+            if (properties != null) {
+                node.properties = new LinkedHashMap<>();
+                properties.fields().forEachRemaining(field ->
+                    node.properties.put(field.getKey(), compile(field.getValue(), path + "/properties/" + JsonPathStack.escape(field.getKey()))));
+            }
+            JsonNode patternProperties = schema.get("patternProperties");
+            if (patternProperties != null) {
+                node.patternKeys = new ArrayList<>();
+                node.patternNodes = new ArrayList<>();
+                patternProperties.fields().forEachRemaining(field -> {
+                    node.patternKeys.add(regex(field.getKey(), path + "/patternProperties"));
+                    node.patternNodes.add(compile(field.getValue(), path + "/patternProperties/" + JsonPathStack.escape(field.getKey())));
+                });
+            }
+            node.additionalProperties = optional(schema, "additionalProperties", path);
+            JsonNode required = schema.get("required");
+            if (required != null && required.isArray()) {
+                node.required = new ArrayList<>();
+                required.forEach(r -> node.required.add(r.asText()));
+            }
+            node.propertyNames = optional(schema, "propertyNames", path);
+            node.minProperties = integer(schema, "minProperties");
+            node.maxProperties = integer(schema, "maxProperties");
+            compileDependencies(schema, node, path);
+
+            JsonNode items = schema.get("items");
+            JsonNode prefixItems = schema.get("prefixItems");
+            if (items != null && items.isArray()) { // draft-07 tuple form
+                node.prefixItems = list(items, path + "/items");
+                node.items = optional(schema, "additionalItems", path);
+            } else {
+                node.prefixItems = prefixItems != null ? list(prefixItems, path + "/prefixItems") : null;
+                node.items = optional(schema, "items", path);
+            }
+            node.contains = optional(schema, "contains", path);
+            node.minItems = integer(schema, "minItems");
+            node.maxItems = integer(schema, "maxItems");
+            node.uniqueItems = schema.path("uniqueItems").asBoolean(false);
+
+            node.minLength = integer(schema, "minLength");
+            node.maxLength = integer(schema, "maxLength");
+            if (schema.has("pattern")) {
+                node.pattern = regex(schema.get("pattern").asText(), path + "/pattern");
+            }
+
+            node.minimum = decimal(schema, "minimum");
+            node.maximum = decimal(schema, "maximum");
+            node.multipleOf = decimal(schema, "multipleOf");
+            JsonNode exclusiveMinimum = schema.get("exclusiveMinimum");
+            if (exclusiveMinimum != null && exclusiveMinimum.isBoolean()) { // draft-04
+                if (exclusiveMinimum.booleanValue()) {
+                    node.exclusiveMinimum = node.minimum;
+                    node.minimum = null;
+                }
+            } else {
+                node.exclusiveMinimum = decimal(schema, "exclusiveMinimum");
+            }
+            JsonNode exclusiveMaximum = schema.get("exclusiveMaximum");
+            if (exclusiveMaximum != null && exclusiveMaximum.isBoolean()) {
+                if (exclusiveMaximum.booleanValue()) {
+                    node.exclusiveMaximum = node.maximum;
+                    node.maximum = null;
+                }
+            } else {
+                node.exclusiveMaximum = decimal(schema, "exclusiveMaximum");
+            }
+
+            node.allOf = schema.has("allOf") ? list(schema.get("allOf"), path + "/allOf") : null;
+            node.anyOf = schema.has("anyOf") ? list(schema.get("anyOf"), path + "/anyOf") : null;
+            node.oneOf = schema.has("oneOf") ? list(schema.get("oneOf"), path + "/oneOf") : null;
+            node.not = optional(schema, "not", path);
+            node.ifNode = optional(schema, "if", path);
+            node.thenNode = optional(schema, "then", path);
+            node.elseNode = optional(schema, "else", path);
+            return node;
+        }
+
+        private void compileDependencies(JsonNode schema, Node node, String path) {
+            JsonNode dependentRequired = schema.get("dependentRequired");
+            JsonNode dependentSchemas = schema.get("dependentSchemas");
+            JsonNode dependencies = schema.get("dependencies"); // draft-07: arrays or schemas
+            if (dependentRequired == null && dependentSchemas == null && dependencies == null) {
+                return;
+            }
+            node.dependentRequired = new LinkedHashMap<>();
+            node.dependentSchemas = new LinkedHashMap<>();
+            for (JsonNode source : new JsonNode[] {dependentRequired, dependentSchemas, dependencies}) {
+                if (source == null) {
+                    continue;
+                }
+                String keyword = source == dependentRequired ? "dependentRequired" : source == dependentSchemas ? "dependentSchemas" : "dependencies";
+                source.fields().forEachRemaining(field -> {
+                    if (field.getValue().isArray()) {
+                        List<String> names = new ArrayList<>();
+                        field.getValue().forEach(n -> names.add(n.asText()));
+                        node.dependentRequired.put(field.getKey(), names);
+                    } else {
+                        node.dependentSchemas.put(field.getKey(), compile(field.getValue(), path + "/" + keyword + "/" + JsonPathStack.escape(field.getKey())));
+                    }
+                });
+            }
+        }
+
+        private Node resolve(String ref, String from) {
+            if (!ref.startsWith("#")) {
+                throw new IllegalArgumentException("Only local $ref values are supported, got '" + ref + "' at " + from);
+            }
+            JsonNode target = ref.length() <= 1 ? document : document.at(ref.substring(1));
+            if (target.isMissingNode()) {
+                throw new IllegalArgumentException("Unresolvable $ref '" + ref + "' at " + from);
+            }
+            return compile(target, ref.length() <= 1 ? "#" : ref);
+        }
+
+        private Node optional(JsonNode schema, String keyword, String path) {
+            JsonNode value = schema.get(keyword);
+            return value != null ? compile(value, path + "/" + keyword) : null;
+        }
+
+        private List<Node> list(JsonNode array, String path) {
+            if (!array.isArray()) {
+                throw new IllegalArgumentException("Schema at " + path + " must be an array");
+            }
+            List<Node> nodes = new ArrayList<>(array.size());
+            for (int i = 0; i < array.size(); i++) {
+                nodes.add(compile(array.get(i), path + "/" + i));
+            }
+            return nodes;
+        }
+
+        private static Integer integer(JsonNode schema, String keyword) {
+            JsonNode value = schema.get(keyword);
+            return value != null && value.isNumber() ? value.intValue() : null;
+        }
+
+        private static BigDecimal decimal(JsonNode schema, String keyword) {
+            JsonNode value = schema.get(keyword);
+            return value != null && value.isNumber() ? value.decimalValue() : null;
+        }
+
+        private static Pattern regex(String pattern, String path) {
+            try {
+                return Pattern.compile(pattern);
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("Invalid pattern '" + pattern + "' at " + path + ": " + e.getDescription());
+            }
+        }
+    }
+
+    /**
+     * Walks one response against the compiled tree. Sub-schemas of anyOf, oneOf, not, if and
+     * contains are probed without recording their violations.
+     */
+    private static final class Validator {
+        private List<Violation> violations = new ArrayList<>();
+        private int limit;
+        private final JsonPathStack path = new JsonPathStack();
+
+        Validator(int limit) {
+            this.limit = limit;
+        }
+
+        boolean isFull() {
+            return violations.size() >= limit;
+        }
+
+        void validate(Node node, JsonNode value) {
+            if (node.constant != null) {
+                if (!node.constant) {
+                    fail(node.path, "no value is allowed here");
+                }
+                return;
+            }
+            if (node.ref != null) {
+                validate(node.ref, value);
+            }
+            if (node.types != null && node.types.stream().noneMatch(type -> hasType(value, type))) {
+                fail(node.path + "/type", "expected " + String.join(" or ", node.types) + ", got " + typeOf(value));
+            }
+            if (node.enumValues != null && node.enumValues.stream().noneMatch(e -> equal(e, value))) {
+                fail(node.path + "/enum", "value " + brief(value) + " is not one of " + brief(node.enumValues.toString()));
+            }
+            if (node.constValue != null && !equal(node.constValue, value)) {
+                fail(node.path + "/const", "expected " + brief(node.constValue) + ", got " + brief(value));
+            }
+            if (value.isObject()) {
+                validateObject(node, value);
+            } else if (value.isArray()) {
+                validateArray(node, value);
+            } else if (value.isTextual()) {
+                validateString(node, value.textValue());
+            } else if (value.isNumber()) {
+                validateNumber(node, value.decimalValue());
+            }
+            validateCombinators(node, value);
+        }
+
+        private void validateObject(Node node, JsonNode value) {
+            if (node.required != null) {
+                for (String name : node.required) {
+                    if (!value.has(name)) {
+                        fail(node.path + "/required", "required property '" + name + "' is missing");
+                    }
+                }
+            }
+            if (node.minProperties != null && value.size() < node.minProperties) {
+                fail(node.path + "/minProperties", "expected at least " + node.minProperties + " properties, got " + value.size());
+            }
+            if (node.maxProperties != null && value.size() > node.maxProperties) {
+                fail(node.path + "/maxProperties", "expected at most " + node.maxProperties + " properties, got " + value.size());
+            }
+            if (node.dependentRequired != null) {
+                for (Map.Entry<String, List<String>> dependency : node.dependentRequired.entrySet()) {
+                    if (!value.has(dependency.getKey())) continue;
+                    for (String name : dependency.getValue()) {
+                        if (!value.has(name)) {
+                            fail(node.path + "/dependentRequired/" + JsonPathStack.escape(dependency.getKey()),
+                                "property '" + name + "' is required when '" + dependency.getKey() + "' is present");
+                        }
+                    }
+                }
+                for (Map.Entry<String, Node> dependency : node.dependentSchemas.entrySet()) {
+                    if (value.has(dependency.getKey())) {
+                        validate(dependency.getValue(), value);
+                    }
+                }
+            }
+            if (node.properties == null && node.patternKeys == null && node.additionalProperties == null && node.propertyNames == null) {
+                return;
+            }
+            Iterator<Map.Entry<String, JsonNode>> fields = value.fields();
+            while (fields.hasNext() && !isFull()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                String name = field.getKey();
+                push(name);
+                if (node.propertyNames != null && !probe(node.propertyNames, TextNode.valueOf(name))) {
+                    fail(node.propertyNames.path, "property name '" + name + "' is not allowed");
+                }
+                boolean matched = false;
+                Node property = node.properties != null ? node.properties.get(name) : null;
+                if (property != null) {
+                    matched = true;
+                    validate(property, field.getValue());
+                }
+                if (node.patternKeys != null) {
+                    for (int i = 0; i < node.patternKeys.size(); i++) {
+                        if (node.patternKeys.get(i).matcher(name).find()) {
+                            matched = true;
+                            validate(node.patternNodes.get(i), field.getValue());
+                        }
+                    }
+                }
+                if (!matched && node.additionalProperties != null) {
+                    if (Boolean.FALSE.equals(node.additionalProperties.constant)) {
+                        fail(node.additionalProperties.path, "property '" + name + "' is not allowed");
+                    } else {
+                        validate(node.additionalProperties, field.getValue());
+                    }
+                }
+                pop();
+            }
+        }
+
+        private void validateArray(Node node, JsonNode value) {
+            int size = value.size();
+            if (node.minItems != null && size < node.minItems) {
+                fail(node.path + "/minItems", "expected at least " + node.minItems + " items, got " + size);
+            }
+            if (node.maxItems != null && size > node.maxItems) {
+                fail(node.path + "/maxItems", "expected at most " + node.maxItems + " items, got " + size);
+            }
+            if (node.uniqueItems && size > 1) {
+                Set<JsonNode> seen = new HashSet<>(size * 2);
+                for (int i = 0; i < size; i++) {
+                    if (!seen.add(value.get(i))) {
+                        push(i);
+                        fail(node.path + "/uniqueItems", "duplicate item " + brief(value.get(i)));
+                        pop();
+                        break;
+                    }
+                }
+            }
+            int prefix = node.prefixItems != null ? Math.min(node.prefixItems.size(), size) : 0;
+            for (int i = 0; i < size && !isFull(); i++) {
+                Node itemNode = i < prefix ? node.prefixItems.get(i) : node.items;
+                if (itemNode == null) {
+                    continue;
+                }
+                push(i);
+                if (i >= prefix && Boolean.FALSE.equals(itemNode.constant)) {
+                    fail(itemNode.path, "expected at most " + prefix + " items, got " + size);
+                    pop();
+                    break;
+                }
+                validate(itemNode, value.get(i));
+                pop();
+            }
+            if (node.contains != null) {
+                boolean found = false;
+                for (int i = 0; i < size && !found; i++) {
+                    found = probe(node.contains, value.get(i));
+                }
+                if (!found) {
+                    fail(node.contains.path, "no item matches the 'contains' schema");
+                }
+            }
+        }
+
+        private void validateString(Node node, String text) {
+            if (node.minLength != null || node.maxLength != null) {
+                int length = text.codePointCount(0, text.length());
+                if (node.minLength != null && length < node.minLength) {
+                    fail(node.path + "/minLength", "expected at least " + node.minLength + " characters, got " + length);
+                }
+                if (node.maxLength != null && length > node.maxLength) {
+                    fail(node.path + "/maxLength", "expected at most " + node.maxLength + " characters, got " + length);
+                }
+            }
+            if (node.pattern != null && !node.pattern.matcher(text).find()) {
+                fail(node.path + "/pattern", "'" + brief(text) + "' does not match /" + node.pattern.pattern() + "/");
+            }
+        }
+
+        private void validateNumber(Node node, BigDecimal number) {
+            if (node.minimum != null && number.compareTo(node.minimum) < 0) {
+                fail(node.path + "/minimum", number.toPlainString() + " is less than " + node.minimum.toPlainString());
+            }
+            if (node.maximum != null && number.compareTo(node.maximum) > 0) {
+                fail(node.path + "/maximum", number.toPlainString() + " is greater than " + node.maximum.toPlainString());
+            }
+            if (node.exclusiveMinimum != null && number.compareTo(node.exclusiveMinimum) <= 0) {
+                fail(node.path + "/exclusiveMinimum", number.toPlainString() + " is not greater than " + node.exclusiveMinimum.toPlainString());
+            }
+            if (node.exclusiveMaximum != null && number.compareTo(node.exclusiveMaximum) >= 0) {
+                fail(node.path + "/exclusiveMaximum", number.toPlainString() + " is not less than " + node.exclusiveMaximum.toPlainString());
+            }
+            if (node.multipleOf != null && node.multipleOf.signum() > 0
+                && number.remainder(node.multipleOf).signum() != 0) {
+                fail(node.path + "/multipleOf", number.toPlainString() + " is not a multiple of " + node.multipleOf.toPlainString());
+            }
+        }
+
+        private void validateCombinators(Node node, JsonNode value) {
+            if (node.allOf != null) {
+                for (Node sub : node.allOf) {
+                    validate(sub, value);
+                }
+            }
+            if (node.anyOf != null && node.anyOf.stream().noneMatch(sub -> probe(sub, value))) {
+                fail(node.path + "/anyOf", "value matches none of the " + node.anyOf.size() + " 'anyOf' schemas");
+            }
+            if (node.oneOf != null) {
+                int matches = 0;
+                for (Node sub : node.oneOf) {
+                    if (probe(sub, value) && ++matches > 1) {
+                        break;
+                    }
+                }
+                if (matches != 1) {
+                    fail(node.path + "/oneOf", matches == 0
+                        ? "value matches none of the " + node.oneOf.size() + " 'oneOf' schemas"
+                        : "value matches more than one 'oneOf' schema");
+                }
+            }
+            if (node.not != null && probe(node.not, value)) {
+                fail(node.not.path, "value must not match the 'not' schema");
+            }
+            if (node.ifNode != null) {
+                Node branch = probe(node.ifNode, value) ? node.thenNode : node.elseNode;
+                if (branch != null) {
+                    validate(branch, value);
+                }
+            }
+        }
+
+        /**
+         * @return Whether the value is valid against the node; records nothing.
+         */
+        private boolean probe(Node node, JsonNode value) {
+            List<Violation> saved = violations;
+            int savedLimit = limit;
+            violations = new ArrayList<>(1);
+            limit = 1;
+            validate(node, value);
+            boolean valid = violations.isEmpty();
+            violations = saved;
+            limit = savedLimit;
+            return valid;
+        }
+
+        private void fail(String schemaPath, String message) {
+            if (!isFull()) {
+                violations.add(new Violation(path.toPointer(), schemaPath, message));
+            }
+        }
+
+        private void push(Object segment) {
+            path.push(segment);
+        }
+
+        private void pop() {
+            path.pop();
+        }
+    }
+
+    private static boolean hasType(JsonNode value, String type) {
+        switch (type) {
+            case "object": return value.isObject();
+            case "array": return value.isArray();
+            case "string": return value.isTextual();
+            case "boolean": return value.isBoolean();
+            case "null": return value.isNull();
+            case "number": return value.isNumber();
+            case "integer":
+                return value.isIntegralNumber() || value.isNumber() && value.decimalValue().stripTrailingZeros().scale() <= 0;
+            default: return false;
+        }
+    }
+
+    private static String typeOf(JsonNode value) {
+        if (value.isIntegralNumber()) return "integer";
+        if (value.isNumber()) return "number";
+        if (value.isTextual()) return "string";
+        if (value.isBoolean()) return "boolean";
+        if (value.isObject()) return "object";
+        if (value.isArray()) return "array";
+        return "null";
+    }
+
+    /**
+     * JSON equality with numbers compared by value, so 1 and 1.0 are equal as the spec requires.
+     */
+    private static boolean equal(JsonNode a, JsonNode b) {
+        if (a.isNumber() && b.isNumber()) {
+            return a.decimalValue().compareTo(b.decimalValue()) == 0;
+        }
+        return a.equals(b);
+    }
+
+    private static String brief(Object value) {
+        String text = String.valueOf(value);
+        return text.length() > 80 ? text.substring(0, 80) + "..." : text;
+    }
+}
@@ -0,0 +1,32 @@
+package com.test.window.gui;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Shared Jackson instances for the API runner, executor and report.
+ * ObjectMapper, ObjectReader and ObjectWriter are thread-safe once configured, so every
+ * component reuses these instead of constructing a new ObjectMapper per call.
+ */
+public final class JsonSupport {
+
+    /**
+     * The single configured mapper. Do not reconfigure it after startup.
+     */
+    public static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Reader producing JsonNode trees; fails on empty input instead of returning a MissingNode.
+     */
+    public static final ObjectReader TREE_READER = MAPPER.readerFor(JsonNode.class);
+
+    /**
+     * Writer with the default pretty printer, as used for env.json and the report.
+     */
+    public static final ObjectWriter PRETTY_WRITER = MAPPER.writerWithDefaultPrettyPrinter();
+
+    private JsonSupport() {
+    }
+}
@@ -0,0 +1,325 @@
+package com.test.window.gui;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compares the response times and results of a run with a baseline run from {@link RunHistory}
+ * and writes the comparison as an HTML page.
+ *
+ * For each test the delta is between the medians of its samples in the current and baseline
+ * runs. A slowdown is flagged as significant only if it is both large enough to matter
+ * (at least the minimum delta and 10% of the baseline) and unlikely to be noise, judged against
+ * the samples of the baseline run and the runs before it (the baseline window):
+ * <ul>
+ *   <li>with at least 3 samples on both sides, a one-sided Mann-Whitney U test at p &lt; 0.05;</li>
+ *   <li>with one current sample, at least 5 baseline samples and a robust z-score
+ *       (distance from the baseline median in scaled median absolute deviations) above 3.5;</li>
+ *   <li>otherwise it is reported but not judged.</li>
+ * </ul>
+ * Executions that got no response (a connection failure, say) still count for pass/fail
+ * changes but are left out of every latency figure.
+ */
+public final class LatencyComparison {
+
+    private static final double MIN_RELATIVE_DELTA = 0.10;
+    private static final double P_THRESHOLD = 0.05;
+    private static final double Z_THRESHOLD = 3.5;
+    private static final int MIN_SAMPLES_EACH = 3;
+    private static final int MIN_BASELINE_SAMPLES = 5;
+
+    /**
+     * One test of the comparison.
+     */
+    public static final class Row {
+        public final String testId;
+        public final String endpoint;
+        public final String change; // "New failure", "Fixed", "New test", "Removed" or ""
+        public final double baselineMs; // Median; NaN if the test is not in the baseline run
+        public final double currentMs; // Median; NaN if the test did not run now
+        public final double baselineWaitMs;
+        public final double currentWaitMs;
+        public final int windowSamples;
+        public final int currentSamples;
+        public final boolean significant;
+        public final String evidence;
+
+        Row(String testId, String endpoint, String change, double baselineMs, double currentMs, double baselineWaitMs,
+            double currentWaitMs, int windowSamples, int currentSamples, boolean significant, String evidence) {
+            this.testId = testId;
+            this.endpoint = endpoint;
+            this.change = change;
+            this.baselineMs = baselineMs;
+            this.currentMs = currentMs;
+            this.baselineWaitMs = baselineWaitMs;
+            this.currentWaitMs = currentWaitMs;
+            this.windowSamples = windowSamples;
+            this.currentSamples = currentSamples;
+            this.significant = significant;
+            this.evidence = evidence;
+        }
+
+        public double deltaMs() {
+            return currentMs - baselineMs;
+        }
+    }
+
+    private LatencyComparison() {
+    }
+
+    /**
+     * @param baseline   Samples of the baseline run.
+     * @param window     Samples of the baseline run and the runs before it.
+     * @param current    Samples of the current run.
+     * @param minDeltaMs Smallest slowdown worth flagging.
+     * @return Rows with significant slowdowns first, then by delta, largest first.
+     */
+    public static List<Row> compare(Map<String, List<RunHistory.Sample>> baseline, Map<String, List<RunHistory.Sample>> window,
+                                    Map<String, List<RunHistory.Sample>> current, long minDeltaMs) {
+        Map<String, Boolean> testIds = new LinkedHashMap<>();
+        current.keySet().forEach(id -> testIds.put(id, true));
+        baseline.keySet().forEach(id -> testIds.putIfAbsent(id, true));
+        List<Row> rows = new ArrayList<>();
+        for (String testId : testIds.keySet()) {
+            List<RunHistory.Sample> before = baseline.getOrDefault(testId, List.of());
+            List<RunHistory.Sample> now = current.getOrDefault(testId, List.of());
+            List<RunHistory.Sample> history = window.getOrDefault(testId, List.of());
+            String endpoint = !now.isEmpty() ? now.get(0).method + " " + now.get(0).endpoint : before.get(0).method + " " + before.get(0).endpoint;
+
+            String change = "";
+            if (before.isEmpty()) {
+                change = "New test";
+            } else if (now.isEmpty()) {
+                change = "Removed";
+            } else if (allPassed(before) && !allPassed(now)) {
+                change = "New failure";
+            } else if (!allPassed(before) && allPassed(now)) {
+                change = "Fixed";
+            }
+
+            double[] windowTimes = responseTimes(history);
+            double[] currentTimes = responseTimes(now);
+            double baselineMs = median(responseTimes(before));
+            double currentMs = median(currentTimes);
+            double delta = currentMs - baselineMs;
+            boolean large = !Double.isNaN(delta) && delta >= minDeltaMs && delta >= baselineMs * MIN_RELATIVE_DELTA;
+            boolean significant = false;
+            String evidence;
+            if (currentTimes.length == 0 || windowTimes.length == 0) {
+                evidence = "";
+            } else if (currentTimes.length >= MIN_SAMPLES_EACH && windowTimes.length >= MIN_SAMPLES_EACH) {
+                double p = mannWhitneyGreater(windowTimes, currentTimes);
+                significant = large && p < P_THRESHOLD;
+                evidence = String.format(Locale.ROOT, "p = %.3f (Mann-Whitney, %d vs %d samples)", p, windowTimes.length, currentTimes.length);
+            } else if (windowTimes.length >= MIN_BASELINE_SAMPLES) {
+                double center = median(windowTimes);
+                double[] deviations = Arrays.stream(windowTimes).map(t -> Math.abs(t - center)).toArray();
+                double scale = Math.max(1.4826 * median(deviations), 1.0); // Scaled MAD; at least 1 ms
+                double z = (currentMs - center) / scale;
+                significant = large && z > Z_THRESHOLD;
+                evidence = String.format(Locale.ROOT, "z = %.1f (vs %d baseline samples)", z, windowTimes.length);
+            } else {
+                evidence = "Not judged: " + windowTimes.length + " baseline sample(s), needs " + MIN_BASELINE_SAMPLES;
+            }
+            rows.add(new Row(testId, endpoint, change, baselineMs, currentMs, median(waitTimes(before)), median(waitTimes(now)),
+                windowTimes.length, currentTimes.length, significant, evidence));
+        }
+        rows.sort(Comparator.comparing((Row row) -> !row.significant)
+            .thenComparing(row -> Double.isNaN(row.deltaMs()) ? Double.NEGATIVE_INFINITY : row.deltaMs(), Comparator.reverseOrder()));
+        return rows;
+    }
+
+    private static boolean allPassed(List<RunHistory.Sample> samples) {
+        return samples.stream().allMatch(sample -> sample.passed);
+    }
+
+    private static double[] responseTimes(List<RunHistory.Sample> samples) {
+        return samples.stream().filter(LatencyComparison::hasResponse).mapToDouble(sample -> sample.responseTimeMs).toArray();
+    }
+
+    private static double[] waitTimes(List<RunHistory.Sample> samples) {
+        return samples.stream().filter(LatencyComparison::hasResponse).mapToDouble(sample -> sample.waitTimeMs).toArray();
+    }
+
+    private static boolean hasResponse(RunHistory.Sample sample) {
+        return sample.responseStatus != null && !sample.responseStatus.isEmpty();
+    }
+
+    static double median(double[] values) {
+        if (values.length == 0) {
+            return Double.NaN;
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int mid = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[mid] : (sorted[mid - 1] + sorted[mid]) / 2.0;
+    }
+
+    /**
+     * One-sided Mann-Whitney U test, normal approximation with continuity correction and midranks
+     * for ties.
+     *
+     * @return The p-value for "current tends to be larger than baseline".
+     */
+    static double mannWhitneyGreater(double[] baseline, double[] current) {
+        int n1 = baseline.length;
+        int n2 = current.length;
+        double[][] all = new double[n1 + n2][];
+        for (int i = 0; i < n1; i++) {
+            all[i] = new double[] {baseline[i], 0};
+        }
+        for (int i = 0; i < n2; i++) {
+            all[n1 + i] = new double[] {current[i], 1};
+        }
+        Arrays.sort(all, Comparator.comparingDouble(entry -> entry[0]));
+        double currentRankSum = 0;
+        double tieTerm = 0;
+        for (int i = 0; i < all.length; ) {
+            int j = i;
+            while (j + 1 < all.length && all[j + 1][0] == all[i][0]) {
+                j++;
+            }
+            double rank = (i + j) / 2.0 + 1; // Midrank of the tied group
+            for (int k = i; k <= j; k++) {
+                if (all[k][1] == 1) {
+                    currentRankSum += rank;
+                }
+            }
+            int ties = j - i + 1;
+            tieTerm += (double) ties * ties * ties - ties;
+            i = j + 1;
+        }
+        double u = currentRankSum - n2 * (n2 + 1) / 2.0;
+        double mean = n1 * n2 / 2.0;
+        int n = n1 + n2;
+        double variance = n1 * n2 / 12.0 * ((n + 1) - tieTerm / ((double) n * (n - 1)));
+        if (variance <= 0) {
+            return 1.0; // All values equal
+        }
+        double z = (u - mean - 0.5) / Math.sqrt(variance);
+        return 1.0 - normalCdf(z);
+    }
+
+    /**
+     * Standard normal CDF (Abramowitz and Stegun 7.1.26, error below 1.5e-7).
+     */
+    private static double normalCdf(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1.0 / (1.0 + 0.3275911 * x);
+        double erf = 1 - ((((1.061405429 * t - 1.453152027) * t + 1.421413741) * t - 0.284496736) * t + 0.254829592) * t * Math.exp(-x * x);
+        return z >= 0 ? 0.5 * (1 + erf) : 0.5 * (1 - erf);
+    }
+
+    /**
+     * Writes the comparison page.
+     *
+     * @param trends     p50/p95 response times of each test's endpoint in recent runs, by test id.
+     * @param flakiness  Flakiness of each test in recent runs, by test id.
+     */
+    public static void writeHtml(Path file, RunHistory.RunInfo baseline, RunHistory.RunInfo current, int windowRuns, List<Row> rows,
+                                 Map<String, List<RunHistory.TrendPoint>> trends, Map<String, RunHistory.Flakiness> flakiness) throws IOException {
+        long slowdowns = rows.stream().filter(row -> row.significant).count();
+        long newFailures = rows.stream().filter(row -> row.change.equals("New failure")).count();
+        long fixed = rows.stream().filter(row -> row.change.equals("Fixed")).count();
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("<!DOCTYPE html>\n<html lang='en'>\n<head>\n<meta charset='UTF-8'>\n");
+            out.write("<title>API Latency Comparison</title>\n");
+            out.write("<link href='https://cdn.jsdelivr.net/npm/bootstrap@5.3.8/dist/css/bootstrap.min.css' rel='stylesheet'>\n");
+            out.write("<style>\n"
+                + "body { font-family: Arial, sans-serif; font-size: 12px; }\n"
+                + ".container-fluid { max-width: 1400px; margin: 20px auto; }\n"
+                + "th { background-color: #0D6EFD !important; color: #FFFFFF !important; position: sticky; top: 0; }\n"
+                + "td.num { text-align: right; white-space: nowrap; }\n"
+                + ".trend polyline { fill: none; stroke-width: 1.5; }\n"
+                + ".slower { color: #dc3545; font-weight: bold; }\n"
+                + ".faster { color: #198754; }\n"
+                + "</style>\n</head>\n<body>\n<div class='container-fluid'>\n");
+            out.write("<h1 class='display-6 text-center mb-3'>API Latency Comparison</h1>\n");
+            out.write("<p class='text-center'>Suite <b>" + escapeHtml(current.suite) + "</b>: run <b>" + escapeHtml(current.runId)
+                + "</b> against baseline run <b>" + escapeHtml(baseline.runId) + "</b> (significance judged against the baseline and up to "
+                + (windowRuns - 1) + " earlier runs)</p>\n");
+            out.write("<p class='text-center'>"
+                + "<span class='badge bg-danger'>Significant slowdowns: " + slowdowns + "</span> "
+                + "<span class='badge bg-warning text-dark'>New failures: " + newFailures + "</span> "
+                + "<span class='badge bg-success'>Fixed: " + fixed + "</span> "
+                + "<span class='badge bg-secondary'>Tests: " + rows.size() + "</span></p>\n");
+            out.write("<table class='table table-sm table-bordered table-hover'>\n<thead><tr>"
+                + "<th>Test ID</th><th>Endpoint</th><th>Change</th><th>Baseline (ms)</th><th>Current (ms)</th>"
+                + "<th>Delta (ms)</th><th>Delta (%)</th><th>Wait baseline / current (ms)</th><th>Significance</th>"
+                + "<th>p50 / p95 trend</th><th>Flakiness</th></tr></thead>\n<tbody>\n");
+            for (Row row : rows) {
+                String rowClass = row.significant ? "table-danger" : row.change.equals("New failure") ? "table-warning"
+                    : row.change.equals("Fixed") ? "table-success" : "";
+                double delta = row.deltaMs();
+                String deltaClass = Double.isNaN(delta) ? "" : delta > 0 && row.significant ? "slower" : delta < 0 ? "faster" : "";
+                out.write("<tr class='" + rowClass + "'>"
+                    + "<td>" + escapeHtml(row.testId) + "</td>"
+                    + "<td>" + escapeHtml(row.endpoint) + "</td>"
+                    + "<td>" + escapeHtml(row.change) + "</td>"
+                    + "<td class='num'>" + formatMs(row.baselineMs) + "</td>"
+                    + "<td class='num'>" + formatMs(row.currentMs) + "</td>"
+                    + "<td class='num " + deltaClass + "'>" + (Double.isNaN(delta) ? "" : String.format(Locale.ROOT, "%+.0f", delta)) + "</td>"
+                    + "<td class='num " + deltaClass + "'>" + (Double.isNaN(delta) || row.baselineMs <= 0 ? ""
+                        : String.format(Locale.ROOT, "%+.1f%%", 100.0 * delta / row.baselineMs)) + "</td>"
+                    + "<td class='num'>" + formatMs(row.baselineWaitMs) + " / " + formatMs(row.currentWaitMs) + "</td>"
+                    + "<td>" + (row.significant ? "<b>Slower</b> " : "") + escapeHtml(row.evidence) + "</td>"
+                    + "<td>" + sparkline(trends.getOrDefault(row.testId, List.of())) + "</td>"
+                    + "<td>" + flakinessCell(flakiness.get(row.testId)) + "</td>"
+                    + "</tr>\n");
+            }
+            out.write("</tbody>\n</table>\n</div>\n</body>\n</html>\n");
+        }
+    }
+
+    /**
+     * Inline SVG of p50 (blue) and p95 (red) per run, oldest on the left, on a shared scale.
+     */
+    private static String sparkline(List<RunHistory.TrendPoint> points) {
+        if (points.size() < 2) {
+            return "";
+        }
+        int width = 120;
+        int height = 24;
+        long max = Math.max(1L, points.stream().mapToLong(point -> point.p95Ms).max().orElse(1L));
+        StringBuilder p50 = new StringBuilder();
+        StringBuilder p95 = new StringBuilder();
+        for (int i = 0; i < points.size(); i++) {
+            double x = i * (width - 2.0) / (points.size() - 1) + 1;
+            p50.append(String.format(Locale.ROOT, "%.1f,%.1f ", x, height - 1 - points.get(i).p50Ms * (height - 2.0) / max));
+            p95.append(String.format(Locale.ROOT, "%.1f,%.1f ", x, height - 1 - points.get(i).p95Ms * (height - 2.0) / max));
+        }
+        RunHistory.TrendPoint last = points.get(points.size() - 1);
+        return "<svg class='trend' width='" + width + "' height='" + height + "'>"
+            + "<title>" + points.size() + " runs; latest p50 " + last.p50Ms + " ms, p95 " + last.p95Ms + " ms</title>"
+            + "<polyline stroke='#0d6efd' points='" + p50.toString().trim() + "'/>"
+            + "<polyline stroke='#dc3545' points='" + p95.toString().trim() + "'/></svg>";
+    }
+
+    private static String flakinessCell(RunHistory.Flakiness test) {
+        if (test == null || test.runs < 2) {
+            return "";
+        }
+        return String.format(Locale.ROOT, "%.2f (%d flips, %d/%d runs failed)", test.score, test.flips, test.failedRuns, test.runs);
+    }
+
+    private static String formatMs(double ms) {
+        return Double.isNaN(ms) ? "-" : String.format(Locale.ROOT, "%.0f", ms);
+    }
+
+    private static String escapeHtml(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;").replace("'", "&#39;");
+    }
+}
@@ -0,0 +1,311 @@
+package com.test.window.gui;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A compiled "Modify Payload (key)" path that sets a value inside a JSON payload tree.
+ *
+ * Three notations are accepted:
+ * <ul>
+ *   <li>JSON Pointer: /user/addresses/0/city, with /- to append to an array</li>
+ *   <li>JSONPath subset: $.user.addresses[0].city, $['odd.key'], with [-] to append</li>
+ *   <li>the older dotted keys: user.addresses[0].city</li>
+ * </ul>
+ *
+ * The value text is converted to the type of the value it replaces: integers stay integers
+ * (long or big integer, never narrowed), decimals stay decimals, booleans stay booleans;
+ * anything else is set as a string. With create-missing, absent objects and arrays along the
+ * path are created (an array when the next segment is an index or append) and an index equal to
+ * the array size appends. Paths are immutable and thread-safe once compiled.
+ */
+public final class MutationPath {
+
+    /**
+     * Outcome of applying a path to a payload.
+     */
+    public enum Status { SET, APPENDED, CREATED, MISSING, NOT_A_CONTAINER }
+
+    private static final int APPEND = -1;
+
+    /**
+     * An object key (name != null) or an array index (index >= 0, or APPEND).
+     */
+    private static final class Segment {
+        final String name;
+        final int index;
+
+        Segment(String name, int index) {
+            this.name = name;
+            this.index = index;
+        }
+
+        boolean isKey() {
+            return name != null;
+        }
+
+        @Override
+        public String toString() {
+            return name != null ? name : index == APPEND ? "-" : String.valueOf(index);
+        }
+    }
+
+    private final String source;
+    private final List<Segment> segments;
+
+    private MutationPath(String source, List<Segment> segments) {
+        this.source = source;
+        this.segments = segments;
+    }
+
+    /**
+     * @throws IllegalArgumentException If the path is empty or malformed.
+     */
+    public static MutationPath compile(String path) {
+        if (path == null || path.trim().isEmpty()) {
+            throw new IllegalArgumentException("Empty payload path");
+        }
+        String text = path.trim();
+        List<Segment> segments = text.startsWith("/") ? parsePointer(text) : parseDotted(text);
+        if (segments.isEmpty()) {
+            throw new IllegalArgumentException("Payload path '" + path + "' selects the whole payload");
+        }
+        return new MutationPath(text, Collections.unmodifiableList(segments));
+    }
+
+    private static List<Segment> parsePointer(String text) {
+        List<Segment> segments = new ArrayList<>();
+        for (String token : text.substring(1).split("/", -1)) {
+            // A token may address an object key or an array element; decided against the actual container
+            segments.add(token.equals("-") ? new Segment(null, APPEND) : new Segment(token.replace("~1", "/").replace("~0", "~"), 0));
+        }
+        return segments;
+    }
+
+    private static List<Segment> parseDotted(String text) {
+        String body = text;
+        if (body.startsWith("$")) {
+            body = body.substring(1);
+            if (body.startsWith(".")) {
+                body = body.substring(1);
+            }
+        }
+        List<Segment> segments = new ArrayList<>();
+        int pos = 0;
+        StringBuilder name = new StringBuilder();
+        while (pos < body.length()) {
+            char c = body.charAt(pos);
+            if (c == '.') {
+                flushName(name, segments, text);
+                pos++;
+            } else if (c == '[') {
+                flushName(name, segments, text);
+                int close = findClose(body, pos, text);
+                String inner = body.substring(pos + 1, close).trim();
+                if ((inner.startsWith("'") && inner.endsWith("'") || inner.startsWith("\"") && inner.endsWith("\"")) && inner.length() >= 2) {
+                    segments.add(new Segment(inner.substring(1, inner.length() - 1), 0));
+                } else if (inner.equals("-") || inner.isEmpty()) {
+                    segments.add(new Segment(null, APPEND));
+                } else {
+                    try {
+                        int index = Integer.parseInt(inner);
+                        if (index < 0) {
+                            throw new NumberFormatException();
+                        }
+                        segments.add(new Segment(null, index));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid array index '" + inner + "' in payload path '" + text + "'");
+                    }
+                }
+                pos = close + 1;
+            } else {
+                name.append(c);
+                pos++;
+            }
+        }
+        flushName(name, segments, text);
+        return segments;
+    }
+
+    private static int findClose(String body, int open, String text) {
+        int close = body.indexOf(']', open);
+        if (close < 0) {
+            throw new IllegalArgumentException("Missing ']' in payload path '" + text + "'");
+        }
+        return close;
+    }
+
+    private static void flushName(StringBuilder name, List<Segment> segments, String text) {
+        String trimmed = name.toString().trim();
+        name.setLength(0);
+        if (!trimmed.isEmpty()) {
+            segments.add(new Segment(trimmed, 0));
+        }
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Sets the value at this path.
+     *
+     * @param root          The payload tree; must be an object or array.
+     * @param value         The value text from the sheet.
+     * @param createMissing Whether absent containers and keys may be created.
+     * @return What happened; MISSING and NOT_A_CONTAINER mean nothing was changed.
+     */
+    public Status apply(JsonNode root, String value, boolean createMissing) {
+        JsonNode current = root;
+        boolean created = false;
+        for (int i = 0; i < segments.size() - 1; i++) {
+            Segment segment = segments.get(i);
+            JsonNode next = child(current, segment);
+            if (next == null || next.isNull()) {
+                if (!createMissing || !current.isContainerNode()) {
+                    return current.isContainerNode() ? Status.MISSING : Status.NOT_A_CONTAINER;
+                }
+                Segment following = segments.get(i + 1);
+                JsonNode container = following.isKey() && !isIndexToken(following.name)
+                    ? JsonNodeFactory.instance.objectNode()
+                    : JsonNodeFactory.instance.arrayNode();
+                if (!put(current, segment, container, true)) {
+                    return Status.MISSING;
+                }
+                next = container;
+                created = true;
+            }
+            if (!next.isContainerNode()) {
+                return Status.NOT_A_CONTAINER;
+            }
+            current = next;
+        }
+
+        Segment last = segments.get(segments.size() - 1);
+        if (!current.isContainerNode()) {
+            return Status.NOT_A_CONTAINER;
+        }
+        JsonNode existing = child(current, last);
+        if (existing == null && !createMissing && !(current.isArray() && isAppend(last))) {
+            return Status.MISSING;
+        }
+        if (!put(current, last, convert(value, existing), createMissing)) {
+            return Status.MISSING;
+        }
+        if (existing == null) {
+            return created || !isAppend(last) ? Status.CREATED : Status.APPENDED;
+        }
+        return Status.SET;
+    }
+
+    private static boolean isAppend(Segment segment) {
+        return !segment.isKey() && segment.index == APPEND;
+    }
+
+    private static boolean isIndexToken(String token) {
+        if (token.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (!Character.isDigit(token.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The array index the segment addresses in an array, or -2 if it cannot.
+     */
+    private static int arrayIndex(Segment segment) {
+        if (!segment.isKey()) {
+            return segment.index;
+        }
+        if (isIndexToken(segment.name)) {
+            try {
+                return Integer.parseInt(segment.name);
+            } catch (NumberFormatException e) {
+                return -2;
+            }
+        }
+        return -2;
+    }
+
+    private static JsonNode child(JsonNode container, Segment segment) {
+        if (container.isObject()) {
+            return segment.isKey() ? container.get(segment.name) : null;
+        }
+        if (container.isArray()) {
+            int index = arrayIndex(segment);
+            return index >= 0 && index < container.size() ? container.get(index) : null;
+        }
+        return null;
+    }
+
+    private static boolean put(JsonNode container, Segment segment, JsonNode value, boolean createMissing) {
+        if (container.isObject()) {
+            if (!segment.isKey()) {
+                return false;
+            }
+            ((ObjectNode) container).set(segment.name, value);
+            return true;
+        }
+        ArrayNode array = (ArrayNode) container;
+        int index = arrayIndex(segment);
+        if (index == APPEND || (createMissing && index == array.size())) {
+            array.add(value);
+            return true;
+        }
+        if (index >= 0 && index < array.size()) {
+            array.set(index, value);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Converts the sheet text to the JSON type of the value being replaced.
+     */
+    static JsonNode convert(String value, JsonNode existing) {
+        JsonNodeFactory nodes = JsonNodeFactory.instance;
+        String trimmed = value.trim();
+        if (existing != null && existing.isIntegralNumber()) {
+            try {
+                return nodes.numberNode(Long.parseLong(trimmed));
+            } catch (NumberFormatException e) {
+                try {
+                    return nodes.numberNode(new BigInteger(trimmed));
+                } catch (NumberFormatException ignored) {
+                    // Fall through: maybe a decimal
+                }
+            }
+        }
+        if (existing != null && existing.isNumber()) {
+            try {
+                BigDecimal decimal = new BigDecimal(trimmed);
+                return existing.isBigDecimal() ? nodes.numberNode(decimal) : nodes.numberNode(decimal.doubleValue());
+            } catch (NumberFormatException e) {
+                System.err.println("Warning: Failed to parse value '" + value + "' as number, using string instead");
+            }
+        } else if (existing != null && existing.isBoolean()) {
+            if (trimmed.equalsIgnoreCase("true") || trimmed.equalsIgnoreCase("false")) {
+                return nodes.booleanNode(Boolean.parseBoolean(trimmed));
+            }
+            System.err.println("Warning: Value '" + value + "' is not a boolean, using string instead");
+        }
+        return nodes.textNode(value);
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
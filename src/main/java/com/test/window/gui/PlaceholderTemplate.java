@@ -0,0 +1,150 @@
+package com.test.window.gui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A {{placeholder}} template compiled once into literal and variable segments.
+ * Rendering walks the segments into a pre-sized StringBuilder, so no regex is involved
+ * after compilation. The syntax matches the historical pattern {@code \{\{([^}]+)\}\}}:
+ * a variable is "{{", one or more characters other than '}', then "}}".
+ *
+ * Used by RunApiTest for placeholder replacement, by EnvJsonUpdater to discover keys,
+ * and by the UI and report highlighters.
+ */
+public final class PlaceholderTemplate {
+
+    /**
+     * Resolves a variable name to its replacement text during rendering.
+     */
+    @FunctionalInterface
+    public interface Resolver {
+        String resolve(String name);
+    }
+
+    /**
+     * A literal run of text or a variable reference.
+     */
+    public static final class Segment {
+        private final String text;
+        private final boolean variable;
+
+        private Segment(String text, boolean variable) {
+            this.text = text;
+            this.variable = variable;
+        }
+
+        /** @return The literal text, or the variable name without braces. */
+        public String getText() { return text; }
+
+        public boolean isVariable() { return variable; }
+
+        /** @return The number of characters this segment spans in the source text. */
+        public int sourceLength() { return variable ? text.length() + 4 : text.length(); }
+    }
+
+    private static final PlaceholderTemplate EMPTY = new PlaceholderTemplate("", Collections.emptyList(), 0);
+
+    private final String source;
+    private final List<Segment> segments;
+    private final int literalLength;
+
+    private PlaceholderTemplate(String source, List<Segment> segments, int literalLength) {
+        this.source = source;
+        this.segments = segments;
+        this.literalLength = literalLength;
+    }
+
+    /**
+     * Parses text into segments.
+     *
+     * @param text The raw cell text; null is treated as empty.
+     * @return The compiled template.
+     */
+    public static PlaceholderTemplate compile(String text) {
+        if (text == null || text.isEmpty()) {
+            return EMPTY;
+        }
+        if (!text.contains("{{")) {
+            return new PlaceholderTemplate(text, Collections.singletonList(new Segment(text, false)), text.length());
+        }
+        List<Segment> segments = new ArrayList<>();
+        int literalLength = 0;
+        int literalStart = 0;
+        int open = text.indexOf("{{");
+        while (open >= 0) {
+            int close = text.indexOf('}', open + 2);
+            if (close > open + 2 && close + 1 < text.length() && text.charAt(close + 1) == '}') {
+                if (open > literalStart) {
+                    segments.add(new Segment(text.substring(literalStart, open), false));
+                    literalLength += open - literalStart;
+                }
+                segments.add(new Segment(text.substring(open + 2, close), true));
+                literalStart = close + 2;
+                open = text.indexOf("{{", literalStart);
+            } else {
+                open = text.indexOf("{{", open + 1);
+            }
+        }
+        if (literalStart < text.length()) {
+            segments.add(new Segment(text.substring(literalStart), false));
+            literalLength += text.length() - literalStart;
+        }
+        return new PlaceholderTemplate(text, Collections.unmodifiableList(segments), literalLength);
+    }
+
+    /**
+     * Renders the template, asking the resolver for every variable in order of appearance.
+     *
+     * @param resolver Supplies replacement text; a null result renders as an empty string.
+     * @return The rendered text, or the source itself when it has no variables.
+     */
+    public String render(Resolver resolver) {
+        if (!hasVariables()) {
+            return source;
+        }
+        StringBuilder out = new StringBuilder(literalLength + 16 * segments.size());
+        for (Segment segment : segments) {
+            if (segment.variable) {
+                String value = resolver.resolve(segment.text);
+                if (value != null) {
+                    out.append(value);
+                }
+            } else {
+                out.append(segment.text);
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * @return True if the template contains at least one {{variable}}.
+     */
+    public boolean hasVariables() {
+        return segments.size() > 1 || (segments.size() == 1 && segments.get(0).variable);
+    }
+
+    /**
+     * @return Distinct variable names in order of first appearance.
+     */
+    public Set<String> variableNames() {
+        Set<String> names = new LinkedHashSet<>();
+        for (Segment segment : segments) {
+            if (segment.variable) {
+                names.add(segment.text);
+            }
+        }
+        return names;
+    }
+
+    public List<Segment> getSegments() {
+        return segments;
+    }
+
+    public String getSource() {
+        return source;
+    }
+}
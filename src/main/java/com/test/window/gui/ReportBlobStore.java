@@ -0,0 +1,169 @@
+package com.test.window.gui;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * A folder of report attachments (bodies, screenshots) named by the SHA-256 of their content, next
+ * to the report that references them ("report-blobs" for report.html). A blob is written once and
+ * then shared by every row, and every later run, that has the same content. Files are written to
+ * a temporary name and moved into place, so concurrent writers and interrupted runs never leave a
+ * partial blob under its final name. Thread-safe.
+ *
+ * A blob this store writes or reuses has its modification time set to now. Blobs that no
+ * report uses any more can therefore be removed with {@link #retainUsed()}, when only the latest
+ * report links the folder, or with {@link #pruneOlderThan(Duration)}, when many reports share it.
+ */
+public final class ReportBlobStore {
+
+    private final Path directory;
+    private final Set<String> known = ConcurrentHashMap.newKeySet();
+
+    public ReportBlobStore(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    /**
+     * Opens the blob folder that belongs to a report file.
+     */
+    public static ReportBlobStore forReport(Path reportFile) throws IOException {
+        Path report = reportFile.toAbsolutePath();
+        String name = report.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return new ReportBlobStore(report.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + "-blobs"));
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return The folder name, for links relative to the report.
+     */
+    public String getDirectoryName() {
+        return directory.getFileName().toString();
+    }
+
+    /**
+     * Stores content under its own hash.
+     *
+     * @return The blob's file name.
+     */
+    public String put(byte[] content, String extension) throws IOException {
+        return putIfAbsent(sha256Hex(content), extension, () -> content);
+    }
+
+    /**
+     * Stores content under a key the caller derived from its source, so content that is
+     * expensive to produce is only produced when the blob is not on disk yet.
+     *
+     * @param hash      Hex SHA-256 identifying the content.
+     * @param extension File extension without the dot.
+     * @param content   Produces the bytes; not called if the blob exists.
+     * @return The blob's file name.
+     */
+    public String putIfAbsent(String hash, String extension, Supplier<byte[]> content) throws IOException {
+        String fileName = hash + "." + extension;
+        if (known.contains(fileName)) {
+            return fileName;
+        }
+        Path target = directory.resolve(fileName);
+        if (Files.exists(target)) {
+            try {
+                Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis())); // Used again; keep it
+            } catch (IOException e) {
+                // Pruned concurrently; written again below
+            }
+        }
+        if (!Files.exists(target)) {
+            Path temp = Files.createTempFile(directory, hash, ".tmp");
+            try {
+                Files.write(temp, content.get());
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Another writer stored the same content first
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        known.add(fileName);
+        return fileName;
+    }
+
+    /**
+     * Deletes every blob this store instance did not write or reuse, for a folder that belongs to
+     * a single report that was just written in full.
+     *
+     * @return The number of files deleted.
+     */
+    public int retainUsed() throws IOException {
+        return prune(file -> !known.contains(file.getFileName().toString()));
+    }
+
+    /**
+     * Deletes blobs not written or reused within {@code maxAge}, for a folder shared by several
+     * reports: reports younger than that keep all their blobs.
+     *
+     * @return The number of files deleted.
+     */
+    public int pruneOlderThan(Duration maxAge) throws IOException {
+        long cutoff = System.currentTimeMillis() - maxAge.toMillis();
+        return prune(file -> !known.contains(file.getFileName().toString())
+            && Files.getLastModifiedTime(file).toMillis() < cutoff);
+    }
+
+    private interface FileFilter {
+        boolean test(Path file) throws IOException;
+    }
+
+    private int prune(FileFilter remove) throws IOException {
+        long staleTempCutoff = System.currentTimeMillis() - Duration.ofHours(1).toMillis();
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                try {
+                    boolean temp = file.getFileName().toString().endsWith(".tmp");
+                    // A temporary file may belong to a writer that is still running
+                    if (temp ? Files.getLastModifiedTime(file).toMillis() < staleTempCutoff : remove.test(file)) {
+                        if (Files.deleteIfExists(file)) {
+                            deleted++;
+                        }
+                    }
+                } catch (IOException e) {
+                    System.err.println("Warning: Failed to prune " + file + ": " + e.getMessage());
+                }
+            }
+        }
+        if (deleted > 0) {
+            System.out.println("Debug: Pruned " + deleted + " unused file(s) from " + directory);
+        }
+        return deleted;
+    }
+
+    /**
+     * @return Lower-case hex SHA-256 of the bytes.
+     */
+    public static String sha256Hex(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
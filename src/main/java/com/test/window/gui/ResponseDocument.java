@@ -0,0 +1,90 @@
+package com.test.window.gui;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A response body that is parsed as JSON at most once, on first access.
+ * Capture, verification, console output and the HTML report all read the same tree
+ * instead of parsing the body again. A parse failure is remembered and rethrown.
+ */
+public final class ResponseDocument {
+
+    private final String body;
+    private boolean parsed = false;
+    private JsonNode tree;
+    private JsonProcessingException parseError;
+    private Object value;
+
+    public ResponseDocument(String body) {
+        this.body = body != null ? body : "";
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    /**
+     * @return The parsed JSON tree.
+     * @throws JsonProcessingException If the body is empty or not valid JSON.
+     */
+    public synchronized JsonNode getTree() throws JsonProcessingException {
+        if (!parsed) {
+            parsed = true;
+            try {
+                tree = JsonSupport.TREE_READER.readValue(body);
+            } catch (JsonProcessingException e) {
+                parseError = e;
+            }
+        }
+        if (parseError != null) {
+            throw parseError;
+        }
+        return tree;
+    }
+
+    /**
+     * @return True once the body has been parsed (successfully or not).
+     */
+    public synchronized boolean isParsed() {
+        return parsed;
+    }
+
+    /**
+     * @return True if the body parses as JSON.
+     */
+    public boolean isJson() {
+        try {
+            getTree();
+            return true;
+        } catch (JsonProcessingException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return The tree as plain Map/List/scalar values, converted once from the parsed tree.
+     * @throws JsonProcessingException If the body is not valid JSON.
+     */
+    public synchronized Object getValue() throws JsonProcessingException {
+        if (value == null) {
+            JsonNode node = getTree();
+            value = node.isNull() ? null : JsonSupport.MAPPER.treeToValue(node, Object.class);
+        }
+        return value;
+    }
+
+    /**
+     * @return Pretty-printed JSON, or the raw body if it is not JSON.
+     */
+    public String toPrettyString() {
+        if (body.trim().isEmpty()) {
+            return "";
+        }
+        try {
+            return JsonSupport.PRETTY_WRITER.writeValueAsString(getTree());
+        } catch (JsonProcessingException e) {
+            return body;
+        }
+    }
+}
@@ -9,6 +9,8 @@ import javafx.beans.property.StringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -34,6 +36,7 @@ import org.apache.http.ssl.SSLContexts;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.test.window.app.UIConstants;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -41,13 +44,14 @@ import com.fasterxml.jackson.core.type.TypeReference;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.security.KeyStore;
-import java.text.SimpleDateFormat;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import javax.net.ssl.SSLContext;
@@ -55,6 +59,7 @@ import javax.net.ssl.TrustManager;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
+import javax.xml.stream.XMLStreamException;
 import java.security.SecureRandom;
 import java.security.cert.X509Certificate;
 
@@ -102,8 +107,7 @@ public class RunApiTest extends Application {
 	    }
 
 	    try {
-	        ObjectMapper mapper = new ObjectMapper();
-	        Map<String, Map<String, String>> data = mapper.readValue(
+	        Map<String, Map<String, String>> data = JsonSupport.MAPPER.readValue(
 	            proxyFile, new TypeReference<Map<String, Map<String, String>>>() {});
 
 	        for (Map.Entry<String, Map<String, String>> entry : data.entrySet()) {
@@ -148,8 +152,7 @@ public class RunApiTest extends Application {
         }
 
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            Map<String, Map<String, List<String>>> data = mapper.readValue(
+            Map<String, Map<String, List<String>>> data = JsonSupport.MAPPER.readValue(
                 sslFile, new TypeReference<Map<String, Map<String, List<String>>>>() {});
 
             for (Map.Entry<String, Map<String, List<String>>> entry : data.entrySet()) {
@@ -384,12 +387,14 @@ public class RunApiTest extends Application {
         private final StringProperty testId;
         private final StringProperty testDescription;
         private final StringProperty status;
+        private final int position; // Row position in load order, used as the bit index in TagIndex
 
-        public TestCase(boolean run, String testId, String testDescription, String status) {
+        public TestCase(boolean run, String testId, String testDescription, String status, int position) {
             this.run = new SimpleBooleanProperty(run);
             this.testId = new SimpleStringProperty(testId);
             this.testDescription = new SimpleStringProperty(testDescription);
             this.status = new SimpleStringProperty(status);
+            this.position = position;
         }
 
         public BooleanProperty runProperty() {
@@ -407,11 +412,17 @@ public class RunApiTest extends Application {
         public StringProperty statusProperty() {
             return status;
         }
+
+        public int getPosition() {
+            return position;
+        }
     }
 
     // UI Components
     private TableView<TestCase> table;
     private ObservableList<TestCase> testCases;
+    private FilteredList<TestCase> filteredTestCases;
+    private TagIndex tagIndex = TagIndex.build(Collections.emptyList());
     private CheckBox selectAllCheckBox;
     private Button loadButton;
     private Button runButton;
@@ -419,6 +430,7 @@ public class RunApiTest extends Application {
     private Button refreshButton;
     private TextField testTypeField;
     private Label testTypeLabel;
+    private Label reportProgressLabel;
     private File lastLoadedFile;
     private Task<Void> runTask;
     private double lastScrollPosition = 0.0;
@@ -430,8 +442,14 @@ public class RunApiTest extends Application {
     private HashMap<Integer, HashMap<String, Object>> modifyPayloadMap = new HashMap<>();
     private HashMap<Integer, HashMap<String, Object>> responseCaptureMap = new HashMap<>();
     private HashMap<Integer, HashMap<String, Object>> authMap = new HashMap<>();
-    private List<Map<String, Object>> reportDataList = new ArrayList<>();
-    private String currentTimestamp = null; // Global variable to hold the timestamp for the current test
+    private final Map<String, PlaceholderTemplate> compiledTemplates = new ConcurrentHashMap<>(); // Cell text -> compiled template
+    private final Map<String, JsonPathExpression> compiledPaths = new ConcurrentHashMap<>(); // Capture path -> compiled JSONPath
+    private final Map<String, JsonAssertion> compiledAssertions = new ConcurrentHashMap<>(); // Assertion text -> compiled assertion
+    private final Map<String, MutationPath> compiledMutations = new ConcurrentHashMap<>(); // Modify Payload key -> compiled path
+    private final Map<String, XmlPath> compiledXmlPaths = new ConcurrentHashMap<>(); // XML capture / Modify Payload path -> compiled path
+    private final Map<String, JsonSchema> compiledSchemas = new ConcurrentHashMap<>(); // Response Schema cell -> compiled schema
+    private final Map<String, JsonSchema> schemasByHash = new ConcurrentHashMap<>(); // Schema text SHA-256 -> compiled schema, per suite
+    private DynamicValues dynamicValues = new DynamicValues(null, 0); // Built-in $generators, recreated for each run
 
     private static final Set<String> REQUIRED_HEADERS = new HashSet<>(Arrays.asList(
         "Test ID", "Test Description", "Request", "End-Point", "Header (key)", "Header (value)",
@@ -451,7 +469,10 @@ public class RunApiTest extends Application {
         }
 
         testCases = FXCollections.observableArrayList();
-        table = new TableView<>(testCases);
+        filteredTestCases = new FilteredList<>(testCases);
+        SortedList<TestCase> sortedTestCases = new SortedList<>(filteredTestCases);
+        table = new TableView<>(sortedTestCases);
+        sortedTestCases.comparatorProperty().bind(table.comparatorProperty());
         table.setStyle("-fx-background-color: #2E2E2E; -fx-control-inner-background: #2E2E2E; -fx-text-fill: white; " +
                 "-fx-table-cell-border-color: #3C3F41; -fx-border-color: #3C3F41; -fx-border-width: 1px; -fx-border-radius: 5px;");
 
@@ -465,7 +486,7 @@ public class RunApiTest extends Application {
         runColumn.setCellValueFactory(cellData -> cellData.getValue().runProperty());
         runColumn.setCellFactory(col -> {
             CheckBoxTableCell<TestCase, Boolean> cell = new CheckBoxTableCell<>(index -> {
-                BooleanProperty property = testCases.get(index).runProperty();
+                BooleanProperty property = table.getItems().get(index).runProperty();
                 property.addListener((obs, oldVal, newVal) -> {
                     table.getSelectionModel().select(index);
                     table.requestFocus();
@@ -576,6 +597,9 @@ public class RunApiTest extends Application {
         testTypeField.setPromptText("Enter test type");
         testTypeField.setDisable(true);
 
+        reportProgressLabel = new Label();
+        reportProgressLabel.setStyle("-fx-text-fill: white;");
+
         testCases.addListener((ListChangeListener<TestCase>) change -> {
             while (change.next()) {
                 if (change.wasAdded()) {
@@ -624,6 +648,9 @@ public class RunApiTest extends Application {
             loadTestCases(primaryStage, true);
         });
 
+        // Narrow the visible rows through the tag index as the user types
+        testTypeField.textProperty().addListener((obs, oldText, newText) -> updateTableFilter());
+
         // Add focus listener to testTypeField to apply filter on lose focus
         testTypeField.focusedProperty().addListener((obs, wasFocused, isFocused) -> {
             if (!isFocused && wasFocused) {
@@ -635,20 +662,19 @@ public class RunApiTest extends Application {
             // Apply filter before running if needed
             applyTestTypeFilter();
 
-            reportDataList.clear();
-
             // Determine filter on FX thread
             String testType = testTypeField.getText().trim();
             String filterStr = null;
             if (testType.startsWith("@") && testType.length() > 1) {
                 filterStr = testType.substring(1).trim();
             }
+            BitSet filterMatches = evaluateTestTypeFilter(testType);
 
             // Collect tests to run on FX thread
             List<TestCase> testsToRun = new ArrayList<>();
             for (TestCase tc : testCases) {
                 if (tc.runProperty().get() &&
-                    (filterStr == null || tc.testDescriptionProperty().get().toLowerCase().contains(filterStr.toLowerCase()))) {
+                    (filterStr == null || (filterMatches != null && filterMatches.get(tc.getPosition())))) {
                     testsToRun.add(tc);
                 }
             }
@@ -682,16 +708,14 @@ public class RunApiTest extends Application {
                     });
 
                     ApiExecutor apiExecutor = new ApiExecutor();
-                    ObjectMapper objectMapper = new ObjectMapper();
-                    Map<String, String> envVars = new HashMap<>();
-                    Map<String, String> originalEnvVars = new HashMap<>();
+                    ObjectMapper objectMapper = JsonSupport.MAPPER;
+                    Map<String, Object> envFileValues = new HashMap<>();
 
                     File envFile = new File("env.json");
                     if (envFile.exists()) {
                         try {
-                            envVars = objectMapper.readValue(envFile, HashMap.class);
-                            originalEnvVars.putAll(envVars);
-                            System.out.println("Debug: Loaded env.json: " + envVars);
+                            envFileValues = objectMapper.readValue(envFile, HashMap.class);
+                            System.out.println("Debug: Loaded env.json: " + envFileValues);
                         } catch (IOException ex) {
                             System.err.println("Error loading env.json: " + ex.getMessage());
                         }
@@ -699,368 +723,594 @@ public class RunApiTest extends Application {
                         System.err.println("env.json not found in project root. Initializing empty environment variables.");
                     }
 
-                    for (TestCase testCase : testsToRun) {
-                        if (isCancelled()) {
-                            break;
+                    // Immutable env.json snapshot + published captures; this loop is a single worker
+                    EnvironmentScopes envScopes = new EnvironmentScopes(envFileValues);
+                    EnvironmentScopes.Worker envWorker = envScopes.newWorker();
+
+                    RunnerSettings settings = RunnerSettings.load();
+                    EnvJsonStore envStore = new EnvJsonStore(envFile, objectMapper, settings.getLong("envFlushIntervalMs", 2000L));
+
+                    HtmlReportGeneratorApi reportWriter = null;
+                    String reportError = null;
+                    AllureResultsWriter allure = null;
+                    JUnitXmlWriter junit = null;
+                    RunHistory history = null;
+                    RunHistory.Recorder historyRun = null;
+                    String comparisonFile = null;
+                    boolean completed = false;
+                    // Writers are closed even if a test escapes its own error handling, so env.json
+                    // stops being rewritten and no half-written report or .xml.part file is left
+                    try {
+                        // Bodies above the threshold are verified with the streaming matcher unless already parsed,
+                        // straight from the connection when nothing else needs the body
+                        int verifyMaxMismatches = settings.getInt("verifyMaxMismatches", 1);
+                        boolean createMissingPayloadKeys = settings.getBoolean("modifyPayloadCreateMissing", false);
+                        long streamingVerifyThreshold = settings.getLong("streamingVerifyThresholdBytes", 1024L * 1024L);
+                        // Full diff of a failed verification for the report, bounded in size and time
+                        int diffMaxEntries = settings.getInt("diffMaxEntries", 100);
+                        long diffTimeBudgetMs = settings.getLong("diffTimeBudgetMs", 200L);
+                        boolean reportResponseBodies = settings.getBoolean("reportResponseBodies", true);
+                        int schemaMaxViolations = settings.getInt("schemaMaxViolations", 100);
+
+                        // Rows are written to report.html as each test finishes, so nothing is held for the report
+                        reportWriter = HtmlReportGeneratorApi.fromSettings(settings);
+                        int totalTests = testsToRun.size();
+                        try {
+                            reportWriter.begin();
+                            reportWriter.setProgressListener(written -> updateMessage("Report: " + written + "/" + totalTests + " rows"));
+                        } catch (IOException ex) {
+                            reportError = ex.getMessage();
+                            reportWriter = null;
+                            System.err.println("Error starting HTML report: " + ex.getMessage());
                         }
-                        currentTimestamp = null; // Reset timestamp for each test
-                        Integer testId = Integer.parseInt(testCase.testIdProperty().get());
-                        int index = testCases.indexOf(testCase);
-                        Platform.runLater(() -> {
-                            testCase.statusProperty().set("Running...");
-                            table.getSelectionModel().clearAndSelect(index);
-                            double rowHeight = 30.0;
-                            double headerHeight = 24.0;
-                            double visibleHeight = table.getHeight() - headerHeight;
-                            int visibleRowCount = (int) Math.floor(visibleHeight / rowHeight);
-                            ScrollBar verticalScrollBar = getVerticalScrollBar();
-                            double scrollValue = verticalScrollBar != null && verticalScrollBar.isVisible() ?
-                                verticalScrollBar.getValue() : lastScrollPosition;
-                            int totalRows = testCases.size();
-                            int firstVisibleIndex = totalRows > 0 ?
-                                (int) Math.round(scrollValue * (totalRows - visibleRowCount)) : 0;
-                            if (firstVisibleIndex < 0) firstVisibleIndex = 0;
-                            int lastVisibleIndex = firstVisibleIndex + visibleRowCount - 1;
-                            if (index < firstVisibleIndex || index > lastVisibleIndex) {
-                                table.scrollTo(index);
-                                if (verticalScrollBar != null && verticalScrollBar.isVisible()) {
-                                    lastScrollPosition = verticalScrollBar.getValue();
-                                }
+                        // Allure results are written alongside, one file per finished test
+                        allure = AllureResultsWriter.fromSettings(settings, "api", lastLoadedFile, objectMapper);
+                        if (allure != null) {
+                            try {
+                                allure.start();
+                            } catch (IOException ex) {
+                                System.err.println("Warning: Allure results disabled for this run: " + ex.getMessage());
+                                allure = null;
                             }
-                            table.requestFocus();
-                        });
-
-                        ApiExecutor.Auth auth = new ApiExecutor.Auth("NONE", null, null, null);
-                        String sslValidationStr = null;
-                        String proxyValidationStr = null;
-                        HashMap<String, Object> testData = testDataMap.get(testId);
-                        String method = (String) testData.get("Request");
-                        String url = (String) testData.get("End-Point");
-                        String payload = (String) testData.get("Payload");
-                        String payloadType = (String) testData.get("Payload Type");
-                        String expectedStatusStr = (String) testData.get("Expected Status");
-                        String verifyResponse = (String) testData.get("Verify Response");
-                        sslValidationStr = (String) testData.get("SSL Validation");
-                        proxyValidationStr = (String) testData.get("Proxy");
-                        String modifiedPayload = payload;
-                        String processedVerifyResponse = null;
-                        StringBuilder captureIssues = new StringBuilder();
-
-                        Map<String, Object> reportData = new HashMap<>();
-                        reportData.put("testId", testId.toString());
-                        reportData.put("description", testCase.testDescriptionProperty().get());
-                        reportData.put("request", method);
-
-                        long responseTimeMs = 0L;
-                        String originalPayload = null;
-                        String originalVerifyResponse = null;
-
+                        }
                         try {
-                            System.out.println("Debug: Starting processing for Test ID " + testId);
-                            HashMap<String, Object> headers = headersMap.get(testId);
-                            HashMap<String, Object> params = paramsMap.get(testId);
-                            HashMap<String, Object> modifyPayload = modifyPayloadMap.get(testId);
-                            HashMap<String, Object> authDetails = authMap.get(testId);
-                            HashMap<String, Object> responseCapture = responseCaptureMap.get(testId);
-
-                            System.out.println("Debug: Replacing placeholders in URL for Test ID " + testId);
-                            String processedUrl = replacePlaceholders(url, envVars, testId);
-                            testData.put("End-Point", processedUrl);
-                            reportData.put("endpoint", processedUrl);
-
-                            System.out.println("Debug: Processing headers for Test ID " + testId);
-                            HashMap<String, Object> processedHeaders = new HashMap<>();
-                            for (Map.Entry<String, Object> entry : headers.entrySet()) {
-                                String headerKey = entry.getKey();
-                                String headerValue = entry.getValue() != null ? entry.getValue().toString() : "";
-                                String processedValue = replacePlaceholders(headerValue, envVars, testId);
-                                processedHeaders.put(headerKey, processedValue);
-                            }
-                            headersMap.put(testId, processedHeaders);
-                            reportData.put("headers", processedHeaders);
-
-                            System.out.println("Debug: Processing parameters for Test ID " + testId);
-                            HashMap<String, Object> processedParams = new HashMap<>();
-                            for (Map.Entry<String, Object> entry : params.entrySet()) {
-                                String paramKey = entry.getKey();
-                                String paramValue = entry.getValue() != null ? entry.getValue().toString() : "";
-                                String processedValue = replacePlaceholders(paramValue, envVars, testId);
-                                processedParams.put(paramKey, processedValue);
+                            junit = JUnitXmlWriter.fromSettings(settings, "api");
+                        } catch (IOException ex) {
+                            System.err.println("Warning: JUnit results disabled for this run: " + ex.getMessage());
+                        }
+                        String suiteName = lastLoadedFile != null ? lastLoadedFile.getName().replaceFirst("\\.[^.]+$", "") : "api";
+                        // Per-test timings are kept for run-over-run latency comparison
+                        history = RunHistory.fromSettings(settings, "api");
+                        if (history != null) {
+                            try {
+                                historyRun = history.startRun(suiteName);
+                            } catch (IOException ex) {
+                                System.err.println("Warning: Run history disabled for this run: " + ex.getMessage());
                             }
-                            paramsMap.put(testId, processedParams);
-                            reportData.put("parameters", processedParams);
-
-                            System.out.println("Debug: Processing modify payload for Test ID " + testId);
-                            HashMap<String, Object> processedModifyPayload = new HashMap<>();
-                            for (Map.Entry<String, Object> entry : modifyPayload.entrySet()) {
-                                String modifyKey = entry.getKey();
-                                String modifyValue = entry.getValue() != null ? entry.getValue().toString() : "";
-                                String processedValue = replacePlaceholders(modifyValue, envVars, testId);
-                                processedModifyPayload.put(modifyKey, processedValue);
+                        }
+
+                        dynamicValues = DynamicValues.fromSettings(settings);
+                        dynamicValues.prefill(collectDynamicExpressions(envScopes.getSuiteValues()));
+
+                        for (TestCase testCase : testsToRun) {
+                            if (isCancelled()) {
+                                break;
                             }
-                            modifyPayloadMap.put(testId, processedModifyPayload);
-                            System.out.println("Debug: Processed modify payload for Test ID " + testId + ": " + processedModifyPayload);
-
-                            modifiedPayload = payload;
-                            String lowerPayloadType = payloadType != null ? payloadType.toLowerCase() : "";
-                            boolean isJsonPayload = "json".equals(lowerPayloadType);
-                            if (payload != null && !payload.trim().isEmpty()) {
-                                System.out.println("Debug: Replacing placeholders in payload for Test ID " + testId);
-                                modifiedPayload = replacePlaceholders(payload, envVars, testId);
-                                originalPayload = modifiedPayload;
-                                if (isJsonPayload) {
-                                    modifiedPayload = postProcessForJson(modifiedPayload);
-                                    try {
-                                        objectMapper.readTree(modifiedPayload);
-                                    } catch (JsonProcessingException ex) {
-                                        throw new Exception("Invalid JSON in payload for Test ID " + testId + ": " + ex.getMessage());
+                            EnvironmentScopes.Test envVars = envWorker.beginTest(); // Fresh overlay and timestamp for each test
+                            Integer testId = Integer.parseInt(testCase.testIdProperty().get());
+                            Platform.runLater(() -> {
+                                testCase.statusProperty().set("Running...");
+                                int index = table.getItems().indexOf(testCase);
+                                if (index < 0) {
+                                    return; // Row is hidden by the current filter
+                                }
+                                table.getSelectionModel().clearAndSelect(index);
+                                double rowHeight = 30.0;
+                                double headerHeight = 24.0;
+                                double visibleHeight = table.getHeight() - headerHeight;
+                                int visibleRowCount = (int) Math.floor(visibleHeight / rowHeight);
+                                ScrollBar verticalScrollBar = getVerticalScrollBar();
+                                double scrollValue = verticalScrollBar != null && verticalScrollBar.isVisible() ?
+                                    verticalScrollBar.getValue() : lastScrollPosition;
+                                int totalRows = table.getItems().size();
+                                int firstVisibleIndex = totalRows > 0 ?
+                                    (int) Math.round(scrollValue * (totalRows - visibleRowCount)) : 0;
+                                if (firstVisibleIndex < 0) firstVisibleIndex = 0;
+                                int lastVisibleIndex = firstVisibleIndex + visibleRowCount - 1;
+                                if (index < firstVisibleIndex || index > lastVisibleIndex) {
+                                    table.scrollTo(index);
+                                    if (verticalScrollBar != null && verticalScrollBar.isVisible()) {
+                                        lastScrollPosition = verticalScrollBar.getValue();
                                     }
-                                    if (!processedModifyPayload.isEmpty()) {
-                                        System.out.println("Debug: Parsing and modifying payload for Test ID " + testId);
-                                        Map<String, Object> payloadObj = objectMapper.readValue(modifiedPayload, HashMap.class);
-                                        System.out.println("Debug: Original JSON payload for Test ID " + testId + ": " + objectMapper.writeValueAsString(payloadObj));
-                                        for (Map.Entry<String, Object> entry : processedModifyPayload.entrySet()) {
-                                            String key = entry.getKey();
-                                            String value = entry.getValue() != null ? entry.getValue().toString() : "";
-                                            System.out.println("Debug: Attempting to set key '" + key + "' to value '" + value + "' for Test ID " + testId);
-                                            boolean success = setNestedValue(payloadObj, key, value, testId);
-                                            if (!success) {
-                                                System.err.println("Warning: Unable to set key '" + key + "' in payload for Test ID " + testId);
-                                            } else {
-                                                System.out.println("Debug: Successfully set key '" + key + "' to value '" + value + "' for Test ID " + testId);
+                                }
+                                table.requestFocus();
+                            });
+
+                            ApiExecutor.Auth auth = new ApiExecutor.Auth("NONE", null, null, null);
+                            String sslValidationStr = null;
+                            String proxyValidationStr = null;
+                            HashMap<String, Object> testData = testDataMap.get(testId);
+                            String method = (String) testData.get("Request");
+                            String url = (String) testData.get("End-Point");
+                            String payload = (String) testData.get("Payload");
+                            String payloadType = (String) testData.get("Payload Type");
+                            String expectedStatusStr = (String) testData.get("Expected Status");
+                            String verifyResponse = (String) testData.get("Verify Response");
+                            sslValidationStr = (String) testData.get("SSL Validation");
+                            proxyValidationStr = (String) testData.get("Proxy");
+                            String modifiedPayload = payload;
+                            String processedVerifyResponse = null;
+                            StringBuilder captureIssues = new StringBuilder();
+
+                            Map<String, Object> reportData = new HashMap<>();
+                            reportData.put("testId", testId.toString());
+                            reportData.put("description", testCase.testDescriptionProperty().get());
+                            reportData.put("request", method);
+                            reportData.put("endpointTemplate", url); // History groups by endpoint before placeholders
+                            long testStartMs = System.currentTimeMillis();
+
+                            long responseTimeMs = 0L;
+                            String originalPayload = null;
+                            String originalVerifyResponse = null;
+
+                            try {
+                                System.out.println("Debug: Starting processing for Test ID " + testId);
+                                HashMap<String, Object> headers = headersMap.get(testId);
+                                HashMap<String, Object> params = paramsMap.get(testId);
+                                HashMap<String, Object> modifyPayload = modifyPayloadMap.get(testId);
+                                HashMap<String, Object> authDetails = authMap.get(testId);
+                                HashMap<String, Object> responseCapture = responseCaptureMap.get(testId);
+
+                                System.out.println("Debug: Replacing placeholders in URL for Test ID " + testId);
+                                String processedUrl = replacePlaceholders(url, envVars, testId);
+                                testData.put("End-Point", processedUrl);
+                                reportData.put("endpoint", processedUrl);
+
+                                System.out.println("Debug: Processing headers for Test ID " + testId);
+                                HashMap<String, Object> processedHeaders = new HashMap<>();
+                                for (Map.Entry<String, Object> entry : headers.entrySet()) {
+                                    String headerKey = entry.getKey();
+                                    String headerValue = entry.getValue() != null ? entry.getValue().toString() : "";
+                                    String processedValue = replacePlaceholders(headerValue, envVars, testId);
+                                    processedHeaders.put(headerKey, processedValue);
+                                }
+                                headersMap.put(testId, processedHeaders);
+                                reportData.put("headers", processedHeaders);
+
+                                System.out.println("Debug: Processing parameters for Test ID " + testId);
+                                HashMap<String, Object> processedParams = new HashMap<>();
+                                for (Map.Entry<String, Object> entry : params.entrySet()) {
+                                    String paramKey = entry.getKey();
+                                    String paramValue = entry.getValue() != null ? entry.getValue().toString() : "";
+                                    String processedValue = replacePlaceholders(paramValue, envVars, testId);
+                                    processedParams.put(paramKey, processedValue);
+                                }
+                                paramsMap.put(testId, processedParams);
+                                reportData.put("parameters", processedParams);
+
+                                System.out.println("Debug: Processing modify payload for Test ID " + testId);
+                                HashMap<String, Object> processedModifyPayload = new HashMap<>();
+                                for (Map.Entry<String, Object> entry : modifyPayload.entrySet()) {
+                                    String modifyKey = entry.getKey();
+                                    String modifyValue = entry.getValue() != null ? entry.getValue().toString() : "";
+                                    String processedValue = replacePlaceholders(modifyValue, envVars, testId);
+                                    processedModifyPayload.put(modifyKey, processedValue);
+                                }
+                                modifyPayloadMap.put(testId, processedModifyPayload);
+                                System.out.println("Debug: Processed modify payload for Test ID " + testId + ": " + processedModifyPayload);
+
+                                modifiedPayload = payload;
+                                String lowerPayloadType = payloadType != null ? payloadType.toLowerCase() : "";
+                                boolean isJsonPayload = "json".equals(lowerPayloadType);
+                                if (payload != null && !payload.trim().isEmpty()) {
+                                    System.out.println("Debug: Replacing placeholders in payload for Test ID " + testId);
+                                    modifiedPayload = replacePlaceholders(payload, envVars, testId);
+                                    originalPayload = modifiedPayload;
+                                    if (isJsonPayload) {
+                                        modifiedPayload = postProcessForJson(modifiedPayload);
+                                        JsonNode payloadTree;
+                                        try {
+                                            payloadTree = JsonSupport.TREE_READER.readValue(modifiedPayload);
+                                        } catch (JsonProcessingException ex) {
+                                            throw new Exception("Invalid JSON in payload for Test ID " + testId + ": " + ex.getMessage());
+                                        }
+                                        if (!processedModifyPayload.isEmpty()) {
+                                            if (!payloadTree.isContainerNode()) {
+                                                throw new Exception("Cannot modify payload for Test ID " + testId + ": payload is not a JSON object or array");
                                             }
+                                            System.out.println("Debug: Modifying payload tree for Test ID " + testId);
+                                            for (Map.Entry<String, Object> entry : processedModifyPayload.entrySet()) {
+                                                String key = entry.getKey();
+                                                String value = entry.getValue() != null ? entry.getValue().toString() : "";
+                                                MutationPath.Status status;
+                                                try {
+                                                    status = compileMutation(key).apply(payloadTree, value, createMissingPayloadKeys);
+                                                } catch (IllegalArgumentException ex) {
+                                                    System.err.println("Warning: Invalid payload path '" + key + "' for Test ID " + testId + ": " + ex.getMessage());
+                                                    continue;
+                                                }
+                                                switch (status) {
+                                                    case MISSING -> System.err.println("Warning: Unable to set key '" + key + "' in payload for Test ID " + testId + ": path not found");
+                                                    case NOT_A_CONTAINER -> System.err.println("Warning: Unable to set key '" + key + "' in payload for Test ID " + testId + ": path goes through a value that is not an object or array");
+                                                    default -> System.out.println("Debug: " + status + " key '" + key + "' to value '" + value + "' for Test ID " + testId);
+                                                }
+                                            }
+                                            modifiedPayload = JsonSupport.MAPPER.writeValueAsString(payloadTree);
+                                            System.out.println("Debug: Modified JSON payload for Test ID " + testId + ": " + modifiedPayload);
+                                        } else {
+                                            System.out.println("Debug: No payload modification needed for Test ID " + testId);
                                         }
-                                        modifiedPayload = objectMapper.writeValueAsString(payloadObj);
-                                        System.out.println("Debug: Modified JSON payload for Test ID " + testId + ": " + modifiedPayload);
+                                    } else if ("xml".equals(lowerPayloadType) && !processedModifyPayload.isEmpty()) {
+                                        modifiedPayload = modifyXmlPayload(modifiedPayload, processedModifyPayload, testId);
                                     } else {
-                                        System.out.println("Debug: No payload modification needed for Test ID " + testId);
+                                        System.out.println("Debug: Skipping JSON-specific processing for non-JSON payload type '" + lowerPayloadType + "' for Test ID " + testId);
                                     }
                                 } else {
-                                    System.out.println("Debug: Skipping JSON-specific processing for non-JSON payload type '" + lowerPayloadType + "' for Test ID " + testId);
+                                    System.out.println("Debug: No payload to process for Test ID " + testId);
+                                    originalPayload = modifiedPayload;
                                 }
-                            } else {
-                                System.out.println("Debug: No payload to process for Test ID " + testId);
-                                originalPayload = modifiedPayload;
-                            }
-                            testData.put("Payload", modifiedPayload);
-                            reportData.put("payload", originalPayload != null ? originalPayload : modifiedPayload);
-                            reportData.put("payloadType", payloadType);
-
-                            System.out.println("Debug: Processing authorization for Test ID " + testId);
-                            HashMap<String, Object> processedAuthDetails = new HashMap<>();
-                            processedAuthDetails.put("Type", authDetails.get("Type"));
-                            for (Map.Entry<String, Object> entry : authDetails.entrySet()) {
-                                String key = entry.getKey();
-                                if (key.equals("Username") || key.equals("Password") || key.equals("Token")) {
-                                    String value = entry.getValue() != null ? entry.getValue().toString() : "";
-                                    String processedValue = replacePlaceholders(value, envVars, testId);
-                                    processedAuthDetails.put(key, processedValue);
+                                testData.put("Payload", modifiedPayload);
+                                reportData.put("payload", originalPayload != null ? originalPayload : modifiedPayload);
+                                reportData.put("payloadType", payloadType);
+
+                                System.out.println("Debug: Processing authorization for Test ID " + testId);
+                                HashMap<String, Object> processedAuthDetails = new HashMap<>();
+                                processedAuthDetails.put("Type", authDetails.get("Type"));
+                                for (Map.Entry<String, Object> entry : authDetails.entrySet()) {
+                                    String key = entry.getKey();
+                                    if (key.equals("Username") || key.equals("Password") || key.equals("Token")) {
+                                        String value = entry.getValue() != null ? entry.getValue().toString() : "";
+                                        String processedValue = replacePlaceholders(value, envVars, testId);
+                                        processedAuthDetails.put(key, processedValue);
+                                    }
+                                }
+                                authMap.put(testId, processedAuthDetails);
+                                reportData.put("authentication", processedAuthDetails);
+                                String authType = (String) processedAuthDetails.get("Type");
+                                if (authType != null && !authType.equals("None")) {
+                                    String username = (String) processedAuthDetails.get("Username");
+                                    String password = (String) processedAuthDetails.get("Password");
+                                    String token = (String) processedAuthDetails.get("Token");
+                                    auth = new ApiExecutor.Auth(authType, username, password, token);
                                 }
-                            }
-                            authMap.put(testId, processedAuthDetails);
-                            reportData.put("authentication", processedAuthDetails);
-                            String authType = (String) processedAuthDetails.get("Type");
-                            if (authType != null && !authType.equals("None")) {
-                                String username = (String) processedAuthDetails.get("Username");
-                                String password = (String) processedAuthDetails.get("Password");
-                                String token = (String) processedAuthDetails.get("Token");
-                                auth = new ApiExecutor.Auth(authType, username, password, token);
-                            }
 
-                            System.out.println("Debug: Processing expected status for Test ID " + testId);
-                            String processedExpectedStatusStr = replacePlaceholders(expectedStatusStr, envVars, testId);
-                            testData.put("Expected Status", processedExpectedStatusStr);
-                            processedVerifyResponse = replacePlaceholders(verifyResponse, envVars, testId);
-                            originalVerifyResponse = processedVerifyResponse;
-                            if (processedVerifyResponse != null && !processedVerifyResponse.trim().isEmpty()) {
-                                processedVerifyResponse = postProcessForJson(processedVerifyResponse);
-                            }
-                            testData.put("Verify Response", processedVerifyResponse);
+                                System.out.println("Debug: Processing expected status for Test ID " + testId);
+                                String processedExpectedStatusStr = replacePlaceholders(expectedStatusStr, envVars, testId);
+                                testData.put("Expected Status", processedExpectedStatusStr);
+                                processedVerifyResponse = replacePlaceholders(verifyResponse, envVars, testId);
+                                originalVerifyResponse = processedVerifyResponse;
+                                if (processedVerifyResponse != null && !processedVerifyResponse.trim().isEmpty() && !XmlSupport.isXml(processedVerifyResponse)) {
+                                    processedVerifyResponse = postProcessForJson(processedVerifyResponse);
+                                }
+                                testData.put("Verify Response", processedVerifyResponse);
 
-                            //boolean sslValidation = sslValidationStr != null && sslValidationStr.equalsIgnoreCase("true");
+                                //boolean sslValidation = sslValidationStr != null && sslValidationStr.equalsIgnoreCase("true");
                            
-                            int expectedStatus;
-                            try {
-                                expectedStatus = processedExpectedStatusStr != null ?
-                                    Integer.parseInt(processedExpectedStatusStr) : 200;
-                            } catch (NumberFormatException e) {
-                                throw new IllegalArgumentException("Invalid Expected Status for Test ID " + testId +
-                                    ": " + (processedExpectedStatusStr != null ? processedExpectedStatusStr : "null") +
-                                    " (after placeholder replacement)", e);
-                            }
+                                int expectedStatus;
+                                try {
+                                    expectedStatus = processedExpectedStatusStr != null ?
+                                        Integer.parseInt(processedExpectedStatusStr) : 200;
+                                } catch (NumberFormatException e) {
+                                    throw new IllegalArgumentException("Invalid Expected Status for Test ID " + testId +
+                                        ": " + (processedExpectedStatusStr != null ? processedExpectedStatusStr : "null") +
+                                        " (after placeholder replacement)", e);
+                                }
                             
-                            String sslValue = (String) testDataMap.get(testId).get("SSL Validation");
-                            String proxyValue = (String) testDataMap.get(testId).get("Proxy");
+                                String sslValue = (String) testDataMap.get(testId).get("SSL Validation");
+                                String proxyValue = (String) testDataMap.get(testId).get("Proxy");
                             
-                            try (CloseableHttpClient client = createHttpClient(sslValue, proxyValue)) {
-                            	long startTime = System.nanoTime();
-                                ApiExecutor.Response response = apiExecutor.execute(
-                                    method,
-                                    processedUrl,
-                                    processedHeaders,
-                                    processedParams,
-                                    modifiedPayload,
-                                    payloadType,
-                                    auth,
-                                    client
-                                );
-                                
-                                long endTime = System.nanoTime();
-                                responseTimeMs = (endTime - startTime) / 1_000_000;
-                                System.out.println("Debug: Response time for Test ID " + testId + ": " + responseTimeMs + " ms");
-
-                                reportData.put("responseStatus", String.valueOf(response.getStatusCode()));
-                                reportData.put("responseBody", response.getBody());
-                                reportData.put("responseTimeMs", responseTimeMs);
-                                
-                                if (response.getStatusCode() != expectedStatus) {
-                                    throw new Exception("Status code mismatch for Test ID " + testId +
-                                        ": expected " + expectedStatus + ", got " + response.getStatusCode());
+                                List<String> bodyCapturePaths = new ArrayList<>();
+                                for (String capturePath : responseCapture.keySet()) {
+                                    if (capturePath != null && headerCaptureName(capturePath) == null) {
+                                        bodyCapturePaths.add(capturePath);
+                                    }
                                 }
-                                
-                                if (!responseCapture.isEmpty()) {
-                                    System.out.println("Debug: Starting response capture for Test ID " + testId);
-                                    Map<String, Object> responseObj;
+                                boolean readBody = reportResponseBodies || !bodyCapturePaths.isEmpty()
+                                    || (processedVerifyResponse != null && !processedVerifyResponse.trim().isEmpty())
+                                    || isPresent(testData.get("Assertions")) || isPresent(testData.get("Response Schema"));
+                                // A body needed only for JSON verification is matched as it downloads once it is large
+                                StreamedVerification streamedVerification = null;
+                                if (readBody && !reportResponseBodies && bodyCapturePaths.isEmpty()
+                                    && !isPresent(testData.get("Assertions")) && !isPresent(testData.get("Response Schema"))
+                                    && !XmlSupport.isXml(processedVerifyResponse)) {
                                     try {
-                                        responseObj = objectMapper.readValue(response.getBody(), HashMap.class);
-                                    } catch (Exception ex) {
-                                        captureIssues.append("Failed to parse response body as JSON for capture: ").append(ex.getMessage()).append(". ");
-                                        System.err.println("Error parsing response body for capture in Test ID " + testId + ": " + ex.getMessage());
-                                        throw new Exception("Failed to parse response body as JSON for capture in Test ID " + testId + ": " + ex.getMessage(), ex);
+                                        streamedVerification = new StreamedVerification(JsonMatcher.parseExpected(processedVerifyResponse),
+                                            verifyMaxMismatches, ArrayMatchRules.parse((String) testData.get("Array Match")));
+                                    } catch (JsonProcessingException | IllegalArgumentException e) {
+                                        // Reported by the verification below
                                     }
+                                }
 
-                                    int captureCount = 0;
-                                    Map<String, String> capturedValues = new HashMap<>();
-                                    for (Map.Entry<String, Object> entry : responseCapture.entrySet()) {
-                                        String responsePath = entry.getKey();
-                                        String envVarName = entry.getValue() != null ? entry.getValue().toString() : "";
-                                        if (responsePath == null || responsePath.trim().isEmpty() || envVarName == null || envVarName.trim().isEmpty()) {
-                                            captureIssues.append("Invalid response capture entry: path='").append(responsePath)
-                                                .append("', envVar='").append(envVarName).append("'. ");
-                                            System.err.println("Warning: Invalid response capture entry for Test ID " + testId + ": path='" + responsePath + "', envVar='" + envVarName + "'");
-                                            continue;
-                                        }
-                                        System.out.println("Debug: Attempting to capture value for path '" + responsePath + "' to env var '" + envVarName + "' for Test ID " + testId);
-                                        Object capturedValue = getNestedValue(responseObj, responsePath, testId);
-                                        if (capturedValue != null) {
-                                            String valueStr = capturedValue.toString();
-                                            String cleanedValue = valueStr.replaceAll("\\{\\{|}}", "");
-                                            if (!cleanedValue.equals(valueStr)) {
-                                                System.out.println("Debug: Removed braces from captured value '" + valueStr + "' to '" + cleanedValue + "' for env var '" + envVarName + "' in Test ID " + testId);
+                                try (CloseableHttpClient client = createHttpClient(sslValue, proxyValue)) {
+                                	long startTime = System.nanoTime();
+                                    ApiExecutor.Response response = apiExecutor.execute(
+                                        method,
+                                        processedUrl,
+                                        processedHeaders,
+                                        processedParams,
+                                        modifiedPayload,
+                                        payloadType,
+                                        auth,
+                                        client,
+                                        readBody,
+                                        streamingVerifyThreshold,
+                                        streamedVerification
+                                    );
+                                
+                                    long endTime = System.nanoTime();
+                                    responseTimeMs = (endTime - startTime) / 1_000_000;
+                                    System.out.println("Debug: Response time for Test ID " + testId + ": " + responseTimeMs + " ms");
+
+                                    reportData.put("responseStatus", String.valueOf(response.getStatusCode()));
+                                    reportData.put("responseBody", response.getBody());
+                                    reportData.put("responseBodySkipped", response.isBodySkipped());
+                                    reportData.put("responseBodyStreamed", response.isBodyStreamed());
+                                    reportData.put("responseDocument", response.getDocument());
+                                    reportData.put("responseTimeMs", responseTimeMs);
+                                    reportData.put("waitTimeMs", response.getWaitTimeMs());
+                                    reportData.put("downloadTimeMs", response.getDownloadTimeMs());
+                                
+                                    if (response.getStatusCode() != expectedStatus) {
+                                        throw new Exception("Status code mismatch for Test ID " + testId +
+                                            ": expected " + expectedStatus + ", got " + response.getStatusCode());
+                                    }
+                                
+                                    if (!responseCapture.isEmpty()) {
+                                        System.out.println("Debug: Starting response capture for Test ID " + testId);
+                                        JsonNode responseTree = null;
+                                        Map<String, String> xmlCaptures = null;
+                                        if (bodyCapturePaths.isEmpty()) {
+                                            System.out.println("Debug: Only header captures for Test ID " + testId + "; body not parsed");
+                                        } else if (XmlSupport.isXml(response.getBody())) {
+                                            xmlCaptures = captureXml(response.getBody(), bodyCapturePaths, captureIssues, testId);
+                                        } else {
+                                            try {
+                                                responseTree = response.getDocument().getTree();
+                                            } catch (Exception ex) {
+                                                captureIssues.append("Failed to parse response body as JSON for capture: ").append(ex.getMessage()).append(". ");
+                                                System.err.println("Error parsing response body for capture in Test ID " + testId + ": " + ex.getMessage());
+                                                throw new Exception("Failed to parse response body as JSON for capture in Test ID " + testId + ": " + ex.getMessage(), ex);
                                             }
-                                            if (cleanedValue.contains("{{") || cleanedValue.contains("}}")) {
-                                                captureIssues.append("Captured value for '").append(envVarName)
-                                                    .append("' contains invalid braces after cleaning: '").append(cleanedValue).append("'. ");
-                                                System.err.println("Warning: Captured value for env var '" + envVarName + "' in Test ID " + testId + " contains invalid braces after cleaning: '" + cleanedValue + "'");
+                                        }
+
+                                        int captureCount = 0;
+                                        Map<String, String> capturedValues = new HashMap<>();
+                                        for (Map.Entry<String, Object> entry : responseCapture.entrySet()) {
+                                            String responsePath = entry.getKey();
+                                            String envVarName = entry.getValue() != null ? entry.getValue().toString() : "";
+                                            if (responsePath == null || responsePath.trim().isEmpty() || envVarName == null || envVarName.trim().isEmpty()) {
+                                                captureIssues.append("Invalid response capture entry: path='").append(responsePath)
+                                                    .append("', envVar='").append(envVarName).append("'. ");
+                                                System.err.println("Warning: Invalid response capture entry for Test ID " + testId + ": path='" + responsePath + "', envVar='" + envVarName + "'");
                                                 continue;
                                             }
-                                            if (envVarName.contains("{{") || envVarName.contains("}}")) {
-                                                captureIssues.append("Environment variable name '").append(envVarName)
-                                                    .append("' contains invalid braces. ");
-                                                System.err.println("Warning: Environment variable name '" + envVarName + "' for Test ID " + testId + " contains invalid braces");
-                                                continue;
+                                            System.out.println("Debug: Attempting to capture value for path '" + responsePath + "' to env var '" + envVarName + "' for Test ID " + testId);
+                                            String valueStr;
+                                            String headerName = headerCaptureName(responsePath);
+                                            if (headerName != null) {
+                                                valueStr = response.getHeader(headerName);
+                                            } else if (xmlCaptures != null) {
+                                                valueStr = xmlCaptures.get(responsePath);
+                                            } else {
+                                                JsonNode capturedValue;
+                                                try {
+                                                    capturedValue = compilePath(responsePath).evaluate(responseTree);
+                                                } catch (IllegalArgumentException ex) {
+                                                    captureIssues.append("Invalid capture path '").append(responsePath).append("': ").append(ex.getMessage()).append(". ");
+                                                    System.err.println("Warning: Invalid capture path '" + responsePath + "' for Test ID " + testId + ": " + ex.getMessage());
+                                                    continue;
+                                                }
+                                                valueStr = capturedValue == null || capturedValue.isNull() ? null
+                                                    : capturedValue.isValueNode() ? capturedValue.asText() : capturedValue.toString();
                                             }
-                                            if (!cleanedValue.equals("{{null}}")) {
-                                                envVars.put(envVarName, cleanedValue);
-                                                capturedValues.put(envVarName, cleanedValue);
+                                            if (valueStr != null) {
+                                                String cleanedValue = valueStr.replaceAll("\\{\\{|}}", "");
+                                                if (!cleanedValue.equals(valueStr)) {
+                                                    System.out.println("Debug: Removed braces from captured value '" + valueStr + "' to '" + cleanedValue + "' for env var '" + envVarName + "' in Test ID " + testId);
+                                                }
+                                                if (cleanedValue.contains("{{") || cleanedValue.contains("}}")) {
+                                                    captureIssues.append("Captured value for '").append(envVarName)
+                                                        .append("' contains invalid braces after cleaning: '").append(cleanedValue).append("'. ");
+                                                    System.err.println("Warning: Captured value for env var '" + envVarName + "' in Test ID " + testId + " contains invalid braces after cleaning: '" + cleanedValue + "'");
+                                                    continue;
+                                                }
+                                                if (envVarName.contains("{{") || envVarName.contains("}}")) {
+                                                    captureIssues.append("Environment variable name '").append(envVarName)
+                                                        .append("' contains invalid braces. ");
+                                                    System.err.println("Warning: Environment variable name '" + envVarName + "' for Test ID " + testId + " contains invalid braces");
+                                                    continue;
+                                                }
+                                                if (!cleanedValue.equals("{{null}}")) {
+                                                    envVars.capture(envVarName, cleanedValue);
+                                                    capturedValues.put(envVarName, cleanedValue);
+                                                }
+                                                captureCount++;
+                                                captureIssues.append("Captured key '").append(responsePath)
+                                                    .append("' as env var '").append(envVarName).append("': ").append(cleanedValue).append(". ");
+                                                System.out.println("Debug: Captured value '" + cleanedValue + "' from path '" + responsePath + "' and saved to env var '" + envVarName + "' for Test ID " + testId);
+                                            } else {
+                                                captureIssues.append("Key '").append(responsePath)
+                                                    .append("' not found in response for env var '").append(envVarName).append("'. ");
+                                                System.err.println("Warning: No value found at path '" + responsePath + "' in response for Test ID " + testId);
                                             }
-                                            captureCount++;
-                                            captureIssues.append("Captured key '").append(responsePath)
-                                                .append("' as env var '").append(envVarName).append("': ").append(cleanedValue).append(". ");
-                                            System.out.println("Debug: Captured value '" + cleanedValue + "' from path '" + responsePath + "' and saved to env var '" + envVarName + "' for Test ID " + testId);
-                                        } else {
-                                            captureIssues.append("Key '").append(responsePath)
-                                                .append("' not found in response for env var '").append(envVarName).append("'. ");
-                                            System.err.println("Warning: No value found at path '" + responsePath + "' in response for Test ID " + testId);
                                         }
-                                    }
                                     
-                                    Map<String, String> envVarsToSave = new HashMap<>();
-                                    for (Map.Entry<String, String> entry : envVars.entrySet()) {
-                                        String value = entry.getValue();
-                                        if (!"{{null}}".equals(value)) {
-                                            envVarsToSave.put(entry.getKey(), value);
+                                        envVars.commit(); // Publish this test's captures to later tests
+
+                                        Map<String, String> envVarsToSave = new HashMap<>();
+                                        for (Map.Entry<String, String> entry : envScopes.snapshot().entrySet()) {
+                                            String value = entry.getValue();
+                                            if (!"{{null}}".equals(value)) {
+                                                envVarsToSave.put(entry.getKey(), value);
+                                            }
                                         }
-                                    }
-                                    for (Map.Entry<String, String> entry : originalEnvVars.entrySet()) {
-                                        if ("$timestamp".equals(entry.getValue()) || "$last-timestamp".equals(entry.getValue())) {
-                                            envVarsToSave.put(entry.getKey(), entry.getValue());
+                                        for (Map.Entry<String, String> entry : envScopes.getSuiteValues().entrySet()) {
+                                            if ("$timestamp".equals(entry.getValue()) || "$last-timestamp".equals(entry.getValue())) {
+                                                envVarsToSave.put(entry.getKey(), entry.getValue());
+                                            }
                                         }
-                                    }
                                     
-                                    try {
-                                        objectMapper.writerWithDefaultPrettyPrinter().writeValue(new FileOutputStream(envFile), envVarsToSave);
-                                        captureIssues.append("Successfully updated env.json with ").append(captureCount).append(" captured values. ");
-                                        System.out.println("Debug: Successfully updated env.json with " + captureCount + " captured values: " + capturedValues + " for Test ID " + testId);
-                                    } catch (IOException ex) {
-                                        captureIssues.append("Failed to save env.json: ").append(ex.getMessage()).append(". ");
-                                        System.err.println("Error writing to env.json for Test ID " + testId + ": " + ex.getMessage());
-                                        throw new Exception("Failed to write captured values to env.json for Test ID " + testId + ": " + ex.getMessage(), ex);
+                                        envStore.update(envVarsToSave); // Written behind, coalesced with other tests' captures
+                                        captureIssues.append("Queued env.json update with ").append(captureCount).append(" captured values. ");
+                                        System.out.println("Debug: Queued env.json update with " + captureCount + " captured values: " + capturedValues + " for Test ID " + testId);
+                                    } else {
+                                        captureIssues.append("No response capture defined. ");
+                                        System.out.println("Debug: No response capture entries defined for Test ID " + testId);
                                     }
-                                } else {
-                                    captureIssues.append("No response capture defined. ");
-                                    System.out.println("Debug: No response capture entries defined for Test ID " + testId);
-                                }
                                 
-                                reportData.put("captureIssues", captureIssues.toString());
+                                    reportData.put("captureIssues", captureIssues.toString());
 
-                                boolean verificationPassed = true;
-                                String finalVerifyResponse = processedVerifyResponse != null ? processedVerifyResponse : "";
+                                    boolean verificationPassed = true;
 
-                                if (processedVerifyResponse != null && !processedVerifyResponse.trim().isEmpty()) {
-                                    System.out.println("Debug: Verifying response for Test ID " + testId);
-                                    try {
-                                        finalVerifyResponse = processVerifyExpression(processedVerifyResponse, response.getBody(), testId);
-                                        Object actualJson = objectMapper.readValue(response.getBody(), Object.class);
-                                        Object expectedJson = objectMapper.readValue(finalVerifyResponse, Object.class);
-                                        compareJson(actualJson, expectedJson, "", testId);
-                                    } catch (Exception e) {
-                                        verificationPassed = false;
-                                        throw new Exception("Response verification failed for Test ID " + testId + ": " + e.getMessage(), e);
+                                    if (processedVerifyResponse != null && !processedVerifyResponse.trim().isEmpty()) {
+                                        System.out.println("Debug: Verifying response for Test ID " + testId);
+                                        if (XmlSupport.isXml(processedVerifyResponse)) {
+                                            verifyXml(processedVerifyResponse, response.getBody(), verifyMaxMismatches, testId);
+                                        } else {
+                                            JsonNode expectedJson;
+                                            ArrayMatchRules arrayRules;
+                                            JsonMatcher.Result matchResult;
+                                            try {
+                                                expectedJson = JsonMatcher.parseExpected(processedVerifyResponse);
+                                            } catch (JsonProcessingException e) {
+                                                verificationPassed = false;
+                                                throw new Exception("Response verification failed for Test ID " + testId + ": Invalid JSON in Verify Response: " + e.getOriginalMessage(), e);
+                                            }
+                                            try {
+                                                arrayRules = ArrayMatchRules.parse((String) testData.get("Array Match"));
+                                            } catch (IllegalArgumentException e) {
+                                                verificationPassed = false;
+                                                throw new Exception("Response verification failed for Test ID " + testId + ": " + e.getMessage(), e);
+                                            }
+                                            ResponseDocument document = response.getDocument();
+                                            try {
+                                                if (response.isBodyStreamed()) {
+                                                    System.out.println("Debug: Verified the response body while it downloaded for Test ID " + testId);
+                                                    matchResult = streamedVerification.getResult();
+                                                } else if (!document.isParsed() && document.getBody().length() > streamingVerifyThreshold) {
+                                                    System.out.println("Debug: Streaming verification of " + document.getBody().length() + " character body for Test ID " + testId);
+                                                    matchResult = new StreamingJsonMatcher(verifyMaxMismatches, arrayRules).match(expectedJson, document.getBody());
+                                                } else {
+                                                    matchResult = new JsonMatcher(verifyMaxMismatches, arrayRules).match(expectedJson, document.getTree());
+                                                }
+                                            } catch (IOException e) {
+                                                verificationPassed = false;
+                                                String reason = e instanceof JsonProcessingException ? ((JsonProcessingException) e).getOriginalMessage() : e.getMessage();
+                                                throw new Exception("Response verification failed for Test ID " + testId + ": Response body is not valid JSON: " + reason, e);
+                                            }
+                                            if (!matchResult.isMatched()) {
+                                                verificationPassed = false;
+                                                if (!response.isBodyStreamed()
+                                                    && (document.isParsed() || document.getBody().length() <= streamingVerifyThreshold)) {
+                                                    JsonDiff.Result diff = new JsonDiff(diffMaxEntries, diffTimeBudgetMs, arrayRules).diff(expectedJson, document.getTree());
+                                                    reportData.put("verifyDiff", diff.getOperations());
+                                                    if (diff.isTruncated()) {
+                                                        reportData.put("verifyDiffNote", "Diff stopped early: " + diff.getTruncationReason());
+                                                    }
+                                                    System.out.println("Debug: Collected " + diff.getOperations().size() + " differences for Test ID " + testId);
+                                                }
+                                                throw new Exception("Response verification failed for Test ID " + testId + ": " + matchResult.describe(testId));
+                                            }
+                                        }
                                     }
-                                }
                                 
-                                reportData.put("verifyResponse", originalVerifyResponse != null ? originalVerifyResponse : "");
-                                reportData.put("verificationPassed", verificationPassed);
+                                    reportData.put("verifyResponse", originalVerifyResponse != null ? originalVerifyResponse : "");
+                                    reportData.put("verificationPassed", verificationPassed);
+
+                                    String schemaRef = replacePlaceholders((String) testData.get("Response Schema"), envVars, testId);
+                                    if (schemaRef != null && !schemaRef.trim().isEmpty()) {
+                                        validateSchema(schemaRef, response.getDocument(), schemaMaxViolations, reportData, testId);
+                                    }
+
+                                    String assertionsText = replacePlaceholders((String) testData.get("Assertions"), envVars, testId);
+                                    if (assertionsText != null && !assertionsText.trim().isEmpty()) {
+                                        runAssertions(assertionsText, response.getDocument(), reportData, testId);
+                                    }
+
+                                    System.out.println("Test ID: " + testId);
+                                    System.out.println("Test Data: " + testData);
+                                    System.out.println("Headers: " + processedHeaders);
+                                    System.out.println("Parameters: " + processedParams);
+                                    System.out.println("Modified Payload: " + modifiedPayload);
+                                    System.out.println("Modify Payload Map: " + processedModifyPayload);
+                                    System.out.println("Response Capture: " + responseCapture);
+                                    System.out.println("Authorization: " + processedAuthDetails);
+                                    System.out.println("Expected Status: " + processedExpectedStatusStr);
+                                    System.out.println("Response Time (ms): " + responseTimeMs);
+                                    System.out.println("Response Body (Pretty JSON):\n" + ApiExecutor.toPrettyJson(response, streamingVerifyThreshold));
 
-                                System.out.println("Test ID: " + testId);
-                                System.out.println("Test Data: " + testData);
-                                System.out.println("Headers: " + processedHeaders);
-                                System.out.println("Parameters: " + processedParams);
-                                System.out.println("Modified Payload: " + modifiedPayload);
-                                System.out.println("Modify Payload Map: " + processedModifyPayload);
-                                System.out.println("Response Capture: " + responseCapture);
-                                System.out.println("Authorization: " + processedAuthDetails);
-                                System.out.println("Expected Status: " + processedExpectedStatusStr);
-                                System.out.println("Response Time (ms): " + responseTimeMs);
-                                System.out.println("Response Body (Pretty JSON):\n" + ApiExecutor.toPrettyJson(response));
-
-                                Platform.runLater(() -> {
-                                    testCase.statusProperty().set("Pass");
                                     reportData.put("status", "Pass");
                                     reportData.put("failureReason", "");
-                                    reportDataList.add(reportData);
-                                });
-                            }
+                                    reportError = writeReportRow(reportWriter, reportData, objectMapper, reportError);
+                                    if (allure != null) {
+                                        allure.writeApiResult(reportData, testStartMs, System.currentTimeMillis());
+                                    }
+                                    writeJUnitCase(junit, suiteName, reportData);
+                                    recordHistory(historyRun, reportData, System.currentTimeMillis() - testStartMs);
+                                    Platform.runLater(() -> testCase.statusProperty().set("Pass"));
+                                }
                           
-                        } catch (Exception ex) {
-                            String failureReason = ex.getMessage() != null ? ex.getMessage() : "Unknown error";
-                            System.err.println("Error executing Test ID " + testId + ": " + failureReason);
-                            ex.printStackTrace();
-                            reportData.put("captureIssues", captureIssues.toString());
-                            boolean verificationPassed = !failureReason.startsWith("Response verification failed");
-                            reportData.put("verificationPassed", verificationPassed);
-                            reportData.put("responseTimeMs", responseTimeMs);
-                            reportData.put("payload", originalPayload != null ? originalPayload : modifiedPayload);
-                            reportData.put("verifyResponse", originalVerifyResponse != null ? originalVerifyResponse : "");
-                            Platform.runLater(() -> {
-                                testCase.statusProperty().set("Fail");
+                            } catch (Exception ex) {
+                                String failureReason = ex.getMessage() != null ? ex.getMessage() : "Unknown error";
+                                System.err.println("Error executing Test ID " + testId + ": " + failureReason);
+                                ex.printStackTrace();
+                                reportData.put("captureIssues", captureIssues.toString());
+                                boolean verificationPassed = !failureReason.startsWith("Response verification failed");
+                                reportData.put("verificationPassed", verificationPassed);
+                                reportData.put("responseTimeMs", responseTimeMs);
+                                reportData.put("payload", originalPayload != null ? originalPayload : modifiedPayload);
+                                reportData.put("verifyResponse", originalVerifyResponse != null ? originalVerifyResponse : "");
                                 reportData.put("status", "Fail");
                                 reportData.put("failureReason", failureReason);
-                                reportDataList.add(reportData);
-                            });
+                                reportError = writeReportRow(reportWriter, reportData, objectMapper, reportError);
+                                if (allure != null) {
+                                    allure.writeApiResult(reportData, testStartMs, System.currentTimeMillis());
+                                }
+                                writeJUnitCase(junit, suiteName, reportData);
+                                recordHistory(historyRun, reportData, System.currentTimeMillis() - testStartMs);
+                                Platform.runLater(() -> testCase.statusProperty().set("Fail"));
+                            }
+                        }
+                        completed = true;
+                    } finally {
+                        try {
+                            envStore.close(); // Final flush of captured variables
+                        } catch (IOException ex) {
+                            System.err.println("Error writing to env.json at end of run: " + ex.getMessage());
+                            showError("Failed to write captured values to env.json: " + ex.getMessage());
+                        }
+
+                        if (reportWriter != null) {
+                            try {
+                                reportWriter.finish();
+                            } catch (IOException ex) {
+                                reportError = reportError != null ? reportError : ex.getMessage();
+                                System.err.println("Error finishing HTML report: " + ex.getMessage());
+                            }
+                        }
+                        if (allure != null) {
+                            allure.generateReportAsync();
+                        }
+                        if (junit != null) {
+                            try {
+                                junit.close();
+                            } catch (IOException ex) {
+                                System.err.println("Warning: Failed to complete JUnit results: " + ex.getMessage());
+                            }
+                        }
+                        if (historyRun != null) {
+                            try {
+                                historyRun.close();
+                                if (completed) {
+                                    comparisonFile = writeLatencyComparison(history, historyRun.getRun(), settings);
+                                }
+                            } catch (IOException ex) {
+                                System.err.println("Warning: Failed to compare with earlier runs: " + ex.getMessage());
+                            }
                         }
                     }
+                    String finalComparisonFile = comparisonFile;
+                    String finalReportError = reportError;
 
                     Platform.runLater(() -> {
                         runButton.setDisable(false);
@@ -1071,29 +1321,28 @@ public class RunApiTest extends Application {
                         updateRunButtonState();
 
                         try {
-                            HtmlReportGeneratorApi reportGenerator = new HtmlReportGeneratorApi();
-                            reportGenerator.generateReport(reportDataList, objectMapper);
-                            Alert alert = new Alert(Alert.AlertType.INFORMATION);
-                            alert.setTitle("Report Generated");
-                            alert.setHeaderText("HTML Report Created");
-                            alert.setContentText("Test execution report has been generated at 'report.html'.");
-                            alert.showAndWait();
-                        } catch (Exception e) {
-                            System.err.println("Error generating report: " + e.getMessage());
-                            Alert alert = new Alert(Alert.AlertType.ERROR);
-                            alert.setTitle("Error");
-                            alert.setHeaderText("Report Generation Failed");
-                            alert.setContentText("Failed to generate report: " + e.getMessage());
-                            alert.showAndWait();
+                            if (finalReportError == null) {
+                                Alert alert = new Alert(Alert.AlertType.INFORMATION);
+                                alert.setTitle("Report Generated");
+                                alert.setHeaderText("HTML Report Created");
+                                alert.setContentText("Test execution report has been generated at 'report.html'."
+                                    + (finalComparisonFile != null ? "\nLatency comparison with earlier runs: '" + finalComparisonFile + "'." : ""));
+                                alert.showAndWait();
+                            } else {
+                                System.err.println("Error generating report: " + finalReportError);
+                                Alert alert = new Alert(Alert.AlertType.ERROR);
+                                alert.setTitle("Error");
+                                alert.setHeaderText("Report Generation Failed");
+                                alert.setContentText("Failed to generate report: " + finalReportError);
+                                alert.showAndWait();
+                            }
                         } finally {
-                            reportDataList.clear();
                             testDataMap.clear();
                             headersMap.clear();
                             paramsMap.clear();
                             modifyPayloadMap.clear();
                             responseCaptureMap.clear();
                             authMap.clear();
-                            currentTimestamp = null;
                             updateComponentStates();
                             updateRunButtonState();
                             updateSelectAllState();
@@ -1102,6 +1351,7 @@ public class RunApiTest extends Application {
                     return null;
                 }
             };
+            reportProgressLabel.textProperty().bind(runTask.messageProperty());
             new Thread(runTask).start();
         });
 
@@ -1125,7 +1375,7 @@ public class RunApiTest extends Application {
         HBox leftButtons = new HBox(10, loadButton, refreshButton, testTypeLabel, testTypeField);
         leftButtons.setAlignment(Pos.CENTER_LEFT);
 
-        HBox rightButtons = new HBox(10, runButton, stopButton);
+        HBox rightButtons = new HBox(10, reportProgressLabel, runButton, stopButton);
         rightButtons.setAlignment(Pos.CENTER_RIGHT);
 
         Region spacer = new Region();
@@ -1237,6 +1487,9 @@ public class RunApiTest extends Application {
                         currentTestData.put("Verify Response", getCellValue(row, headerMap.get("Verify Response")));
                         currentTestData.put("SSL Validation", getCellValue(row, headerMap.get("SSL Validation")));
                         currentTestData.put("Proxy", getCellValue(row, headerMap.get("Proxy")));
+                        currentTestData.put("Array Match", getCellValue(row, headerMap.get("Array Match"))); // Optional column
+                        currentTestData.put("Assertions", getCellValue(row, headerMap.get("Assertions"))); // Optional column
+                        currentTestData.put("Response Schema", getCellValue(row, headerMap.get("Response Schema"))); // Optional column
                         
                         currentHeaders = new HashMap<>();
                         currentParams = new HashMap<>();
@@ -1267,6 +1520,7 @@ public class RunApiTest extends Application {
                     }
                 } else if (currentTestId != null) {
                     // Continuation row for current test
+                    appendLine(row, headerMap, "Assertions", currentTestData);
                     addMultiColumnData(row, headerMap, "Header (key)", "Header (value)", currentHeaders);
                     addMultiColumnData(row, headerMap, "Parameter (key)", "Parameter (value)", currentParams);
                     addMultiColumnData(row, headerMap, "Modify Payload (key)", "Modify Payload (value)", currentModifyPayload);
@@ -1284,6 +1538,7 @@ public class RunApiTest extends Application {
                 authMap.put(currentTestId, currentAuthDetails);
             }
 
+            precompileTemplates();
             System.out.println("Debug: Loaded selected test data for IDs: " + selectedIds);
         } catch (Exception e) {
             showError("Failed to load selected test data from test suite '" + testSuiteName + "': " + e.getMessage());
@@ -1299,35 +1554,48 @@ public class RunApiTest extends Application {
     }
 
     private void applyTestTypeFilter() {
-        String testType = testTypeField.getText().trim();
-        if (testType.isEmpty() || !testType.startsWith("@") || testType.length() <= 1) {
-            return; // do nothing
-        }
-        String filterStr = testType.substring(1).trim();
-        if (filterStr.isEmpty()) {
-            return;
-        }
-        // Check if any test cases match the filter
-        boolean anyMatch = false;
-        for (TestCase tc : testCases) {
-            String desc = tc.testDescriptionProperty().get() != null ? tc.testDescriptionProperty().get().toLowerCase() : "";
-            if (desc.contains(filterStr.toLowerCase())) {
-                anyMatch = true;
-                break;
-            }
-        }
-        if (!anyMatch) {
+        BitSet matches = evaluateTestTypeFilter(testTypeField.getText().trim());
+        if (matches == null || matches.isEmpty()) {
             return; // Do not apply filter or change selections
         }
         // Apply the filter
         for (TestCase tc : testCases) {
-            String desc = tc.testDescriptionProperty().get() != null ? tc.testDescriptionProperty().get().toLowerCase() : "";
-            boolean matches = desc.contains(filterStr.toLowerCase());
-            tc.runProperty().set(matches);
+            tc.runProperty().set(matches.get(tc.getPosition()));
         }
         updateRunButtonState();
     }
 
+    /**
+     * Restricts the visible rows to the tests matching the current tag expression.
+     * An empty or non-matching expression shows every test.
+     */
+    private void updateTableFilter() {
+        BitSet matches = evaluateTestTypeFilter(testTypeField.getText().trim());
+        if (matches == null || matches.isEmpty()) {
+            filteredTestCases.setPredicate(null);
+        } else {
+            filteredTestCases.setPredicate(tc -> matches.get(tc.getPosition()));
+        }
+    }
+
+    /**
+     * Evaluates a test type filter such as "@smoke and not @slow" against the tag index. Text
+     * that is not a valid expression matches the descriptions containing it, as before.
+     *
+     * @param testType The raw text of the test type field.
+     * @return The matching row positions, or null if the text does not start with "@".
+     */
+    private BitSet evaluateTestTypeFilter(String testType) {
+        if (testType == null || !testType.startsWith("@") || testType.length() <= 1) {
+            return null;
+        }
+        try {
+            return tagIndex.evaluate(testType);
+        } catch (IllegalArgumentException ex) {
+            return tagIndex.containing(testType.substring(1));
+        }
+    }
+
     private String postProcessForJson(String jsonStr) {
         if (jsonStr == null || !jsonStr.contains("{{null}}")) {
             return jsonStr;
@@ -1390,384 +1658,561 @@ public class RunApiTest extends Application {
         }
     }
 
-    private String processVerifyExpression(String verifyExpression, String actualResponseBody, Integer testId) throws Exception {
-        ObjectMapper mapper = new ObjectMapper();
-        Object actualJson = mapper.readValue(actualResponseBody, Object.class);
-        String tempVerifyExpression = verifyExpression;
-        Map<String, String> pathToValueMap = new HashMap<>();
-
-        if (verifyExpression != null && verifyExpression.contains("$any-value")) {
-            try {
-                tempVerifyExpression = verifyExpression
-                    .replaceAll("\\$any-value\\b(?=\\s*(,|\\}|\\]))", "\"_any_value_\"")
-                    .replaceAll("\"\\$any-value\"", "\"_any_value_\"");
-                Object expectedJsonForExtract = mapper.readValue(tempVerifyExpression, Object.class);
-                extractAnyValuePathsFromObject(expectedJsonForExtract, actualJson, pathToValueMap, "", testId);
-                tempVerifyExpression = replaceAnyValueWithActual(tempVerifyExpression, pathToValueMap, testId);
-            } catch (JsonProcessingException e) {
-                throw new Exception("Failed to parse verifyExpression with $any-value for Test ID " + testId + ": " + e.getMessage(), e);
-            } catch (Exception e) {
-                throw new Exception("Failed to process $any-value in verifyExpression for Test ID " + testId + ": " + e.getMessage(), e);
+    private ScrollBar getVerticalScrollBar() {
+        for (javafx.scene.Node node : table.lookupAll(".scroll-bar:vertical")) {
+            if (node instanceof ScrollBar) {
+                return (ScrollBar) node;
             }
         }
-        return tempVerifyExpression;
+        return null;
     }
 
-    private void extractAnyValuePathsFromObject(Object expected, Object actual, Map<String, String> pathToValueMap, String path, Integer testId) throws Exception {
-        if (expected instanceof Map) {
-            extractAnyValuePaths(expected, actual, pathToValueMap, path, testId);
-        } else if (expected instanceof List) {
-            extractAnyValuePaths(expected, actual, pathToValueMap, path, testId);
-        } else if (expected instanceof String && "_any_value_".equals(expected)) {
-            String formattedValue = formatJsonValue(actual, new ObjectMapper());
-            pathToValueMap.put(path, formattedValue);
-            System.out.println("Debug: Mapping path '" + path + "' to value '" + formattedValue + "' (type: " + (actual != null ? actual.getClass().getSimpleName() : "null") + ") for Test ID " + testId);
+    private String replacePlaceholders(String text, EnvironmentScopes.Test envVars, Integer testId) {
+        if (text == null || !text.contains("{{")) {
+            return text;
+        }
+
+        try {
+            PlaceholderTemplate template = compiledTemplates.computeIfAbsent(text, PlaceholderTemplate::compile);
+            return template.render(placeholder -> resolvePlaceholder(placeholder, envVars, testId));
+        } catch (Exception e) {
+            System.err.println("Error replacing placeholders" + (testId != null ? " for Test ID " + testId : "") + ": " + e.getMessage());
+            return text;
         }
     }
 
-    private void extractAnyValuePaths(Object expected, Object actual, Map<String, String> pathToValueMap, String path, Integer testId) throws Exception {
-        if (expected instanceof Map && actual instanceof Map) {
-            Map<String, Object> expectedMap = (Map<String, Object>) expected;
-            Map<String, Object> actualMap = (Map<String, Object>) actual;
-            for (Map.Entry<String, Object> entry : expectedMap.entrySet()) {
-                String key = entry.getKey();
-                String newPath = path.isEmpty() ? key : path + "." + key;
-                if (actualMap.containsKey(key)) {
-                    extractAnyValuePathsFromObject(entry.getValue(), actualMap.get(key), pathToValueMap, newPath, testId);
-                }
+    /**
+     * Resolves a single {{placeholder}} against the environment, applying the
+     * $timestamp / $last-timestamp and {{null}} rules. An env.json generator value such as
+     * "$uuid" is generated once per test, so every reference in the test sees the same value;
+     * a generator written directly in a cell, such as {{$uuid}}, is fresh at each occurrence.
+     */
+    private String resolvePlaceholder(String placeholder, EnvironmentScopes.Test envVars, Integer testId) {
+        String replacement;
+        String val = envVars.get(placeholder);
+        if (!envVars.containsKey(placeholder) && dynamicValues.isGenerator(placeholder)) {
+            String generated = dynamicValues.generate(placeholder);
+            replacement = generated != null ? generated : "{{null}}";
+            System.out.println("Debug: Replaced dynamic placeholder '" + placeholder + "' with '" + replacement + "' for Test ID " + testId);
+        } else if (!envVars.containsKey(placeholder) || val == null || val.trim().isEmpty() || "null".equals(val)) {
+            replacement = "{{null}}";
+            envVars.put(placeholder, replacement);
+            System.out.println("Debug: Placeholder '" + placeholder + "' not found or null/empty/'null' in env.json for Test ID " + testId + ", replacing with '{{null}}' in the test scope");
+        } else if ("$timestamp".equals(val)) {
+            if (envVars.getCurrentTimestamp() == null) {
+                envVars.setCurrentTimestamp(DynamicValues.legacyTimestamp());
+                System.out.println("Debug: Generated new timestamp '" + envVars.getCurrentTimestamp() + "' for Test ID " + testId);
             }
-        } else if (expected instanceof List && actual instanceof List) {
-            List<Object> expectedList = (List<Object>) expected;
-            List<Object> actualList = (List<Object>) actual;
-            for (int i = 0; i < expectedList.size(); i++) {
-                String newPath = path + "[" + i + "]";
-                if (i < actualList.size()) {
-                    extractAnyValuePathsFromObject(expectedList.get(i), actualList.get(i), pathToValueMap, newPath, testId);
-                }
+            replacement = envVars.getCurrentTimestamp();
+            envVars.resolve(placeholder, replacement); // Kept for the rest of the run, like a capture
+            System.out.println("Debug: Replaced placeholder '" + placeholder + "' with timestamp value '" + replacement + "' for Test ID " + testId);
+        } else if ("$last-timestamp".equals(val)) {
+            if (envVars.getCurrentTimestamp() == null) {
+                replacement = "{{null}}";
+                System.out.println("Debug: Placeholder '" + placeholder + "' with $last-timestamp has no current timestamp available for Test ID " + testId + ", replacing with '{{null}}'");
+            } else {
+                replacement = envVars.getCurrentTimestamp();
+                System.out.println("Debug: Replaced placeholder '" + placeholder + "' with $last-timestamp value '" + replacement + "' for Test ID " + testId);
             }
+        } else if (dynamicValues.isGenerator(val)) {
+            String generated = dynamicValues.generate(val);
+            replacement = generated != null ? generated : "{{null}}";
+            envVars.put(placeholder, replacement); // Same value for the rest of this test
+            System.out.println("Debug: Replaced placeholder '" + placeholder + "' with dynamic value '" + replacement + "' (" + val + ") for Test ID " + testId);
         } else {
-            extractAnyValuePathsFromObject(expected, actual, pathToValueMap, path, testId);
+            replacement = val;
+            System.out.println("Debug: Replaced placeholder '" + placeholder + "' with value '" + val + "' for Test ID " + testId);
         }
+        return replacement;
     }
 
-    private String formatJsonValue(Object value, ObjectMapper mapper) throws Exception {
-        if (value instanceof String) {
-            return "\"" + value + "\"";
-        } else if (value instanceof Number || value instanceof Boolean || value == null) {
-            return String.valueOf(value);
-        } else {
-            return mapper.writeValueAsString(value);
+    /**
+     * Collects the generator expressions a run can hit: env.json values such as "$uuid"
+     * and placeholders such as {{$randomInt(1,10)}} in the compiled cells.
+     */
+    private Set<String> collectDynamicExpressions(Map<String, String> envVars) {
+        Set<String> expressions = new LinkedHashSet<>();
+        for (String value : envVars.values()) {
+            if (value != null && value.startsWith("$")) {
+                expressions.add(value);
+            }
         }
-    }
-
-    private String replaceAnyValueWithActual(String verifyExpression, Map<String, String> pathToValueMap, Integer testId) throws Exception {
-        ObjectMapper mapper = new ObjectMapper();
-        Object jsonObject;
-        try {
-            jsonObject = mapper.readValue(verifyExpression, Object.class);
-        } catch (JsonProcessingException e) {
-            throw new Exception("Failed to parse verifyExpression for replacement for Test ID " + testId + ": " + e.getMessage(), e);
+        for (PlaceholderTemplate template : compiledTemplates.values()) {
+            for (String name : template.variableNames()) {
+                if (name.startsWith("$") && !envVars.containsKey(name)) {
+                    expressions.add(name);
+                }
+            }
         }
-
-        Object modifiedJson = replaceAnyValueInJson(jsonObject, pathToValueMap, "", testId);
-        return mapper.writeValueAsString(modifiedJson);
+        return expressions;
     }
 
-    private Object replaceAnyValueInJson(Object jsonObject, Map<String, String> pathToValueMap, String path, Integer testId) throws Exception {
-        ObjectMapper mapper = new ObjectMapper();
-        if (jsonObject instanceof Map) {
-            Map<String, Object> jsonMap = (Map<String, Object>) jsonObject;
-            Map<String, Object> resultMap = new HashMap<>();
-            for (Map.Entry<String, Object> entry : jsonMap.entrySet()) {
-                String key = entry.getKey();
-                Object value = entry.getValue();
-                String newPath = path.isEmpty() ? key : path + "." + key;
-                if (value instanceof String && "_any_value_".equals(value)) {
-                    String actualValueStr = pathToValueMap.get(newPath);
-                    if (actualValueStr == null) {
-                        throw new Exception("No value mapped for path '" + newPath + "' in pathToValueMap for Test ID " + testId);
-                    }
-                    Object actualValue;
-                    try {
-                        actualValue = mapper.readValue(actualValueStr, Object.class);
-                    } catch (JsonProcessingException e) {
-                        actualValue = actualValueStr.replaceAll("^\"|\"$", "");
+    /**
+     * Compiles every cell of the selected tests into placeholder templates once,
+     * so the run loop only renders pre-parsed segments.
+     */
+    private void precompileTemplates() {
+        compiledTemplates.clear();
+        List<Map<Integer, HashMap<String, Object>>> sources = Arrays.asList(testDataMap, headersMap, paramsMap, modifyPayloadMap, authMap);
+        for (Map<Integer, HashMap<String, Object>> source : sources) {
+            for (HashMap<String, Object> cells : source.values()) {
+                if (cells == null) continue;
+                for (Object value : cells.values()) {
+                    if (value instanceof String && ((String) value).contains("{{")) {
+                        compiledTemplates.computeIfAbsent((String) value, PlaceholderTemplate::compile);
                     }
-                    System.out.println("Debug: Replacing _any_value_ at path '" + newPath + "' with value '" + actualValue + "' for Test ID " + testId);
-                    resultMap.put(key, actualValue);
-                } else {
-                    resultMap.put(key, replaceAnyValueInJson(value, pathToValueMap, newPath, testId));
                 }
             }
-            return resultMap;
-        } else if (jsonObject instanceof List) {
-            List<Object> jsonList = (List<Object>) jsonObject;
-            List<Object> resultList = new ArrayList<>();
-            for (int i = 0; i < jsonList.size(); i++) {
-                String newPath = path + "[" + i + "]";
-                Object value = jsonList.get(i);
-                if (value instanceof String && "_any_value_".equals(value)) {
-                    String actualValueStr = pathToValueMap.get(newPath);
-                    if (actualValueStr == null) {
-                        throw new Exception("No value mapped for path '" + newPath + "' in pathToValueMap for Test ID " + testId);
+        }
+        System.out.println("Debug: Precompiled " + compiledTemplates.size() + " placeholder templates");
+
+        // JSONPath captures and assertions are compiled once per suite; cells with placeholders are compiled on first use
+        compiledPaths.clear();
+        compiledAssertions.clear();
+        compiledMutations.clear();
+        compiledXmlPaths.clear();
+        for (Map.Entry<Integer, HashMap<String, Object>> modify : modifyPayloadMap.entrySet()) {
+            if (modify.getValue() == null) continue;
+            HashMap<String, Object> testData = testDataMap.get(modify.getKey());
+            boolean xmlPayload = testData != null && "xml".equalsIgnoreCase(String.valueOf(testData.get("Payload Type")).trim());
+            for (String path : modify.getValue().keySet()) {
+                try {
+                    if (xmlPayload) {
+                        compileXmlPath(path);
+                    } else {
+                        compileMutation(path);
                     }
-                    Object actualValue;
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Warning: Invalid payload path '" + path + "': " + e.getMessage());
+                }
+            }
+        }
+        for (HashMap<String, Object> capture : responseCaptureMap.values()) {
+            if (capture == null) continue;
+            for (String path : capture.keySet()) {
+                if (path == null || headerCaptureName(path) != null) continue;
+                try {
+                    compilePath(path);
+                } catch (IllegalArgumentException e) {
                     try {
-                        actualValue = mapper.readValue(actualValueStr, Object.class);
-                    } catch (JsonProcessingException e) {
-                        actualValue = actualValueStr.replaceAll("^\"|\"$", "");
+                        compileXmlPath(path); // XPath-style capture for XML responses
+                    } catch (IllegalArgumentException xmlError) {
+                        System.err.println("Warning: Invalid capture path '" + path + "': " + e.getMessage());
                     }
-                    System.out.println("Debug: Replacing _any_value_ at path '" + newPath + "' with value '" + actualValue + "' for Test ID " + testId);
-                    resultList.add(actualValue);
-                } else {
-                    resultList.add(replaceAnyValueInJson(value, pathToValueMap, newPath, testId));
                 }
             }
-            return resultList;
-        } else if (jsonObject instanceof String && "_any_value_".equals(jsonObject)) {
-            String actualValueStr = pathToValueMap.get(path);
-            if (actualValueStr == null) {
-                throw new Exception("No value mapped for path '" + path + "' in pathToValueMap for Test ID " + testId);
+        }
+        for (HashMap<String, Object> testData : testDataMap.values()) {
+            Object assertions = testData != null ? testData.get("Assertions") : null;
+            if (!(assertions instanceof String) || ((String) assertions).contains("{{")) continue;
+            for (String line : ((String) assertions).split("\\r?\\n")) {
+                if (line.trim().isEmpty()) continue;
+                try {
+                    compiledAssertions.computeIfAbsent(line.trim(), JsonAssertion::compile);
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Warning: Invalid assertion '" + line.trim() + "': " + e.getMessage());
+                }
             }
-            Object actualValue;
+        }
+        compiledSchemas.clear();
+        schemasByHash.clear();
+        for (HashMap<String, Object> testData : testDataMap.values()) {
+            Object schemaRef = testData != null ? testData.get("Response Schema") : null;
+            if (!(schemaRef instanceof String) || ((String) schemaRef).trim().isEmpty() || ((String) schemaRef).contains("{{")) continue;
             try {
-                actualValue = mapper.readValue(actualValueStr, Object.class);
-            } catch (JsonProcessingException e) {
-                actualValue = actualValueStr.replaceAll("^\"|\"$", "");
+                compileSchema((String) schemaRef);
+            } catch (Exception e) {
+                System.err.println("Warning: Invalid response schema '" + schemaRef + "': " + e.getMessage());
             }
-            System.out.println("Debug: Replacing _any_value_ at path '" + path + "' with value '" + actualValue + "' for Test ID " + testId);
-            return actualValue;
-        } else {
-            return jsonObject;
         }
+        System.out.println("Debug: Precompiled " + compiledPaths.size() + " capture paths, " + compiledAssertions.size() + " assertions, "
+            + compiledMutations.size() + " payload paths, " + schemasByHash.size() + " response schemas");
     }
 
-    private void compareJson(Object actual, Object expected, String path, Integer testId) throws Exception {
-        if (expected instanceof Map) {
-            if (!(actual instanceof Map)) {
-                throw new Exception("Type mismatch at path '" + path + "' for Test ID " + testId +
-                    ": expected Map, got " + actual.getClass().getSimpleName());
-            }
-            Map<String, Object> actualMap = (Map<String, Object>) actual;
-            Map<String, Object> expectedMap = (Map<String, Object>) expected;
-            for (Map.Entry<String, Object> entry : expectedMap.entrySet()) {
-                String key = entry.getKey();
-                Object expectedValue = entry.getValue();
-                String newPath = path.isEmpty() ? key : path + "." + key;
-                if (!actualMap.containsKey(key)) {
-                    throw new Exception("Key not found in response at path '" + newPath + "' for Test ID " + testId);
-                }
-                compareJson(actualMap.get(key), expectedValue, newPath, testId);
-            }
-            for (String actualKey : actualMap.keySet()) {
-                if (!expectedMap.containsKey(actualKey)) {
-                    String newPath = path.isEmpty() ? actualKey : path + "." + actualKey;
-                    throw new Exception("Unexpected extra key '" + actualKey + "' in response at path '" + newPath + "' for Test ID " + testId);
-                }
-            }
-        } else if (expected instanceof List) {
-            if (!(actual instanceof List)) {
-                throw new Exception("Type mismatch at path '" + path + "' for Test ID " + testId +
-                    ": expected List, got " + actual.getClass().getSimpleName());
-            }
-            List<Object> actualList = (List<Object>) actual;
-            List<Object> expectedList = (List<Object>) expected;
-            if (actualList.size() != expectedList.size()) {
-                throw new Exception("List size mismatch at path '" + path + "' for Test ID " + testId +
-                    ": expected " + expectedList.size() + ", got " + actualList.size());
-            }
-            for (int i = 0; i < expectedList.size(); i++) {
-                String newPath = path + "[" + i + "]";
-                compareJson(actualList.get(i), expectedList.get(i), newPath, testId);
+    private MutationPath compileMutation(String path) {
+        return compiledMutations.computeIfAbsent(path.trim(), MutationPath::compile);
+    }
+
+    /**
+     * Adds a finished test to the JUnit results, timed by its measured response time.
+     */
+    private void writeJUnitCase(JUnitXmlWriter junit, String suiteName, Map<String, Object> reportData) {
+        if (junit == null) {
+            return;
+        }
+        String description = Objects.toString(reportData.get("description"), "");
+        String name = reportData.get("testId") + (description.isEmpty() ? "" : " - " + description);
+        long timeMs = 0L;
+        try {
+            timeMs = Long.parseLong(String.valueOf(reportData.get("responseTimeMs")));
+        } catch (NumberFormatException ignored) {} // No response
+        String failure = "Pass".equalsIgnoreCase(String.valueOf(reportData.get("status"))) ? null : Objects.toString(reportData.get("failureReason"), "Failed");
+        try {
+            junit.addTestCase(suiteName, name, timeMs, failure);
+        } catch (IOException ex) {
+            System.err.println("Warning: Failed to write JUnit result for Test ID " + reportData.get("testId") + ": " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Adds a finished test's result and timings to the run history.
+     */
+    private void recordHistory(RunHistory.Recorder historyRun, Map<String, Object> reportData, long testTimeMs) {
+        if (historyRun == null) {
+            return;
+        }
+        try {
+            historyRun.record(new RunHistory.Sample(
+                String.valueOf(reportData.get("testId")),
+                Objects.toString(reportData.get("request"), ""),
+                Objects.toString(reportData.get("endpointTemplate"), ""),
+                "Pass".equalsIgnoreCase(String.valueOf(reportData.get("status"))),
+                Objects.toString(reportData.get("responseStatus"), ""),
+                toLong(reportData.get("responseTimeMs")),
+                toLong(reportData.get("waitTimeMs")),
+                toLong(reportData.get("downloadTimeMs")),
+                testTimeMs));
+        } catch (IOException ex) {
+            System.err.println("Warning: Failed to record run history for Test ID " + reportData.get("testId") + ": " + ex.getMessage());
+        }
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+
+    /**
+     * Compares a finished run with its baseline: the run named by "latencyBaselineRun", or the
+     * previous run of the same suite. Significance is judged against the baseline and the
+     * runs before it, "latencyBaselineRuns" (default 5) in all. Endpoint trends and flakiness
+     * cover the last "historyTrendRuns" (default 20) runs.
+     *
+     * @return The comparison file name, or null if there is no earlier run.
+     */
+    private String writeLatencyComparison(RunHistory history, RunHistory.RunInfo current, RunnerSettings settings) throws IOException {
+        List<RunHistory.RunInfo> earlier = new ArrayList<>(history.listRuns(current.suite));
+        earlier.removeIf(run -> run.runId.compareTo(current.runId) >= 0);
+        String baselineId = settings.getString("latencyBaselineRun", "");
+        RunHistory.RunInfo baseline;
+        if (!baselineId.isEmpty()) {
+            baseline = history.findRun(baselineId);
+            if (baseline == null) {
+                System.err.println("Warning: Baseline run " + baselineId + " not found; comparing with the previous run");
             }
         } else {
-            if (!Objects.equals(actual, expected)) {
-                throw new Exception("Value mismatch at path '" + path + "' for Test ID " + testId +
-                    ": expected '" + expected + "', got '" + actual + "'");
+            baseline = null;
+        }
+        if (baseline == null) {
+            if (earlier.isEmpty()) {
+                return null;
             }
+            baseline = earlier.get(earlier.size() - 1);
         }
-    }
-
-    private ScrollBar getVerticalScrollBar() {
-        for (javafx.scene.Node node : table.lookupAll(".scroll-bar:vertical")) {
-            if (node instanceof ScrollBar) {
-                return (ScrollBar) node;
+        int windowRuns = Math.max(1, settings.getInt("latencyBaselineRuns", 5));
+        String baselineRunId = baseline.runId;
+        List<RunHistory.RunInfo> window = new ArrayList<>();
+        for (RunHistory.RunInfo run : earlier) {
+            if (run.runId.compareTo(baselineRunId) <= 0) {
+                window.add(run);
             }
         }
-        return null;
+        if (window.isEmpty() || !window.get(window.size() - 1).runId.equals(baselineRunId)) {
+            window.add(baseline); // Baseline from another suite
+        }
+        window = window.subList(Math.max(0, window.size() - windowRuns), window.size());
+        Map<String, List<RunHistory.Sample>> baselineSamples = history.loadSamples(baseline);
+        Map<String, List<RunHistory.Sample>> windowSamples = new HashMap<>();
+        for (RunHistory.RunInfo run : window) {
+            Map<String, List<RunHistory.Sample>> samples = run == baseline ? baselineSamples : history.loadSamples(run);
+            samples.forEach((testId, list) -> windowSamples.computeIfAbsent(testId, k -> new ArrayList<>()).addAll(list));
+        }
+        Map<String, List<RunHistory.Sample>> currentSamples = history.loadSamples(current);
+        List<LatencyComparison.Row> rows = LatencyComparison.compare(baselineSamples, windowSamples, currentSamples,
+            settings.getLong("latencyMinDeltaMs", 25L));
+        int trendRuns = settings.getInt("historyTrendRuns", 20);
+        Map<String, List<RunHistory.TrendPoint>> trends = new HashMap<>();
+        Map<String, RunHistory.Flakiness> flakiness = new HashMap<>();
+        for (Map.Entry<String, List<RunHistory.Sample>> test : currentSamples.entrySet()) {
+            RunHistory.Sample sample = test.getValue().get(0);
+            trends.put(test.getKey(), history.latencyTrend(sample.method, sample.endpoint, trendRuns));
+            flakiness.put(test.getKey(), history.flakiness(current.suite, test.getKey(), trendRuns));
+        }
+        String fileName = "latency-comparison.html";
+        LatencyComparison.writeHtml(Paths.get(fileName), baseline, current, window.size(), rows, trends, flakiness);
+        System.out.println("Debug: Latency comparison with run " + baselineRunId + " written to " + Paths.get(fileName).toAbsolutePath());
+        return fileName;
     }
 
-    private String replacePlaceholders(String text, Map<String, String> envVars, Integer testId) {
-        if (text == null || !text.contains("{{")) {
-            return text;
+    /**
+     * Appends a finished test to the streaming report.
+     *
+     * @return The first report error so far, to show when the run ends.
+     */
+    private String writeReportRow(HtmlReportGeneratorApi reportWriter, Map<String, Object> reportData, ObjectMapper objectMapper, String reportError) {
+        if (reportWriter == null) {
+            return reportError;
         }
-
         try {
-            Pattern pattern = Pattern.compile("\\{\\{([^}]+)\\}\\}");
-            Matcher matcher = pattern.matcher(text);
-            StringBuffer modifiedText = new StringBuffer();
-
-            while (matcher.find()) {
-                String placeholder = matcher.group(1);
-                String replacement;
-                String val = envVars.get(placeholder);
-                if (!envVars.containsKey(placeholder) || val == null || val.trim().isEmpty() || "null".equals(val)) {
-                    replacement = "{{null}}";
-                    envVars.put(placeholder, replacement);
-                    System.out.println("Debug: Placeholder '" + placeholder + "' not found or null/empty/'null' in env.json for Test ID " + testId + ", replacing with '{{null}}' and updating hashmap");
-                } else {
-                    String value = envVars.get(placeholder);
-                    if ("$timestamp".equals(value)) {
-                        if (currentTimestamp == null) {
-                            SimpleDateFormat sdf = new SimpleDateFormat("MMddyyssSSS");
-                            currentTimestamp = sdf.format(new Date());
-                            System.out.println("Debug: Generated new timestamp '" + currentTimestamp + "' for Test ID " + testId);
-                        }
-                        replacement = currentTimestamp;
-                        envVars.put(placeholder, replacement); // Update envVars for consistency within this test
-                        System.out.println("Debug: Replaced placeholder '" + placeholder + "' with timestamp value '" + replacement + "' for Test ID " + testId);
-                    } else if ("$last-timestamp".equals(value)) {
-                        if (currentTimestamp == null) {
-                            replacement = "{{null}}";
-                            System.out.println("Debug: Placeholder '" + placeholder + "' with $last-timestamp has no current timestamp available for Test ID " + testId + ", replacing with '{{null}}'");
-                        } else {
-                            replacement = currentTimestamp;
-                            System.out.println("Debug: Replaced placeholder '" + placeholder + "' with $last-timestamp value '" + replacement + "' for Test ID " + testId);
-                        }
-                    } else {
-                        replacement = value;
-                        System.out.println("Debug: Replaced placeholder '" + placeholder + "' with value '" + value + "' for Test ID " + testId);
-                    }
-                }
-                matcher.appendReplacement(modifiedText, Matcher.quoteReplacement(replacement));
-            }
-            matcher.appendTail(modifiedText);
-            return modifiedText.toString();
-        } catch (Exception e) {
-            System.err.println("Error replacing placeholders" + (testId != null ? " for Test ID " + testId : "") + ": " + e.getMessage());
-            return text;
+            reportWriter.appendRow(reportData, objectMapper);
+        } catch (Exception ex) {
+            System.err.println("Error writing report row for Test ID " + reportData.get("testId") + ": " + ex.getMessage());
+            return reportError != null ? reportError : ex.getMessage();
         }
+        return reportError;
+    }
+
+    /**
+     * @return The header name of a "header:Name" capture path, or null for a body path.
+     */
+    private static String headerCaptureName(String capturePath) {
+        String path = capturePath.trim();
+        return path.regionMatches(true, 0, "header:", 0, 7) ? path.substring(7).trim() : null;
     }
 
-    private List<String> parseKeyPath(String key) {
-        List<String> parts = new ArrayList<>();
-        if (key == null || key.trim().isEmpty()) {
-            System.err.println("Error: Empty or invalid key path: " + key);
-            return parts;
+    private static boolean isPresent(Object cell) {
+        return cell instanceof String && !((String) cell).trim().isEmpty();
+    }
+
+    private XmlPath compileXmlPath(String path) {
+        return compiledXmlPaths.computeIfAbsent(path.trim(), XmlPath::compile);
+    }
+
+    /**
+     * Applies the Modify Payload entries of an XML test to its payload in one streaming pass.
+     * Keys are XPath-style paths; values replace element text or attribute values.
+     */
+    private String modifyXmlPayload(String payload, Map<String, Object> modifications, Integer testId) throws Exception {
+        Map<XmlPath, String> values = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : modifications.entrySet()) {
+            try {
+                values.put(compileXmlPath(entry.getKey()), entry.getValue() != null ? entry.getValue().toString() : "");
+            } catch (IllegalArgumentException ex) {
+                System.err.println("Warning: Invalid payload path '" + entry.getKey() + "' for Test ID " + testId + ": " + ex.getMessage());
+            }
+        }
+        Set<XmlPath> missed = new HashSet<>();
+        String modified;
+        try {
+            modified = XmlSupport.applyEdits(payload, values, missed);
+        } catch (XMLStreamException ex) {
+            throw new Exception("Invalid XML in payload for Test ID " + testId + ": " + ex.getMessage());
         }
+        for (XmlPath path : missed) {
+            System.err.println("Warning: Unable to set key '" + path + "' in payload for Test ID " + testId + ": path not found");
+        }
+        System.out.println("Debug: Modified XML payload for Test ID " + testId + ": " + modified);
+        return modified;
+    }
 
-        String[] split = key.split("\\.(?![^\\[]*\\])");
-        for (String part : split) {
-            part = part.trim();
-            if (!part.isEmpty()) {
-                parts.add(part);
+    /**
+     * Evaluates every capture path against an XML response in one streaming pass.
+     *
+     * @return Capture path -> value for the paths that matched.
+     */
+    private Map<String, String> captureXml(String body, List<String> capturePaths, StringBuilder captureIssues, Integer testId) throws Exception {
+        Map<String, XmlPath> compiled = new LinkedHashMap<>();
+        for (String capturePath : capturePaths) {
+            if (capturePath == null || capturePath.trim().isEmpty()) continue;
+            try {
+                compiled.put(capturePath, compileXmlPath(capturePath));
+            } catch (IllegalArgumentException ex) {
+                captureIssues.append("Invalid capture path '").append(capturePath).append("': ").append(ex.getMessage()).append(". ");
+                System.err.println("Warning: Invalid capture path '" + capturePath + "' for Test ID " + testId + ": " + ex.getMessage());
             }
         }
-        if (parts.isEmpty()) {
-            System.err.println("Error: Parsed key path is empty for key: " + key);
-        } else {
-            System.out.println("Debug: Parsed key path for '" + key + "': " + parts);
+        Map<XmlPath, String> found;
+        try {
+            found = XmlPath.selectFirst(body, new ArrayList<>(compiled.values()));
+        } catch (XMLStreamException ex) {
+            captureIssues.append("Failed to parse response body as XML for capture: ").append(ex.getMessage()).append(". ");
+            throw new Exception("Failed to parse response body as XML for capture in Test ID " + testId + ": " + ex.getMessage(), ex);
         }
-        return parts;
+        Map<String, String> values = new HashMap<>();
+        for (Map.Entry<String, XmlPath> entry : compiled.entrySet()) {
+            String value = found.get(entry.getValue());
+            if (value != null) {
+                values.put(entry.getKey(), value);
+            }
+        }
+        return values;
     }
 
-    private Object parseValue(String value, Object parent, String finalPart, Integer testId) {
-        Object existingValue = null;
-        if (parent instanceof Map) {
-            Map<String, Object> map = (Map<String, Object>) parent;
-            existingValue = map.get(finalPart);
+    /**
+     * JSON verification run on the response entity's stream while it downloads, for a large
+     * body that nothing else needs, so the body is never held as a String or a tree.
+     */
+    private static final class StreamedVerification implements ApiExecutor.BodyStreamHandler {
+        private final JsonNode expected;
+        private final StreamingJsonMatcher matcher;
+        private JsonMatcher.Result result;
+        private IOException error;
+
+        StreamedVerification(JsonNode expected, int maxMismatches, ArrayMatchRules arrayRules) {
+            this.expected = expected;
+            this.matcher = new StreamingJsonMatcher(maxMismatches, arrayRules);
         }
 
-        if (existingValue instanceof Number) {
+        @Override
+        public void handle(InputStream body) {
             try {
-                if (existingValue instanceof Integer || existingValue instanceof Long) {
-                    return Integer.parseInt(value);
-                } else if (existingValue instanceof Double || existingValue instanceof Float) {
-                    return Double.parseDouble(value);
-                }
-            } catch (NumberFormatException e) {
-                System.err.println("Warning: Failed to parse value '" + value + "' as number for Test ID " + testId + ", using string instead");
-            }
-        } else if (existingValue instanceof Boolean) {
-            if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")) {
-                return Boolean.parseBoolean(value);
-            } else {
-                System.err.println("Warning: Value '" + value + "' is not a boolean for Test ID " + testId + ", using string instead");
+                result = matcher.match(expected, body);
+            } catch (IOException e) {
+                error = e; // Reported as a verification failure, not as a failed request
             }
         }
 
-        return value;
+        /**
+         * @throws IOException If the body was not valid JSON or could not be read.
+         */
+        JsonMatcher.Result getResult() throws IOException {
+            if (error != null) {
+                throw error;
+            }
+            return result;
+        }
     }
 
-    private boolean setNestedValue(Map<String, Object> jsonObj, String key, String value, Integer testId) {
+    /**
+     * Verifies an XML or SOAP response against an expected XML document with the streaming matcher.
+     */
+    private void verifyXml(String expectedXml, String body, int maxMismatches, Integer testId) throws Exception {
+        JsonMatcher.Result result;
         try {
-            List<String> parts = parseKeyPath(key);
-            if (parts.isEmpty()) {
-                System.err.println("Error: Empty key path for '" + key + "' in Test ID " + testId);
-                return false;
-            }
-
-            System.out.println("Debug: Processing key path '" + key + "' with parts: " + parts + " for Test ID " + testId);
+            result = new XmlMatcher(maxMismatches).match(expectedXml, body);
+        } catch (XMLStreamException ex) {
+            throw new Exception("Response verification failed for Test ID " + testId + ": Invalid XML: " + ex.getMessage(), ex);
+        }
+        if (!result.isMatched()) {
+            throw new Exception("Response verification failed for Test ID " + testId + ": " + result.describe(testId));
+        }
+    }
 
-            Map<String, Object> current = jsonObj;
-            if (parts.size() > 1) {
-                for (int i = 0; i < parts.size() - 1; i++) {
-                    String part = parts.get(i);
-                    System.out.println("Debug: Traversing part '" + part + "' at index " + i + ", current object: " + new ObjectMapper().writeValueAsString(current));
+    private JsonPathExpression compilePath(String path) {
+        return compiledPaths.computeIfAbsent(path.trim(), JsonPathExpression::compile);
+    }
 
-                    if (!current.containsKey(part)) {
-                        System.err.println("Error: Key '" + part + "' not found in path '" + key + "' for Test ID " + testId);
-                        return false;
-                    }
-                    Object next = current.get(part);
-                    if (!(next instanceof Map)) {
-                        System.err.println("Error: Path '" + key + "' for Test ID " + testId + " is invalid: '" + part + "' is not a map");
-                        return false;
-                    }
-                    current = (Map<String, Object>) next;
-                    System.out.println("Debug: Navigated to key '" + part + "', current object: " + new ObjectMapper().writeValueAsString(current));
-                }
+    /**
+     * Returns the compiled schema for a Response Schema cell: inline JSON, or a file path resolved
+     * against the test suite's folder and then the working directory. Schemas are cached per cell
+     * for the suite; a cell is loaded and hashed once, and cells with the same schema text share
+     * one compiled schema.
+     */
+    private JsonSchema compileSchema(String schemaRef) throws IOException {
+        String ref = schemaRef.trim();
+        JsonSchema schema = compiledSchemas.get(ref);
+        if (schema != null) {
+            return schema;
+        }
+        boolean inline = ref.startsWith("{") || ref.equals("true") || ref.equals("false");
+        String text;
+        if (inline) {
+            text = ref;
+        } else {
+            File file = new File(ref);
+            if (!file.isAbsolute() && lastLoadedFile != null && new File(lastLoadedFile.getParentFile(), ref).exists()) {
+                file = new File(lastLoadedFile.getParentFile(), ref);
             }
-
-            String finalPart = parts.get(parts.size() - 1);
-            if (!current.containsKey(finalPart)) {
-                System.err.println("Error: Final key '" + finalPart + "' not found in path '" + key + "' for Test ID " + testId);
-                return false;
+            if (!file.exists()) {
+                throw new IOException("Schema file not found: " + file.getAbsolutePath());
             }
-            System.out.println("Debug: Setting final part '" + finalPart + "' in object: " + new ObjectMapper().writeValueAsString(current));
-            Object parsedValue = parseValue(value, current, finalPart, testId);
-            current.put(finalPart, parsedValue);
-            System.out.println("Debug: Updated key '" + finalPart + "' to value: " + parsedValue + " in map: " + new ObjectMapper().writeValueAsString(current));
-            System.out.println("Debug: Final JSON object after update: " + new ObjectMapper().writeValueAsString(jsonObj));
-            return true;
-        } catch (Exception e) {
-            System.err.println("Error setting nested value for key '" + key + "' in Test ID " + testId + ": " + e.getMessage());
-            return false;
+            text = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        }
+        String hash = JsonSchema.contentHash(text);
+        schema = schemasByHash.get(hash);
+        if (schema == null) {
+            schema = JsonSchema.compile(JsonSupport.TREE_READER.readValue(text));
+            schemasByHash.putIfAbsent(hash, schema);
+            System.out.println("Debug: Compiled response schema " + hash.substring(0, 12) + " from " + (inline ? "inline schema" : ref));
         }
+        compiledSchemas.putIfAbsent(ref, schema);
+        return schema;
     }
 
-    private Object getNestedValue(Map<String, Object> jsonObj, String key, Integer testId) {
-        List<String> parts = parseKeyPath(key);
-        if (parts.isEmpty()) {
-            System.err.println("Error: Empty key path for getNestedValue '" + key + "' in Test ID " + testId);
-            return null;
+    /**
+     * Validates the parsed response against the Response Schema and records every violation,
+     * with its schema path, for the report.
+     *
+     * @throws Exception If the schema cannot be loaded or the response does not conform.
+     */
+    private void validateSchema(String schemaRef, ResponseDocument document, int maxViolations, Map<String, Object> reportData, Integer testId) throws Exception {
+        JsonSchema schema;
+        try {
+            schema = compileSchema(schemaRef);
+        } catch (JsonProcessingException e) {
+            throw new Exception("Schema validation failed for Test ID " + testId + ": Invalid JSON in Response Schema: " + e.getOriginalMessage(), e);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new Exception("Schema validation failed for Test ID " + testId + ": " + e.getMessage(), e);
+        }
+        JsonNode tree;
+        try {
+            tree = document.getTree();
+        } catch (JsonProcessingException e) {
+            throw new Exception("Schema validation failed for Test ID " + testId + ": Response body is not valid JSON: " + e.getOriginalMessage(), e);
         }
+        JsonSchema.Result result = schema.validate(tree, maxViolations);
+        System.out.println("Debug: Schema validation found " + result.getViolations().size() + " violations for Test ID " + testId);
+        if (result.isValid()) {
+            return;
+        }
+        List<Map<String, Object>> violations = new ArrayList<>();
+        for (JsonSchema.Violation violation : result.getViolations()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("path", violation.getInstancePath());
+            entry.put("schemaPath", violation.getSchemaPath());
+            entry.put("message", violation.getMessage());
+            violations.add(entry);
+        }
+        reportData.put("schemaViolations", violations);
+        if (result.isTruncated()) {
+            reportData.put("schemaViolationsNote", "Validation stopped at " + maxViolations + " violations");
+        }
+        int count = result.getViolations().size();
+        throw new Exception("Schema validation failed for Test ID " + testId + ": " + count + (result.isTruncated() ? "+" : "")
+            + (count == 1 ? " violation" : " violations") + ", first at " + result.getViolations().get(0).describe());
+    }
 
-        Object current = jsonObj;
-        for (String part : parts) {
-            if (current instanceof Map) {
-                Map<String, Object> map = (Map<String, Object>) current;
-                if (!map.containsKey(part)) {
-                    System.err.println("Error: Key '" + part + "' not found in path '" + key + "' for Test ID " + testId);
-                    return null;
+    /**
+     * Evaluates every line of the Assertions cell against the parsed response and records the
+     * outcomes for the report.
+     *
+     * @throws Exception If an assertion is invalid or fails; the message lists every failure.
+     */
+    private void runAssertions(String assertionsText, ResponseDocument document, Map<String, Object> reportData, Integer testId) throws Exception {
+        JsonNode tree;
+        try {
+            tree = document.getTree();
+        } catch (JsonProcessingException e) {
+            throw new Exception("Assertion failed for Test ID " + testId + ": Response body is not valid JSON: " + e.getOriginalMessage(), e);
+        }
+        List<Map<String, Object>> results = new ArrayList<>();
+        StringBuilder failures = new StringBuilder();
+        for (String line : assertionsText.split("\\r?\\n")) {
+            String text = line.trim();
+            if (text.isEmpty()) {
+                continue;
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("assertion", text);
+            try {
+                JsonAssertion assertion = compiledAssertions.computeIfAbsent(text, JsonAssertion::compile);
+                JsonAssertion.Outcome outcome = assertion.evaluate(tree);
+                result.put("passed", outcome.isPassed());
+                result.put("actual", outcome.getActual());
+                if (!outcome.isPassed()) {
+                    failures.append(failures.length() > 0 ? "; " : "").append("'").append(text).append("', got ").append(outcome.getActual());
                 }
-                current = map.get(part);
-            } else {
-                System.err.println("Error: Path '" + key + "' for Test ID " + testId + " is invalid: '" + part + "' is not a map");
-                return null;
+            } catch (IllegalArgumentException e) {
+                result.put("passed", false);
+                result.put("actual", e.getMessage());
+                failures.append(failures.length() > 0 ? "; " : "").append("invalid assertion: ").append(e.getMessage());
             }
+            results.add(result);
+        }
+        reportData.put("assertionResults", results);
+        System.out.println("Debug: Evaluated " + results.size() + " assertions for Test ID " + testId);
+        if (failures.length() > 0) {
+            throw new Exception("Assertion failed for Test ID " + testId + ": " + failures);
         }
-        return current;
     }
 
     private void loadTestCases(Stage primaryStage, boolean promptForFile) {
@@ -1793,6 +2238,7 @@ public class RunApiTest extends Application {
                 }
 
                 testCases.clear();
+                tagIndex = TagIndex.build(Collections.emptyList());
                 testDataMap.clear();
                 headersMap.clear();
                 paramsMap.clear();
@@ -1814,10 +2260,15 @@ public class RunApiTest extends Application {
                     if (testIdStr != null && !testIdStr.trim().isEmpty()) {
                         Integer tempId = Integer.parseInt(testIdStr.trim());
                         String testDescription = getCellValue(row, headerMap.get("Test Description"));
-                        testCases.add(new TestCase(true, tempId.toString(), testDescription, "No Run"));
+                        testCases.add(new TestCase(true, tempId.toString(), testDescription, "No Run", testCases.size()));
                     }
                 }
 
+                tagIndex = TagIndex.build(testCases.stream()
+                    .map(tc -> tc.testDescriptionProperty().get())
+                    .collect(Collectors.toList()));
+                updateTableFilter();
+
                 lastLoadedFile = file;
                 System.out.println("Debug: Loaded test cases from '" + file.getAbsolutePath() + "'. Test cases count: " + testCases.size());
             } catch (Exception e) {
@@ -1836,6 +2287,14 @@ public class RunApiTest extends Application {
         }
     }
 
+    private void appendLine(Row row, Map<String, Integer> headerMap, String header, HashMap<String, Object> targetMap) {
+        String value = getCellValue(row, headerMap.get(header));
+        if (value != null && !value.trim().isEmpty()) {
+            Object existing = targetMap.get(header);
+            targetMap.put(header, existing != null && !existing.toString().trim().isEmpty() ? existing + "\n" + value : value);
+        }
+    }
+
     private void addResponseCaptureData(Row row, Map<String, Integer> headerMap, String keyHeader, String valueHeader, HashMap<String, Object> targetMap, Integer testId) {
         String key = getCellValue(row, headerMap.get(keyHeader));
         String value = getCellValue(row, headerMap.get(valueHeader));
@@ -0,0 +1,613 @@
+package com.test.window.gui;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local store of per-test results and timings of every run, for comparisons, trends and
+ * flakiness. It is a folder of two append-only files:
+ * <ul>
+ *   <li>"strings.txt", a dictionary: every test id, method, endpoint, suite and status is
+ *       stored once and referred to by its line number;</li>
+ *   <li>"results.bin", fixed-width {@value #ROW_BYTES}-byte rows, one per finished test,
+ *       appended as the test finishes.</li>
+ * </ul>
+ * On first use the rows are scanned once (memory-mapped) into in-memory indexes: row numbers by
+ * suite and test id, by method and endpoint and by run start time. Test ids are only unique
+ * within a suite, and endpoints are recorded as written in the suite, before placeholders are
+ * resolved, so one endpoint keeps one trend whatever ids or values a run substitutes. Queries
+ * then read only the rows of the test, endpoint or runs they ask for, so they stay fast with
+ * millions of rows. A crash can at worst
+ * leave a partial last row or string, which is dropped on the next open.
+ *
+ * Run ids are start timestamps ("yyyyMMdd-HHmmss-SSS") and sort in run order. One process writes
+ * a folder at a time; each runner has its own folder.
+ *
+ * runner.json settings: "runHistory" (default true) turns recording on and "historyDir"
+ * (default "history") is the base folder.
+ */
+public final class RunHistory {
+
+    private static final DateTimeFormatter RUN_ID = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final byte[] MAGIC = "RUNHIST1".getBytes(StandardCharsets.US_ASCII);
+    private static final int ROW_BYTES = 48;
+    private static final int MAX_ROWS = (Integer.MAX_VALUE - 8) / ROW_BYTES; // Offsets are ints
+    private static final Map<Path, RunHistory> OPEN = new ConcurrentHashMap<>();
+
+    // Row layout
+    private static final int RUN_START = 0; // long
+    private static final int SUITE = 8;
+    private static final int TEST = 12;
+    private static final int METHOD = 16;
+    private static final int ENDPOINT = 20;
+    private static final int STATUS = 24;
+    private static final int RESPONSE_MS = 28;
+    private static final int WAIT_MS = 32;
+    private static final int DOWNLOAD_MS = 36;
+    private static final int TEST_MS = 40;
+    private static final int PASSED = 44; // byte
+
+    /**
+     * One execution of a test.
+     */
+    public static final class Sample {
+        public final String testId;
+        public final String method;
+        public final String endpoint;
+        public final boolean passed;
+        public final String responseStatus;
+        public final long responseTimeMs;
+        public final long waitTimeMs;
+        public final long downloadTimeMs;
+        public final long testTimeMs;
+
+        /**
+         * @param responseTimeMs Request sent to response read.
+         * @param waitTimeMs     Request sent to headers received.
+         * @param downloadTimeMs Reading the body.
+         * @param testTimeMs     The whole test, including captures and verification.
+         */
+        public Sample(String testId, String method, String endpoint, boolean passed, String responseStatus,
+                      long responseTimeMs, long waitTimeMs, long downloadTimeMs, long testTimeMs) {
+            this.testId = testId;
+            this.method = method;
+            this.endpoint = endpoint;
+            this.passed = passed;
+            this.responseStatus = responseStatus;
+            this.responseTimeMs = responseTimeMs;
+            this.waitTimeMs = waitTimeMs;
+            this.downloadTimeMs = downloadTimeMs;
+            this.testTimeMs = testTimeMs;
+        }
+    }
+
+    /**
+     * A recorded run.
+     */
+    public static final class RunInfo {
+        public final String runId;
+        public final String suite;
+        public final long startMs;
+
+        RunInfo(String suite, long startMs) {
+            this.runId = formatRunId(startMs);
+            this.suite = suite;
+            this.startMs = startMs;
+        }
+    }
+
+    /**
+     * Response time percentiles of an endpoint in one run.
+     */
+    public static final class TrendPoint {
+        public final String runId;
+        public final int samples;
+        public final long p50Ms;
+        public final long p95Ms;
+
+        TrendPoint(String runId, int samples, long p50Ms, long p95Ms) {
+            this.runId = runId;
+            this.samples = samples;
+            this.p50Ms = p50Ms;
+            this.p95Ms = p95Ms;
+        }
+    }
+
+    /**
+     * How unstable a test's result has been. A run fails if any execution of the test in it
+     * failed; a flip is a run whose result differs from the run before, and a run with both
+     * passing and failing executions counts as a flip too. The score is flips per run-to-run
+     * transition, from 0 (stable, whether passing or failing) to 1 (flips every run).
+     */
+    public static final class Flakiness {
+        public final String suite;
+        public final String testId;
+        public final int runs;
+        public final int failedRuns;
+        public final int flips;
+        public final double score;
+
+        Flakiness(String suite, String testId, int runs, int failedRuns, int flips) {
+            this.suite = suite;
+            this.testId = testId;
+            this.runs = runs;
+            this.failedRuns = failedRuns;
+            this.flips = flips;
+            this.score = runs == 0 ? 0.0 : Math.min(1.0, flips / (double) Math.max(1, runs - 1));
+        }
+    }
+
+    /**
+     * Appends the tests of the current run to the store.
+     */
+    public final class Recorder implements AutoCloseable {
+        private final RunInfo run;
+        private final int suiteRef;
+
+        private Recorder(RunInfo run, int suiteRef) {
+            this.run = run;
+            this.suiteRef = suiteRef;
+        }
+
+        public RunInfo getRun() {
+            return run;
+        }
+
+        public void record(Sample sample) throws IOException {
+            append(run.startMs, suiteRef, sample);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    /**
+     * A growable list of row numbers.
+     */
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    private final Path directory;
+
+    // Loaded on first use
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringRefs = new HashMap<>();
+    private final Map<Long, IntList> rowsByTest = new HashMap<>(); // By pair(suite, test id)
+    private final Map<Long, IntList> rowsByEndpoint = new HashMap<>(); // By pair(method, endpoint)
+    private final TreeMap<Long, IntList> rowsByRun = new TreeMap<>();
+    private boolean loaded;
+    private int rowCount;
+    private BufferedWriter stringWriter;
+    private FileChannel rowChannel;
+    private MappedByteBuffer mapped;
+    private int mappedRows;
+
+    private RunHistory(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return The store in this folder, shared within the process so its indexes are built once.
+     */
+    public static RunHistory open(Path directory) {
+        return OPEN.computeIfAbsent(directory.toAbsolutePath().normalize(), RunHistory::new);
+    }
+
+    /**
+     * @param runner Subfolder under "historyDir", e.g. "api".
+     * @return The history, or null if "runHistory" is false.
+     */
+    public static RunHistory fromSettings(RunnerSettings settings, String runner) {
+        if (!settings.getBoolean("runHistory", true)) {
+            return null;
+        }
+        return open(Paths.get(settings.getString("historyDir", "history"), runner));
+    }
+
+    /**
+     * Starts recording a new run.
+     */
+    public synchronized Recorder startRun(String suite) throws IOException {
+        load();
+        long startMs = System.currentTimeMillis();
+        if (!rowsByRun.isEmpty()) {
+            startMs = Math.max(startMs, rowsByRun.lastKey() + 1); // Run ids stay unique
+        }
+        return new Recorder(new RunInfo(suite, startMs), ref(suite));
+    }
+
+    /**
+     * @param suite Only runs of this suite, or null for all.
+     * @return Recorded runs, oldest first.
+     */
+    public synchronized List<RunInfo> listRuns(String suite) throws IOException {
+        load();
+        List<RunInfo> runs = new ArrayList<>();
+        ByteBuffer rows = rows();
+        for (Map.Entry<Long, IntList> run : rowsByRun.entrySet()) {
+            String runSuite = strings.get(rows.getInt(offset(run.getValue().values[0]) + SUITE));
+            if (suite == null || suite.equals(runSuite)) {
+                runs.add(new RunInfo(runSuite, run.getKey()));
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * @return The run with this id, or null.
+     */
+    public synchronized RunInfo findRun(String runId) throws IOException {
+        load();
+        long startMs;
+        try {
+            startMs = LocalDateTime.parse(runId, RUN_ID).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+        IntList rowNumbers = rowsByRun.get(startMs);
+        return rowNumbers == null ? null : new RunInfo(strings.get(rows().getInt(offset(rowNumbers.values[0]) + SUITE)), startMs);
+    }
+
+    /**
+     * Reads the tests of a run, by test id in run order. A test run more than once has several
+     * samples.
+     */
+    public synchronized Map<String, List<Sample>> loadSamples(RunInfo run) throws IOException {
+        load();
+        Map<String, List<Sample>> samples = new LinkedHashMap<>();
+        IntList rowNumbers = rowsByRun.get(run.startMs);
+        if (rowNumbers == null) {
+            return samples;
+        }
+        ByteBuffer rows = rows();
+        for (int i = 0; i < rowNumbers.size; i++) {
+            Sample sample = readSample(rows, offset(rowNumbers.values[i]));
+            samples.computeIfAbsent(sample.testId, k -> new ArrayList<>()).add(sample);
+        }
+        return samples;
+    }
+
+    /**
+     * Response time trend of an endpoint. Executions that got no response are left out.
+     *
+     * @param method   The HTTP method.
+     * @param endpoint The endpoint as recorded, i.e. the unresolved template.
+     * @param lastRuns How many of the most recent runs that called the endpoint.
+     * @return One point per run, oldest first.
+     */
+    public synchronized List<TrendPoint> latencyTrend(String method, String endpoint, int lastRuns) throws IOException {
+        load();
+        IntList rowNumbers = rowsByEndpoint.get(pair(method, endpoint));
+        List<TrendPoint> points = new ArrayList<>();
+        if (rowNumbers == null) {
+            return points;
+        }
+        ByteBuffer rows = rows();
+        Integer noStatus = stringRefs.get("");
+        // Rows are in append order, so walking back groups them by run, newest first
+        Map<Long, IntList> timesByRun = new LinkedHashMap<>();
+        for (int i = rowNumbers.size - 1; i >= 0; i--) {
+            int offset = offset(rowNumbers.values[i]);
+            if (noStatus != null && rows.getInt(offset + STATUS) == noStatus) {
+                continue;
+            }
+            long runStart = rows.getLong(offset + RUN_START);
+            IntList times = timesByRun.get(runStart);
+            if (times == null) {
+                if (timesByRun.size() == lastRuns) {
+                    break;
+                }
+                times = new IntList();
+                timesByRun.put(runStart, times);
+            }
+            times.add(rows.getInt(offset + RESPONSE_MS));
+        }
+        timesByRun.forEach((runStart, times) -> {
+            int[] sorted = Arrays.copyOf(times.values, times.size);
+            Arrays.sort(sorted);
+            points.add(new TrendPoint(formatRunId(runStart), sorted.length, percentile(sorted, 50), percentile(sorted, 95)));
+        });
+        points.sort(Comparator.comparing(point -> point.runId));
+        return points;
+    }
+
+    /**
+     * Response time trends of every recorded endpoint, by "METHOD endpoint".
+     */
+    public synchronized Map<String, List<TrendPoint>> latencyTrends(int lastRuns) throws IOException {
+        load();
+        Map<String, List<TrendPoint>> trends = new TreeMap<>();
+        for (long key : new ArrayList<>(rowsByEndpoint.keySet())) {
+            String method = strings.get(first(key));
+            String endpoint = strings.get(second(key));
+            trends.put(method.isEmpty() ? endpoint : method + " " + endpoint, latencyTrend(method, endpoint, lastRuns));
+        }
+        return trends;
+    }
+
+    /**
+     * Flakiness of a test over the most recent runs that ran it.
+     *
+     * @param suite The suite the test belongs to; test ids are only unique within a suite.
+     */
+    public synchronized Flakiness flakiness(String suite, String testId, int lastRuns) throws IOException {
+        load();
+        IntList rowNumbers = rowsByTest.get(pair(suite, testId));
+        if (rowNumbers == null) {
+            return new Flakiness(suite, testId, 0, 0, 0);
+        }
+        ByteBuffer rows = rows();
+        // Result of each run, newest first: 1 passed, 2 failed, 3 both
+        Map<Long, Integer> results = new LinkedHashMap<>();
+        for (int i = rowNumbers.size - 1; i >= 0; i--) {
+            int offset = offset(rowNumbers.values[i]);
+            long runStart = rows.getLong(offset + RUN_START);
+            if (!results.containsKey(runStart) && results.size() == lastRuns) {
+                break;
+            }
+            results.merge(runStart, rows.get(offset + PASSED) != 0 ? 1 : 2, (a, b) -> a | b);
+        }
+        int failedRuns = 0;
+        int flips = 0;
+        Integer newer = null;
+        for (int result : results.values()) {
+            boolean failed = result != 1;
+            if (failed) {
+                failedRuns++;
+            }
+            if (result == 3 || (newer != null && newer != 3 && (newer != 1) != failed)) {
+                flips++;
+            }
+            newer = result;
+        }
+        return new Flakiness(suite, testId, results.size(), failedRuns, flips);
+    }
+
+    /**
+     * @param suite Only tests of this suite, or null for all.
+     * @return The flakiest tests over the most recent runs, most flaky first, leaving out stable ones.
+     */
+    public synchronized List<Flakiness> flakiestTests(String suite, int lastRuns, int limit) throws IOException {
+        load();
+        List<Flakiness> flaky = new ArrayList<>();
+        for (long key : new ArrayList<>(rowsByTest.keySet())) {
+            String testSuite = strings.get(first(key));
+            if (suite != null && !suite.equals(testSuite)) {
+                continue;
+            }
+            Flakiness test = flakiness(testSuite, strings.get(second(key)), lastRuns);
+            if (test.flips > 0) {
+                flaky.add(test);
+            }
+        }
+        flaky.sort(Comparator.comparingDouble((Flakiness test) -> -test.score).thenComparing(test -> -test.runs));
+        return flaky.size() > limit ? new ArrayList<>(flaky.subList(0, limit)) : flaky;
+    }
+
+    /**
+     * Makes recorded strings durable; rows are written straight to the file.
+     */
+    public synchronized void flush() throws IOException {
+        if (stringWriter != null) {
+            stringWriter.flush();
+        }
+    }
+
+    private synchronized void append(long runStartMs, int suiteRef, Sample sample) throws IOException {
+        load();
+        if (rowCount >= MAX_ROWS) {
+            throw new IOException("Run history is full: " + directory.resolve("results.bin"));
+        }
+        ByteBuffer row = ByteBuffer.allocate(ROW_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        int testRef = ref(sample.testId);
+        int methodRef = ref(sample.method);
+        int endpointRef = ref(sample.endpoint);
+        row.putLong(RUN_START, runStartMs);
+        row.putInt(SUITE, suiteRef);
+        row.putInt(TEST, testRef);
+        row.putInt(METHOD, methodRef);
+        row.putInt(ENDPOINT, endpointRef);
+        row.putInt(STATUS, ref(sample.responseStatus));
+        row.putInt(RESPONSE_MS, clamp(sample.responseTimeMs));
+        row.putInt(WAIT_MS, clamp(sample.waitTimeMs));
+        row.putInt(DOWNLOAD_MS, clamp(sample.downloadTimeMs));
+        row.putInt(TEST_MS, clamp(sample.testTimeMs));
+        row.put(PASSED, (byte) (sample.passed ? 1 : 0));
+        stringWriter.flush(); // Strings first, so a row never refers to a string that is not on disk
+        long position = MAGIC.length + (long) rowCount * ROW_BYTES;
+        while (row.hasRemaining()) {
+            position += rowChannel.write(row, position);
+        }
+        index(rowCount++, runStartMs, suiteRef, testRef, methodRef, endpointRef);
+    }
+
+    private void index(int rowNumber, long runStartMs, int suiteRef, int testRef, int methodRef, int endpointRef) {
+        rowsByTest.computeIfAbsent(pair(suiteRef, testRef), k -> new IntList()).add(rowNumber);
+        rowsByEndpoint.computeIfAbsent(pair(methodRef, endpointRef), k -> new IntList()).add(rowNumber);
+        rowsByRun.computeIfAbsent(runStartMs, k -> new IntList()).add(rowNumber);
+    }
+
+    /**
+     * @return The index key of two strings, or -1 if either was never recorded.
+     */
+    private long pair(String first, String second) {
+        Integer firstRef = stringRefs.get(first != null ? first : "");
+        Integer secondRef = stringRefs.get(second != null ? second : "");
+        return firstRef == null || secondRef == null ? -1L : pair(firstRef, secondRef);
+    }
+
+    private static long pair(int firstRef, int secondRef) {
+        return ((long) firstRef << 32) | (secondRef & 0xFFFFFFFFL);
+    }
+
+    private static int first(long pair) {
+        return (int) (pair >>> 32);
+    }
+
+    private static int second(long pair) {
+        return (int) pair;
+    }
+
+    private int ref(String value) throws IOException {
+        String text = value != null ? value : "";
+        Integer ref = stringRefs.get(text);
+        if (ref == null) {
+            ref = strings.size();
+            strings.add(text);
+            stringRefs.put(text, ref);
+            stringWriter.write(text.replace("\\", "\\\\").replace("\r", "\\r").replace("\n", "\\n"));
+            stringWriter.newLine();
+        }
+        return ref;
+    }
+
+    /**
+     * Opens the files and builds the indexes, once.
+     */
+    private void load() throws IOException {
+        if (loaded) {
+            return;
+        }
+        Files.createDirectories(directory);
+        Path stringFile = directory.resolve("strings.txt");
+        if (Files.exists(stringFile)) {
+            try (FileChannel channel = FileChannel.open(stringFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long end = channel.size();
+                ByteBuffer last = ByteBuffer.allocate(1);
+                while (end > 0 && channel.read(last.clear(), end - 1) == 1 && last.get(0) != '\n') {
+                    end--;
+                }
+                channel.truncate(end); // Drops a string cut short by a crash; no row refers to it
+            }
+            try (BufferedReader reader = Files.newBufferedReader(stringFile, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String text = unescape(line);
+                    stringRefs.putIfAbsent(text, strings.size());
+                    strings.add(text);
+                }
+            }
+        }
+        rowChannel = FileChannel.open(directory.resolve("results.bin"),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = rowChannel.size();
+        if (size < MAGIC.length) {
+            rowChannel.truncate(0);
+            rowChannel.write(ByteBuffer.wrap(MAGIC), 0);
+            size = MAGIC.length;
+        } else {
+            ByteBuffer magic = ByteBuffer.allocate(MAGIC.length);
+            rowChannel.read(magic, 0);
+            if (!Arrays.equals(magic.array(), MAGIC)) {
+                rowChannel.close();
+                throw new IOException("Not a run history file: " + directory.resolve("results.bin"));
+            }
+        }
+        long rows = (size - MAGIC.length) / ROW_BYTES;
+        if (rows > MAX_ROWS) {
+            rowChannel.close();
+            throw new IOException("Run history is too large: " + directory.resolve("results.bin"));
+        }
+        rowChannel.truncate(MAGIC.length + rows * ROW_BYTES); // Drops a partial last row
+        rowCount = (int) rows;
+        ByteBuffer mappedRows = rows();
+        for (int i = 0; i < rowCount; i++) {
+            int offset = offset(i);
+            index(i, mappedRows.getLong(offset + RUN_START), mappedRows.getInt(offset + SUITE), mappedRows.getInt(offset + TEST),
+                mappedRows.getInt(offset + METHOD), mappedRows.getInt(offset + ENDPOINT));
+        }
+        stringWriter = Files.newBufferedWriter(stringFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        loaded = true;
+        System.out.println("Debug: Run history " + directory.toAbsolutePath() + ": " + rowCount + " results, " + rowsByRun.size() + " runs");
+    }
+
+    /**
+     * @return The rows file mapped read-only, remapped when rows were appended since.
+     */
+    private ByteBuffer rows() throws IOException {
+        if (mapped == null || mappedRows != rowCount) {
+            mapped = rowChannel.map(FileChannel.MapMode.READ_ONLY, 0, MAGIC.length + (long) rowCount * ROW_BYTES);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            mappedRows = rowCount;
+        }
+        return mapped;
+    }
+
+    private Sample readSample(ByteBuffer rows, int offset) {
+        return new Sample(strings.get(rows.getInt(offset + TEST)), strings.get(rows.getInt(offset + METHOD)),
+            strings.get(rows.getInt(offset + ENDPOINT)), rows.get(offset + PASSED) != 0, strings.get(rows.getInt(offset + STATUS)),
+            rows.getInt(offset + RESPONSE_MS), rows.getInt(offset + WAIT_MS), rows.getInt(offset + DOWNLOAD_MS), rows.getInt(offset + TEST_MS));
+    }
+
+    private static int offset(int rowNumber) {
+        return MAGIC.length + rowNumber * ROW_BYTES;
+    }
+
+    private static int clamp(long millis) {
+        return (int) Math.max(0L, Math.min(Integer.MAX_VALUE, millis));
+    }
+
+    /**
+     * Nearest-rank percentile of sorted values.
+     */
+    private static long percentile(int[] sorted, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static String formatRunId(long startMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(startMs), ZoneId.systemDefault()).format(RUN_ID);
+    }
+
+    private static String unescape(String line) {
+        if (line.indexOf('\\') < 0) {
+            return line;
+        }
+        StringBuilder sb = new StringBuilder(line.length());
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < line.length()) {
+                char next = line.charAt(++i);
+                sb.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
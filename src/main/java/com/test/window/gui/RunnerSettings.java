@@ -0,0 +1,93 @@
+package com.test.window.gui;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Optional tuning knobs for the API runner, read from runner.json in the project root
+ * (next to env.json, proxy.json and ssl.json). Every setting has a default, so the file
+ * only needs the keys that should change, for example:
+ *
+ * <pre>
+ * {
+ *   "dynamicSeed" : 42,
+ *   "dynamicPoolSize" : 1000
+ * }
+ * </pre>
+ */
+public final class RunnerSettings {
+
+    private static final String SETTINGS_FILE = "runner.json";
+
+    private final Map<String, Object> values;
+
+    private RunnerSettings(Map<String, Object> values) {
+        this.values = values;
+    }
+
+    /**
+     * Loads runner.json, falling back to defaults if it is missing or unreadable.
+     */
+    public static RunnerSettings load() {
+        File file = new File(SETTINGS_FILE);
+        if (!file.exists()) {
+            return new RunnerSettings(Collections.emptyMap());
+        }
+        try {
+            Map<String, Object> data = new ObjectMapper().readValue(file, new TypeReference<Map<String, Object>>() {});
+            System.out.println("Loaded runner settings: " + data);
+            return new RunnerSettings(data);
+        } catch (Exception e) {
+            System.err.println("Failed to load " + SETTINGS_FILE + ", using defaults: " + e.getMessage());
+            return new RunnerSettings(Collections.emptyMap());
+        }
+    }
+
+    /**
+     * @return The numeric setting, or null if absent or not a number.
+     */
+    public Long getOptionalLong(String key) {
+        Object value = values.get(key);
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Long.parseLong(((String) value).trim());
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid number for runner setting '" + key + "': " + value);
+            }
+        }
+        return null;
+    }
+
+    public long getLong(String key, long defaultValue) {
+        Long value = getOptionalLong(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        Long value = getOptionalLong(key);
+        return value != null ? value.intValue() : defaultValue;
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Object value = values.get(key);
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value instanceof String) {
+            return Boolean.parseBoolean(((String) value).trim());
+        }
+        return defaultValue;
+    }
+
+    public String getString(String key, String defaultValue) {
+        Object value = values.get(key);
+        return value != null ? String.valueOf(value) : defaultValue;
+    }
+}
@@ -0,0 +1,192 @@
+package com.test.window.gui;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes UI test screenshots to files on a background thread, so the test thread only captures
+ * and the run keeps file references instead of image bytes. Each capture is stored in a
+ * {@link ReportBlobStore} folder as the PNG the driver produced plus a downscaled JPEG thumbnail
+ * for the report page; identical captures share their files.
+ *
+ * At most {@value #MAX_PENDING} captures wait in memory: beyond that {@link #submit(byte[])}
+ * blocks until the encoder catches up. Work runs in submission order on one thread, so an action
+ * queued with {@link #afterPending(Runnable)} sees every earlier screenshot on disk.
+ *
+ * The folder is shared by every UI report and by default keeps everything. Pruning by age is
+ * opt-in: files no run has written or reused within the maximum age are deleted when a run
+ * starts, and with them the images of reports older than that.
+ */
+public final class ScreenshotStore implements AutoCloseable {
+
+    private static final int MAX_PENDING = 8;
+    private static final int THUMBNAIL_WIDTH = 480;
+    private static final float THUMBNAIL_QUALITY = 0.8f;
+
+    /**
+     * The files of one capture, set once it is encoded. Both stay null if it could not be
+     * stored; the thumbnail alone stays null if the image could not be decoded.
+     */
+    public static final class Screenshot {
+        private volatile Path image;
+        private volatile Path thumbnail;
+
+        public Path getImage() {
+            return image;
+        }
+
+        /**
+         * @return The thumbnail, or the full image if there is none.
+         */
+        public Path getThumbnail() {
+            return thumbnail != null ? thumbnail : image;
+        }
+    }
+
+    private final ReportBlobStore blobs;
+    private final ExecutorService encoder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "screenshot-encoder");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Semaphore pending = new Semaphore(MAX_PENDING);
+
+    /**
+     * @param maxAge Prune files older than this; null to keep everything.
+     */
+    public ScreenshotStore(Path directory, Duration maxAge) throws IOException {
+        this.blobs = new ReportBlobStore(directory);
+        if (maxAge != null) {
+            blobs.pruneOlderThan(maxAge);
+        }
+    }
+
+    /**
+     * Opens the folder under "reports", pruned by "screenshotMaxAgeDays" from runner.json
+     * (default 0, which keeps everything).
+     */
+    public static ScreenshotStore fromSettings(RunnerSettings settings) throws IOException {
+        int maxAgeDays = settings.getInt("screenshotMaxAgeDays", 0);
+        return new ScreenshotStore(Paths.get("reports", "screenshots"), maxAgeDays > 0 ? Duration.ofDays(maxAgeDays) : null);
+    }
+
+    /**
+     * Queues a capture for encoding.
+     *
+     * @param png Bytes from the driver; the caller must not change them afterwards.
+     * @return Its handle, or null if the capture is empty.
+     */
+    public Screenshot submit(byte[] png) {
+        if (png == null || png.length == 0) {
+            return null;
+        }
+        Screenshot screenshot = new Screenshot();
+        pending.acquireUninterruptibly();
+        try {
+            encoder.execute(() -> {
+                try {
+                    encode(png, screenshot);
+                } finally {
+                    pending.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            pending.release();
+            throw e;
+        }
+        return screenshot;
+    }
+
+    /**
+     * Runs an action on the encoder thread once every capture submitted so far is stored.
+     */
+    public void afterPending(Runnable action) {
+        encoder.execute(() -> {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                System.err.println("Warning: Action after screenshots failed: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Waits for the queued work and stops the encoder.
+     */
+    @Override
+    public void close() {
+        encoder.shutdown();
+        try {
+            if (!encoder.awaitTermination(5, TimeUnit.MINUTES)) {
+                System.err.println("Warning: Timed out waiting for screenshots to be written");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void encode(byte[] png, Screenshot screenshot) {
+        String hash = ReportBlobStore.sha256Hex(png);
+        try {
+            screenshot.image = blobs.getDirectory().resolve(blobs.putIfAbsent(hash, "png", () -> png));
+            screenshot.thumbnail = blobs.getDirectory().resolve(blobs.putIfAbsent(hash + "-thumb", "jpg", () -> thumbnail(png)));
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Warning: Failed to store screenshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Scales the image down to {@value #THUMBNAIL_WIDTH} pixels wide (never up) as a JPEG.
+     */
+    private static byte[] thumbnail(byte[] png) {
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+            if (image == null) {
+                throw new IOException("Unsupported image format");
+            }
+            int width = Math.min(THUMBNAIL_WIDTH, image.getWidth());
+            int height = Math.max(1, (int) Math.round(image.getHeight() * (double) width / image.getWidth()));
+            BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB); // JPEG has no alpha
+            Graphics2D g = scaled.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(image, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+                writer.setOutput(stream);
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(THUMBNAIL_QUALITY);
+                writer.write(null, new IIOImage(scaled, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create thumbnail: " + e.getMessage(), e);
+        }
+    }
+}
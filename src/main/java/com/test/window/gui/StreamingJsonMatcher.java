@@ -0,0 +1,180 @@
+package com.test.window.gui;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Matches an expected JSON tree against a response body read token by token with Jackson's
+ * JsonParser, so the response is never materialized as a tree. Only the expected document, the
+ * current path and the scalar under the cursor are held in memory; subtrees that are not
+ * compared ($any-value, extra keys, surplus array elements) are skipped without being built.
+ * Matching a String still holds the whole body; matching the HTTP entity's stream
+ * ({@link #match(JsonNode, InputStream)}) keeps memory bounded by the document depth.
+ *
+ * Rules match {@link JsonMatcher}. Because the response is read in document order, a missing key
+ * is only known at the end of its object and an array size mismatch at the end of the array,
+ * so when several differences exist the first one reported can differ from the tree walk. Arrays
+ * with an unordered or keyed {@link ArrayMatchRules} mode are read into a tree (that array only).
+ */
+public class StreamingJsonMatcher extends JsonMatcher {
+
+    public StreamingJsonMatcher() {
+        super();
+    }
+
+    public StreamingJsonMatcher(int maxMismatches) {
+        super(maxMismatches);
+    }
+
+    public StreamingJsonMatcher(int maxMismatches, ArrayMatchRules arrayRules) {
+        super(maxMismatches, arrayRules);
+    }
+
+    /**
+     * @param expected The parsed Verify Response.
+     * @param body     The raw response body.
+     * @return The match result.
+     * @throws IOException If the body is not valid JSON.
+     */
+    public Result match(JsonNode expected, String body) throws IOException {
+        try (JsonParser parser = JsonSupport.MAPPER.getFactory().createParser(body)) {
+            return match(expected, parser);
+        }
+    }
+
+    /**
+     * @param expected The parsed Verify Response.
+     * @param body     The response body as it downloads; encoding is detected from its first bytes.
+     * @return The match result.
+     * @throws IOException If the body is not valid JSON or cannot be read.
+     */
+    public Result match(JsonNode expected, InputStream body) throws IOException {
+        try (JsonParser parser = JsonSupport.MAPPER.getFactory().createParser(body)) {
+            return match(expected, parser);
+        }
+    }
+
+    /**
+     * @param expected The parsed Verify Response.
+     * @param parser   A parser positioned before the document; it is not closed.
+     * @return The match result.
+     * @throws IOException If the input is not valid JSON.
+     */
+    public Result match(JsonNode expected, JsonParser parser) throws IOException {
+        reset();
+        if (parser.nextToken() == null) {
+            mismatch("Type mismatch", "expected " + typeName(expected) + ", got empty response");
+        } else {
+            compareStream(expected, parser);
+        }
+        return finish();
+    }
+
+    /**
+     * Compares the value starting at the parser's current token and leaves the parser on its
+     * last token. Returns early, leaving the parser mid-value, once the walk is full.
+     */
+    private void compareStream(JsonNode expected, JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (isWildcard(expected)) {
+            parser.skipChildren();
+            return;
+        }
+        if (expected.isObject()) {
+            if (token != JsonToken.START_OBJECT) {
+                mismatch("Type mismatch", "expected Map, got " + tokenTypeName(token));
+                parser.skipChildren();
+                return;
+            }
+            Set<String> seen = new HashSet<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                JsonNode expectedValue = expected.get(name);
+                if (expectedValue == null) {
+                    extraKey(name);
+                    parser.skipChildren();
+                } else {
+                    seen.add(name);
+                    push(name);
+                    compareStream(expectedValue, parser);
+                    pop();
+                }
+                if (isFull()) {
+                    return;
+                }
+            }
+            if (seen.size() != expected.size()) {
+                Iterator<String> names = expected.fieldNames();
+                while (names.hasNext() && !isFull()) {
+                    String name = names.next();
+                    if (!seen.contains(name)) {
+                        push(name);
+                        mismatch("Key not found in response", "");
+                        pop();
+                    }
+                }
+            }
+            return;
+        }
+        if (expected.isArray()) {
+            if (token != JsonToken.START_ARRAY) {
+                mismatch("Type mismatch", "expected List, got " + tokenTypeName(token));
+                parser.skipChildren();
+                return;
+            }
+            if (arrayMode().getKind() != ArrayMatchRules.Kind.ORDERED) {
+                compare(expected, JsonSupport.MAPPER.readTree(parser)); // Unordered and keyed matching need the whole array
+                return;
+            }
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (index < expected.size()) {
+                    push(index);
+                    compareStream(expected.get(index), parser);
+                    pop();
+                    if (isFull()) {
+                        return;
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+                index++;
+            }
+            if (index != expected.size()) {
+                mismatch("List size mismatch", "expected " + expected.size() + ", got " + index);
+            }
+            return;
+        }
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            mismatch("Value mismatch", "expected '" + scalarText(expected) + "', got " + tokenTypeName(token));
+            parser.skipChildren();
+            return;
+        }
+        JsonNode actual = JsonSupport.MAPPER.readTree(parser);
+        if (!expected.equals(actual)) {
+            mismatch("Value mismatch", "expected '" + scalarText(expected) + "', got '" + scalarText(actual) + "'");
+        }
+    }
+
+    private static String tokenTypeName(JsonToken token) {
+        if (token == null || token == JsonToken.VALUE_NULL) return "null";
+        switch (token) {
+            case START_OBJECT: return "Map";
+            case START_ARRAY: return "List";
+            case VALUE_STRING: return "String";
+            case VALUE_TRUE:
+            case VALUE_FALSE: return "Boolean";
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT: return "Number";
+            default: return token.name();
+        }
+    }
+}
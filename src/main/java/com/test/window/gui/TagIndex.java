@@ -0,0 +1,275 @@
+package com.test.window.gui;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Inverted index over test descriptions used by the "@tag" filter of the API runner.
+ * Every word of a description is indexed (lower-cased, without a leading '@') to a BitSet
+ * of row positions, so a filter is answered with bitset operations instead of rescanning
+ * every description on each keystroke.
+ *
+ * Supported expressions: "@smoke", "@smoke and not @slow", "@a or @b", parentheses, and
+ * adjacent "@" terms ("@login @fast") which are implicitly combined with "and". Words without
+ * "@" that follow a term belong to it, so "@smoke test" is the phrase "smoke test".
+ *
+ * A term matches the descriptions containing it (case-insensitive), as the previous description
+ * filter did. A single word is answered from the index by scanning only the (much smaller)
+ * vocabulary; phrases and terms with characters that are not indexed ("@api/v1", "@TC#12") are
+ * matched by scanning the descriptions once and cached. Text that does not parse as an
+ * expression is matched as a whole, e.g. "@smoke (" matches descriptions containing "smoke (".
+ */
+public class TagIndex {
+
+    private final int size;
+    private final List<String> descriptions = new ArrayList<>(); // Lower-cased, for terms the index cannot answer
+    private final Map<String, BitSet> postings = new HashMap<>();
+    private final Map<String, BitSet> termCache = new HashMap<>();
+
+    private TagIndex(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Builds the index from descriptions in row order; position i of the list becomes bit i.
+     *
+     * @param descriptions Test descriptions (null entries are treated as empty).
+     * @return The populated index.
+     */
+    public static TagIndex build(List<String> descriptions) {
+        TagIndex index = new TagIndex(descriptions.size());
+        for (int position = 0; position < descriptions.size(); position++) {
+            String description = descriptions.get(position);
+            index.descriptions.add(description != null ? description.toLowerCase(Locale.ROOT) : "");
+            if (description == null) continue;
+            for (String word : tokenize(description)) {
+                index.postings.computeIfAbsent(word, k -> new BitSet(index.size)).set(position);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return The number of rows covered by this index.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Evaluates a tag expression against the index.
+     *
+     * @param expression Expression such as "@smoke and not @slow".
+     * @return A new BitSet of matching row positions; callers may modify it.
+     * @throws IllegalArgumentException If the expression is empty or malformed.
+     */
+    public BitSet evaluate(String expression) {
+        Parser parser = new Parser(splitExpression(expression));
+        if (parser.atEnd()) {
+            throw new IllegalArgumentException("Empty tag expression");
+        }
+        BitSet result = parser.parseOr();
+        if (!parser.atEnd()) {
+            throw new IllegalArgumentException("Unexpected token '" + parser.peek() + "' in tag expression: " + expression);
+        }
+        return result;
+    }
+
+    /**
+     * Matches text as a whole, without operators: the rows whose description contains it.
+     *
+     * @param text Text such as "smoke (" after the leading "@"; case is ignored.
+     * @return A new BitSet of matching row positions; callers may modify it.
+     */
+    public BitSet containing(String text) {
+        String normalized = text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+        return lookupNormalized(normalized);
+    }
+
+    /**
+     * Resolves a single term to the rows whose description contains it. Results are cached,
+     * so repeated keystrokes over the same prefix are cheap.
+     */
+    private BitSet lookup(String term) {
+        String normalized = term.toLowerCase(Locale.ROOT);
+        while (normalized.startsWith("@")) {
+            normalized = normalized.substring(1);
+        }
+        normalized = normalized.trim();
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("Empty tag in expression");
+        }
+        return lookupNormalized(normalized);
+    }
+
+    private BitSet lookupNormalized(String normalized) {
+        BitSet cached = termCache.get(normalized);
+        if (cached == null) {
+            cached = new BitSet(size);
+            if (isWord(normalized)) {
+                // A run of word characters only occurs inside one indexed word
+                for (Map.Entry<String, BitSet> entry : postings.entrySet()) {
+                    if (entry.getKey().contains(normalized)) {
+                        cached.or(entry.getValue());
+                    }
+                }
+            } else {
+                for (int position = 0; position < descriptions.size(); position++) {
+                    if (descriptions.get(position).contains(normalized)) {
+                        cached.set(position);
+                    }
+                }
+            }
+            termCache.put(normalized, cached);
+        }
+        return (BitSet) cached.clone();
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.' || c == ':';
+    }
+
+    private static boolean isWord(String text) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (!isWordChar(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<String> tokenize(String description) {
+        List<String> words = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < description.length(); i++) {
+            char c = description.charAt(i);
+            if (isWordChar(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (current.length() > 0) {
+                words.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            words.add(current.toString());
+        }
+        return words;
+    }
+
+    /**
+     * Splits on whitespace and parentheses. A lone "@" ("@ smoke", "@(a or b)") only marks the
+     * text as a filter and is dropped.
+     */
+    private static List<String> splitExpression(String expression) {
+        List<String> tokens = new ArrayList<>();
+        if (expression == null) {
+            return tokens;
+        }
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < expression.length(); i++) {
+            char c = expression.charAt(i);
+            if (Character.isWhitespace(c) || c == '(' || c == ')') {
+                addToken(tokens, current);
+                if (c == '(' || c == ')') {
+                    tokens.add(String.valueOf(c));
+                }
+            } else {
+                current.append(c);
+            }
+        }
+        addToken(tokens, current);
+        return tokens;
+    }
+
+    private static void addToken(List<String> tokens, StringBuilder current) {
+        if (current.length() > 0 && !"@".contentEquals(current)) {
+            tokens.add(current.toString());
+        }
+        current.setLength(0);
+    }
+
+    /**
+     * Recursive descent parser: or := and ("or" and)*, and := unary (["and"] unary)*,
+     * unary := "not" unary | "(" or ")" | term.
+     */
+    private class Parser {
+        private final List<String> tokens;
+        private int pos = 0;
+
+        Parser(List<String> tokens) {
+            this.tokens = tokens;
+        }
+
+        boolean atEnd() {
+            return pos >= tokens.size();
+        }
+
+        String peek() {
+            return atEnd() ? null : tokens.get(pos);
+        }
+
+        private boolean accept(String keyword) {
+            if (!atEnd() && tokens.get(pos).equalsIgnoreCase(keyword)) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        BitSet parseOr() {
+            BitSet result = parseAnd();
+            while (accept("or")) {
+                result.or(parseAnd());
+            }
+            return result;
+        }
+
+        private BitSet parseAnd() {
+            BitSet result = parseUnary();
+            while (!atEnd() && !")".equals(peek()) && !"or".equalsIgnoreCase(peek())) {
+                accept("and");
+                result.and(parseUnary());
+            }
+            return result;
+        }
+
+        private BitSet parseUnary() {
+            if (atEnd()) {
+                throw new IllegalArgumentException("Incomplete tag expression");
+            }
+            if (accept("not")) {
+                BitSet operand = parseUnary();
+                operand.flip(0, size);
+                return operand;
+            }
+            if (accept("(")) {
+                BitSet inner = parseOr();
+                if (!accept(")")) {
+                    throw new IllegalArgumentException("Missing ')' in tag expression");
+                }
+                return inner;
+            }
+            String term = tokens.get(pos++);
+            if (isOperator(term)) {
+                throw new IllegalArgumentException("Unexpected '" + term + "' in tag expression");
+            }
+            StringBuilder phrase = new StringBuilder(term);
+            while (!atEnd() && !isOperator(peek()) && !peek().startsWith("@")) {
+                phrase.append(' ').append(tokens.get(pos++));
+            }
+            return lookup(phrase.toString());
+        }
+
+        private boolean isOperator(String token) {
+            return "(".equals(token) || ")".equals(token) || "and".equalsIgnoreCase(token)
+                || "or".equalsIgnoreCase(token) || "not".equalsIgnoreCase(token);
+        }
+    }
+}
@@ -16,6 +16,8 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import com.test.window.app.GlueCode;
 import com.test.window.app.UIConstants;
 import com.test.window.app.Commons;
@@ -342,6 +344,17 @@ public class TestRunner extends Application {
         Task<Void> task = new Task<Void>() {
             @Override
             protected Void call() {
+                // Captures are written to files in the background; the report links them
+                ScreenshotStore screenshots;
+                try {
+                    screenshots = ScreenshotStore.fromSettings(RunnerSettings.load());
+                } catch (IOException ex) {
+                    Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Run Error", "Failed to create the screenshot folder: " + ex.getMessage()));
+                    return null;
+                }
+                // Closed in the finally block, so a run cut short still completes its files
+                JUnitXmlWriter junit = null;
+                RunHistory.Recorder historyRun = null;
                 try {
                     List<TestCase> testsToRun = new ArrayList<>();
                     for (TestCase testCase : tableData) {
@@ -354,6 +367,31 @@ public class TestRunner extends Application {
                     long totalRunStart = System.currentTimeMillis();
                     String lastAppFamilyName = null;
 
+                    // Allure results are written as each test finishes
+                    AllureResultsWriter allure = AllureResultsWriter.fromSettings(RunnerSettings.load(), "ui", lastLoadedFile, new ObjectMapper());
+                    if (allure != null) {
+                        try {
+                            allure.start();
+                        } catch (IOException ex) {
+                            System.err.println("Warning: Allure results disabled for this run: " + ex.getMessage());
+                            allure = null;
+                        }
+                    }
+                    try {
+                        junit = JUnitXmlWriter.fromSettings(RunnerSettings.load(), "ui");
+                    } catch (IOException ex) {
+                        System.err.println("Warning: JUnit results disabled for this run: " + ex.getMessage());
+                    }
+                    String suiteName = lastLoadedFile != null ? lastLoadedFile.getName().replaceFirst("\\.[^.]+$", "") : "ui";
+                    RunHistory history = RunHistory.fromSettings(RunnerSettings.load(), "ui");
+                    if (history != null) {
+                        try {
+                            historyRun = history.startRun(suiteName);
+                        } catch (IOException ex) {
+                            System.err.println("Warning: Run history disabled for this run: " + ex.getMessage());
+                        }
+                    }
+
                     for (TestCase testCase : testsToRun) {
                         if (stopRequested) break;
                         String testId = testCase.testIdProperty().get();
@@ -420,7 +458,7 @@ public class TestRunner extends Application {
                                     if ("OPEN_WINDOW".equals(testAction)) {
                                         lastAppFamilyName = testData != null ? testData.split("\\|")[0] : null;
                                     } else if ("TAKE_SCREENSHOT".equals(testAction)) {
-                                        stepReport.screenshotBytes = GlueCode.takeScreenshotAsBytes();
+                                        stepReport.screenshot = screenshots.submit(GlueCode.takeScreenshotAsBytes());
                                     }
 
                                     executeTheStep(stepList, lastAppFamilyName);
@@ -433,7 +471,7 @@ public class TestRunner extends Application {
                                     byte[] screenshotBytes = GlueCode.takeScreenshotAsBytes();
                                     if (screenshotBytes != null && screenshotBytes.length > 0) {
                                         System.out.println("DEBUG: Screenshot captured successfully for failed step: " + stepReport.testStep + ", size: " + screenshotBytes.length + " bytes");
-                                        stepReport.screenshotBytes = screenshotBytes;
+                                        stepReport.screenshot = screenshots.submit(screenshotBytes);
                                     } else {
                                         System.err.println("DEBUG: Failed to capture screenshot for step: " + stepReport.testStep + ". Bytes are null or empty.");
                                     }
@@ -453,6 +491,30 @@ public class TestRunner extends Application {
                         entry.status = testPassed ? "Passed" : "Failed";
                         entry.totalDuration = System.currentTimeMillis() - testStart;
                         reportEntries.add(entry);
+                        if (allure != null) {
+                            AllureResultsWriter finalAllure = allure;
+                            screenshots.afterPending(() -> finalAllure.writeUiResult(entry, testStart));
+                        }
+                        if (junit != null) {
+                            // Time is the sum of the step durations; the failure is the failing step's error
+                            String failure = entry.steps.stream().map(step -> step.error).filter(error -> error != null).findFirst()
+                                .orElse(testPassed ? null : "Failed");
+                            try {
+                                junit.addTestCase(suiteName, entry.testId + " - " + entry.description,
+                                    entry.steps.stream().mapToLong(step -> step.durationMs).sum(), failure);
+                            } catch (IOException ex) {
+                                System.err.println("Warning: Failed to write JUnit result for Test ID " + testId + ": " + ex.getMessage());
+                            }
+                        }
+                        if (historyRun != null) {
+                            // No request of its own: only the result and the test time are kept
+                            try {
+                                historyRun.record(new RunHistory.Sample(entry.testId, "", "", testPassed, entry.status,
+                                    0L, 0L, 0L, entry.totalDuration));
+                            } catch (IOException ex) {
+                                System.err.println("Warning: Failed to record run history for Test ID " + testId + ": " + ex.getMessage());
+                            }
+                        }
 
                         // Capture testPassed state for use in Platform.runLater
                         final boolean finalTestPassed = testPassed;
@@ -463,6 +525,11 @@ public class TestRunner extends Application {
                         });
                     }
 
+                    screenshots.close(); // Every screenshot and Allure result is on disk
+                    if (allure != null) {
+                        allure.generateReportAsync();
+                    }
+
                     // Generate HTML report
                     int passedCount = (int) reportEntries.stream().filter(e -> "Passed".equals(e.status)).count();
                     int failedCount = reportEntries.size() - passedCount;
@@ -475,6 +542,21 @@ public class TestRunner extends Application {
                         //Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Report Error", "Failed to generate report: " + ex.getMessage()));
                     }
                 } finally {
+                    screenshots.close();
+                    if (junit != null) {
+                        try {
+                            junit.close();
+                        } catch (IOException ex) {
+                            System.err.println("Warning: Failed to complete JUnit results: " + ex.getMessage());
+                        }
+                    }
+                    if (historyRun != null) {
+                        try {
+                            historyRun.close();
+                        } catch (IOException ex) {
+                            System.err.println("Warning: Failed to complete run history: " + ex.getMessage());
+                        }
+                    }
                     // Always generate and open report, even on exception or stop
                     Platform.runLater(() -> {
                         isTestRunning = false;
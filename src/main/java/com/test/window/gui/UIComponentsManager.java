@@ -12,8 +12,6 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.function.Function;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
@@ -1695,18 +1693,19 @@ public class UIComponentsManager {
      */
     private StyleSpans<String> computeHighlighting(String text) {
         StyleSpansBuilder<String> spansBuilder = new StyleSpansBuilder<>();
-        Pattern pattern = Pattern.compile("\\{\\{[^}]+\\}\\}"); // Matches {{any-text}}
-        Matcher matcher = pattern.matcher(text);
-        int lastEnd = 0;
-        while (matcher.find()) {
-            // Plain text before match (white)
-            spansBuilder.add("-fx-fill: white;", matcher.start() - lastEnd);
-            // Highlighted match
-            spansBuilder.add("-fx-fill: pink;", matcher.end() - matcher.start());
-            lastEnd = matcher.end();
+        int pending = 0; // Plain text not yet emitted (white)
+        for (PlaceholderTemplate.Segment segment : PlaceholderTemplate.compile(text).getSegments()) {
+            if (segment.isVariable()) {
+                spansBuilder.add("-fx-fill: white;", pending);
+                // Highlighted {{any-text}}
+                spansBuilder.add("-fx-fill: pink;", segment.sourceLength());
+                pending = 0;
+            } else {
+                pending += segment.sourceLength();
+            }
         }
         // Remaining plain text (white)
-        spansBuilder.add("-fx-fill: white;", text.length() - lastEnd);
+        spansBuilder.add("-fx-fill: white;", pending);
         return spansBuilder.create();
     }
 
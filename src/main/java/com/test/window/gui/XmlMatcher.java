@@ -0,0 +1,263 @@
+package com.test.window.gui;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Matches an expected XML document ("Verify Response") against an XML or SOAP response read
+ * with a StAX stream reader. The expected document is small and held as a tree; the response is
+ * never materialized, so memory stays bounded by its depth and by the expected text lengths.
+ *
+ * Rules follow {@link JsonMatcher}: elements are compared by namespace URI and local name (the
+ * prefix does not matter) and child elements in order; both sides must have the same children and
+ * the same attributes (namespace declarations aside); trimmed text must be equal, and
+ * whitespace-only text is ignored. "$any-value" as an element's text accepts any content of that
+ * element, and as an attribute value any value of that attribute. Mismatch paths are XPath-style,
+ * e.g. "/Envelope/Body/user[2]/id". A matcher instance is not thread-safe.
+ */
+public class XmlMatcher {
+
+    private static final int TEXT_SLACK = 200;
+
+    /**
+     * One element of the expected document.
+     */
+    private static final class Element {
+        final String namespace;
+        final String name;
+        final Map<String, String> attributes = new LinkedHashMap<>(); // "{ns}local" -> value
+        final List<Element> children = new ArrayList<>();
+        final StringBuilder text = new StringBuilder();
+        String step;
+
+        Element(String namespace, String name) {
+            this.namespace = namespace != null ? namespace : "";
+            this.name = name;
+        }
+
+        boolean isWildcard() {
+            return children.isEmpty() && text.toString().trim().equals(JsonMatcher.ANY_VALUE);
+        }
+    }
+
+    private final int maxMismatches;
+    private final List<JsonMatcher.Mismatch> mismatches = new ArrayList<>();
+    private final List<String> path = new ArrayList<>();
+
+    public XmlMatcher() {
+        this(1);
+    }
+
+    /**
+     * @param maxMismatches Number of mismatches to collect before stopping (at least 1).
+     */
+    public XmlMatcher(int maxMismatches) {
+        this.maxMismatches = Math.max(1, maxMismatches);
+    }
+
+    /**
+     * @param expectedXml The Verify Response document.
+     * @param body        The raw response body.
+     * @return The match result.
+     * @throws XMLStreamException If either document is not well-formed XML.
+     */
+    public JsonMatcher.Result match(String expectedXml, String body) throws XMLStreamException {
+        Element expected = parseExpected(expectedXml);
+        mismatches.clear();
+        path.clear();
+        XMLStreamReader reader = XmlSupport.createReader(body);
+        try {
+            if (nextElement(reader)) {
+                compareElement(expected, reader);
+            } else {
+                mismatch("Type mismatch", "expected element <" + expected.name + ">, got empty response");
+            }
+        } finally {
+            XmlSupport.close(reader);
+        }
+        return new JsonMatcher.Result(new ArrayList<>(mismatches), isFull());
+    }
+
+    /**
+     * Reads the expected document into a small tree.
+     */
+    private static Element parseExpected(String xml) throws XMLStreamException {
+        XMLStreamReader reader = XmlSupport.createReader(xml);
+        try {
+            if (!nextElement(reader)) {
+                throw new XMLStreamException("Verify Response has no root element");
+            }
+            Element root = readElement(reader);
+            assignSteps(root);
+            root.step = root.name;
+            return root;
+        } finally {
+            XmlSupport.close(reader);
+        }
+    }
+
+    private static Element readElement(XMLStreamReader reader) throws XMLStreamException {
+        Element element = new Element(reader.getNamespaceURI(), reader.getLocalName());
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            element.attributes.put(attributeKey(reader.getAttributeNamespace(i), reader.getAttributeLocalName(i)), reader.getAttributeValue(i));
+        }
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                element.children.add(readElement(reader));
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                return element;
+            } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                element.text.append(reader.getText());
+            }
+        }
+        return element;
+    }
+
+    /**
+     * Names each child as it appears in mismatch paths: name[n] when siblings share its name.
+     */
+    private static void assignSteps(Element parent) {
+        Map<String, Integer> totals = new HashMap<>();
+        for (Element child : parent.children) {
+            totals.merge(child.name, 1, Integer::sum);
+        }
+        Map<String, Integer> seen = new HashMap<>();
+        for (Element child : parent.children) {
+            int n = seen.merge(child.name, 1, Integer::sum);
+            child.step = totals.get(child.name) > 1 ? child.name + "[" + n + "]" : child.name;
+            assignSteps(child);
+        }
+    }
+
+    /**
+     * Compares the element at the reader's START_ELEMENT and leaves the reader on its END_ELEMENT
+     * (or mid-element once the maximum number of mismatches is reached).
+     */
+    private void compareElement(Element expected, XMLStreamReader reader) throws XMLStreamException {
+        path.add(expected.step);
+        try {
+            if (!expected.name.equals(reader.getLocalName()) || !expected.namespace.equals(Objects.toString(reader.getNamespaceURI(), ""))) {
+                mismatch("Element mismatch", "expected <" + qualified(expected.namespace, expected.name) + ">, got <"
+                    + qualified(Objects.toString(reader.getNamespaceURI(), ""), reader.getLocalName()) + ">");
+                skipElement(reader);
+                return;
+            }
+            compareAttributes(expected, reader);
+            if (expected.isWildcard()) {
+                skipElement(reader);
+                return;
+            }
+            String expectedText = expected.text.toString().trim();
+            int textLimit = expectedText.length() + TEXT_SLACK;
+            StringBuilder actualText = new StringBuilder();
+            boolean textTruncated = false;
+            int index = 0;
+            while (reader.hasNext() && !isFull()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    if (index < expected.children.size()) {
+                        compareElement(expected.children.get(index), reader);
+                    } else {
+                        path.add(reader.getLocalName());
+                        mismatch("Extra element in response", "");
+                        path.remove(path.size() - 1);
+                        skipElement(reader);
+                    }
+                    index++;
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    for (int i = index; i < expected.children.size() && !isFull(); i++) {
+                        path.add(expected.children.get(i).step);
+                        mismatch("Element not found in response", "");
+                        path.remove(path.size() - 1);
+                    }
+                    String actual = actualText.toString().trim();
+                    if (!isFull() && (textTruncated || !actual.equals(expectedText))) {
+                        mismatch("Value mismatch", "expected '" + expectedText + "', got '" + actual + (textTruncated ? "...'" : "'"));
+                    }
+                    return;
+                } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                    if (!textTruncated) {
+                        actualText.append(reader.getText());
+                        if (actualText.length() > textLimit) {
+                            actualText.setLength(textLimit);
+                            textTruncated = true;
+                        }
+                    }
+                }
+            }
+        } finally {
+            path.remove(path.size() - 1);
+        }
+    }
+
+    private void compareAttributes(Element expected, XMLStreamReader reader) {
+        Map<String, String> actual = new LinkedHashMap<>();
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            actual.put(attributeKey(reader.getAttributeNamespace(i), reader.getAttributeLocalName(i)), reader.getAttributeValue(i));
+        }
+        for (Map.Entry<String, String> attribute : expected.attributes.entrySet()) {
+            String value = actual.remove(attribute.getKey());
+            String name = displayName(attribute.getKey());
+            if (value == null) {
+                mismatch("Attribute not found in response", "@" + name);
+            } else if (!attribute.getValue().equals(JsonMatcher.ANY_VALUE) && !attribute.getValue().equals(value)) {
+                mismatch("Value mismatch", "@" + name + " expected '" + attribute.getValue() + "', got '" + value + "'");
+            }
+        }
+        for (String extra : actual.keySet()) {
+            mismatch("Extra attribute in response", "@" + displayName(extra));
+        }
+    }
+
+    private static boolean nextElement(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private boolean isFull() {
+        return mismatches.size() >= maxMismatches;
+    }
+
+    private void mismatch(String kind, String detail) {
+        if (!isFull()) {
+            mismatches.add(new JsonMatcher.Mismatch(kind, "/" + String.join("/", path), detail));
+        }
+    }
+
+    private static String attributeKey(String namespace, String localName) {
+        return namespace == null || namespace.isEmpty() ? localName : "{" + namespace + "}" + localName;
+    }
+
+    private static String displayName(String key) {
+        return key.startsWith("{") ? key.substring(key.indexOf('}') + 1) : key;
+    }
+
+    private static String qualified(String namespace, String name) {
+        return namespace.isEmpty() ? name : "{" + namespace + "}" + name;
+    }
+}
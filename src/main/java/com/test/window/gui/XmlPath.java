@@ -0,0 +1,359 @@
+package com.test.window.gui;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compiled XPath-style location for XML and SOAP bodies, used for "Response (key) Name"
+ * capture and XML "Modify Payload (key)". The subset is what streaming evaluation can answer
+ * in one forward pass:
+ *
+ * <pre>
+ * /Envelope/Body/GetUserResponse/user/id    child steps from the document element
+ * //user/id                                 descendant step
+ * /Envelope/Body/user[2]/name               position among same-named siblings (1-based)
+ * //user[@type='admin']/name                attribute predicate
+ * //item/*[1]                               any element
+ * //user/@id                                attribute value
+ * //user/name/text()                        element text (same as //user/name)
+ * Envelope/Body/token                       relative paths start at the document element
+ * </pre>
+ *
+ * Names match the local name; namespace prefixes in the path are ignored so paths work
+ * whatever prefixes the server uses. An element's value is its text content, trimmed.
+ * Compiled paths are immutable and thread-safe.
+ */
+public final class XmlPath {
+
+    private static final class Step {
+        final String name; // Local name or "*"
+        final boolean descendant;
+        final int position; // 1-based; 0 for any
+        final String attributeName;
+        final String attributeValue;
+
+        Step(String name, boolean descendant, int position, String attributeName, String attributeValue) {
+            this.name = name;
+            this.descendant = descendant;
+            this.position = position;
+            this.attributeName = attributeName;
+            this.attributeValue = attributeValue;
+        }
+
+        boolean matches(Cursor.Entry entry) {
+            if (!name.equals("*") && !name.equals(entry.name)) {
+                return false;
+            }
+            if (position > 0 && position != (name.equals("*") ? entry.position : entry.namePosition)) {
+                return false;
+            }
+            return attributeName == null || attributeValue.equals(entry.attributes.get(attributeName));
+        }
+    }
+
+    /**
+     * The open elements of a document being read, with their sibling positions.
+     */
+    static final class Cursor {
+        static final class Entry {
+            final String name;
+            final Map<String, String> attributes;
+            final int position;
+            final int namePosition;
+            final Map<String, Integer> childNameCounts = new HashMap<>();
+            int childCount;
+
+            Entry(String name, Map<String, String> attributes, int position, int namePosition) {
+                this.name = name;
+                this.attributes = attributes;
+                this.position = position;
+                this.namePosition = namePosition;
+            }
+        }
+
+        private final List<Entry> stack = new ArrayList<>();
+        private final Entry document = new Entry("", Collections.emptyMap(), 0, 0);
+
+        void push(String localName, Map<String, String> attributes) {
+            Entry parent = stack.isEmpty() ? document : stack.get(stack.size() - 1);
+            parent.childCount++;
+            int namePosition = parent.childNameCounts.merge(localName, 1, Integer::sum);
+            stack.add(new Entry(localName, attributes, parent.childCount, namePosition));
+        }
+
+        void pop() {
+            if (!stack.isEmpty()) {
+                stack.remove(stack.size() - 1);
+            }
+        }
+
+        int depth() {
+            return stack.size();
+        }
+
+        Entry top() {
+            return stack.get(stack.size() - 1);
+        }
+    }
+
+    private final String source;
+    private final List<Step> steps;
+    private final String attribute;
+
+    private XmlPath(String source, List<Step> steps, String attribute) {
+        this.source = source;
+        this.steps = steps;
+        this.attribute = attribute;
+    }
+
+    /**
+     * @throws IllegalArgumentException If the path is empty or outside the supported subset.
+     */
+    public static XmlPath compile(String path) {
+        if (path == null || path.trim().isEmpty()) {
+            throw new IllegalArgumentException("Empty XML path");
+        }
+        String text = path.trim();
+        List<String> tokens = split(text);
+        List<Step> steps = new ArrayList<>();
+        String attribute = null;
+        boolean descendant = false;
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            if (token.isEmpty()) {
+                if (i == 0) {
+                    continue; // Leading "/"
+                }
+                if (descendant) {
+                    throw new IllegalArgumentException("Unexpected '///' in XML path '" + text + "'");
+                }
+                descendant = true;
+                continue;
+            }
+            boolean last = i == tokens.size() - 1;
+            if (token.startsWith("@")) {
+                if (!last) {
+                    throw new IllegalArgumentException("Attribute step must be last in XML path '" + text + "'");
+                }
+                attribute = localName(token.substring(1));
+                break;
+            }
+            if (token.equals("text()")) {
+                if (!last) {
+                    throw new IllegalArgumentException("text() must be last in XML path '" + text + "'");
+                }
+                break;
+            }
+            steps.add(parseStep(token, descendant, text));
+            descendant = false;
+        }
+        if (steps.isEmpty()) {
+            throw new IllegalArgumentException("XML path '" + text + "' selects no element");
+        }
+        return new XmlPath(text, Collections.unmodifiableList(steps), attribute);
+    }
+
+    /**
+     * Splits on "/" outside predicates and quotes; "//" produces an empty token.
+     */
+    private static List<String> split(String text) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int brackets = 0;
+        char quote = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quote != 0) {
+                if (c == quote) quote = 0;
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '[') {
+                brackets++;
+            } else if (c == ']') {
+                brackets--;
+            } else if (c == '/' && brackets == 0) {
+                tokens.add(current.toString().trim());
+                current.setLength(0);
+                continue;
+            }
+            current.append(c);
+        }
+        if (quote != 0 || brackets != 0) {
+            throw new IllegalArgumentException("Unbalanced quotes or brackets in XML path '" + text + "'");
+        }
+        tokens.add(current.toString().trim());
+        return tokens;
+    }
+
+    private static Step parseStep(String token, boolean descendant, String text) {
+        int open = token.indexOf('[');
+        String name = localName(open < 0 ? token : token.substring(0, open).trim());
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("Missing element name in XML path '" + text + "'");
+        }
+        int position = 0;
+        String attributeName = null;
+        String attributeValue = null;
+        while (open >= 0) {
+            int close = token.indexOf(']', open);
+            String predicate = token.substring(open + 1, close).trim();
+            if (predicate.startsWith("@")) {
+                int eq = predicate.indexOf('=');
+                String value = eq < 0 ? "" : predicate.substring(eq + 1).trim();
+                if (eq < 0 || value.length() < 2 || (value.charAt(0) != '\'' && value.charAt(0) != '"')
+                    || value.charAt(value.length() - 1) != value.charAt(0)) {
+                    throw new IllegalArgumentException("Expected [@name='value'] in XML path '" + text + "'");
+                }
+                attributeName = localName(predicate.substring(1, eq).trim());
+                attributeValue = value.substring(1, value.length() - 1);
+            } else {
+                try {
+                    position = Integer.parseInt(predicate);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Unsupported predicate [" + predicate + "] in XML path '" + text + "'");
+                }
+                if (position < 1) {
+                    throw new IllegalArgumentException("Positions start at 1 in XML path '" + text + "'");
+                }
+            }
+            open = token.indexOf('[', close);
+        }
+        return new Step(name, descendant, position, attributeName, attributeValue);
+    }
+
+    private static String localName(String name) {
+        int colon = name.indexOf(':');
+        return colon >= 0 ? name.substring(colon + 1) : name;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * @return The attribute this path selects, or null if it selects element text.
+     */
+    public String getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * @return True if the element on top of the cursor is selected by the element steps.
+     */
+    boolean matches(Cursor cursor) {
+        int depth = cursor.depth();
+        if (depth < steps.size() || !steps.get(steps.size() - 1).matches(cursor.top())) {
+            return false;
+        }
+        return matchFrom(cursor, 0, 0);
+    }
+
+    private boolean matchFrom(Cursor cursor, int stepIndex, int entryIndex) {
+        if (stepIndex == steps.size()) {
+            return entryIndex == cursor.depth();
+        }
+        Step step = steps.get(stepIndex);
+        int remaining = steps.size() - stepIndex;
+        if (!step.descendant) {
+            return entryIndex < cursor.depth() && step.matches(cursor.stack.get(entryIndex))
+                && matchFrom(cursor, stepIndex + 1, entryIndex + 1);
+        }
+        for (int e = entryIndex; e <= cursor.depth() - remaining; e++) {
+            if (step.matches(cursor.stack.get(e)) && matchFrom(cursor, stepIndex + 1, e + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Evaluates several paths in one streaming pass and stops reading once all are found.
+     *
+     * @return The value of the first match of each path; paths that match nothing are absent.
+     * @throws XMLStreamException If the document is not well-formed up to the last match.
+     */
+    public static Map<XmlPath, String> selectFirst(String xml, List<XmlPath> paths) throws XMLStreamException {
+        Map<XmlPath, String> found = new LinkedHashMap<>();
+        List<XmlPath> pending = new ArrayList<>(paths);
+        Deque<Collect> collecting = new ArrayDeque<>(); // Elements whose text is being read, innermost first
+        XMLStreamReader reader = XmlSupport.createReader(xml);
+        try {
+            Cursor cursor = new Cursor();
+            while (reader.hasNext() && (!pending.isEmpty() || !collecting.isEmpty())) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    cursor.push(reader.getLocalName(), XmlSupport.attributesOf(reader));
+                    for (int i = pending.size() - 1; i >= 0; i--) {
+                        XmlPath path = pending.get(i);
+                        if (!path.matches(cursor)) {
+                            continue;
+                        }
+                        pending.remove(i);
+                        if (path.attribute != null) {
+                            String value = cursor.top().attributes.get(path.attribute);
+                            if (value != null) {
+                                found.put(path, value);
+                            } else {
+                                pending.add(i, path); // Element matched but lacks the attribute; keep looking
+                            }
+                        } else {
+                            Collect top = collecting.peek();
+                            if (top == null || top.depth != cursor.depth()) {
+                                top = new Collect(cursor.depth());
+                                collecting.push(top);
+                            }
+                            top.paths.add(path);
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    Collect top = collecting.peek();
+                    if (top != null && top.depth == cursor.depth()) {
+                        collecting.pop();
+                        String value = top.text.toString().trim();
+                        for (XmlPath path : top.paths) {
+                            found.put(path, value);
+                        }
+                    }
+                    cursor.pop();
+                } else if (!collecting.isEmpty() && (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA)) {
+                    String chunk = reader.getText();
+                    for (Collect collect : collecting) {
+                        collect.text.append(chunk); // An element's text includes its descendants' text
+                    }
+                }
+            }
+        } finally {
+            XmlSupport.close(reader);
+        }
+        return found;
+    }
+
+    /**
+     * An element being read by {@link #selectFirst}: its depth, the paths that matched it and
+     * its text so far.
+     */
+    private static final class Collect {
+        final int depth;
+        final List<XmlPath> paths = new ArrayList<>();
+        final StringBuilder text = new StringBuilder();
+
+        Collect(int depth) {
+            this.depth = depth;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
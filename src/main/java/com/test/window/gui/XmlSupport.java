@@ -0,0 +1,316 @@
+package com.test.window.gui;
+
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Shared StAX factories and streaming helpers for XML and SOAP bodies: detection, pretty
+ * printing for the report and "Modify Payload" edits. Nothing here builds a DOM; documents are
+ * read event by event, so memory stays proportional to the element depth, not the body size.
+ * DTDs and external entities are disabled on the input factory.
+ */
+public final class XmlSupport {
+
+    /**
+     * Input factory for all XML reading. Factories are thread-safe once configured.
+     */
+    public static final XMLInputFactory INPUT = createInputFactory();
+
+    private static final XMLOutputFactory OUTPUT = XMLOutputFactory.newInstance();
+    private static final XMLEventFactory EVENTS = XMLEventFactory.newInstance();
+
+    private XmlSupport() {
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    public static XMLStreamReader createReader(String xml) throws XMLStreamException {
+        return INPUT.createXMLStreamReader(new StringReader(xml));
+    }
+
+    /**
+     * @return True if the text looks like an XML document rather than JSON.
+     */
+    public static boolean isXml(String text) {
+        if (text == null) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\uFEFF' || Character.isWhitespace(c)) {
+                continue;
+            }
+            return c == '<';
+        }
+        return false;
+    }
+
+    /**
+     * Re-indents a document with two spaces per level. Elements holding only text stay on one
+     * line. Returns the input unchanged if it is not well-formed.
+     */
+    public static String prettyPrint(String xml) {
+        StringBuilder out = new StringBuilder(xml.length() + xml.length() / 4);
+        XMLStreamReader reader = null;
+        try {
+            reader = createReader(xml);
+            int depth = 0;
+            boolean openTag = false;   // "<name ..." written, ">" not yet
+            boolean inlineText = false; // Text written right after the start tag
+            while (reader.hasNext()) {
+                int event = reader.next();
+                switch (event) {
+                    case XMLStreamConstants.START_ELEMENT -> {
+                        if (openTag) {
+                            out.append('>');
+                        }
+                        newLine(out, depth);
+                        out.append('<').append(qualifiedName(reader.getPrefix(), reader.getLocalName()));
+                        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+                            String prefix = reader.getNamespacePrefix(i);
+                            out.append(prefix == null || prefix.isEmpty() ? " xmlns" : " xmlns:" + prefix)
+                                .append("=\"").append(escapeAttribute(reader.getNamespaceURI(i))).append('"');
+                        }
+                        for (int i = 0; i < reader.getAttributeCount(); i++) {
+                            out.append(' ').append(qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)))
+                                .append("=\"").append(escapeAttribute(reader.getAttributeValue(i))).append('"');
+                        }
+                        openTag = true;
+                        inlineText = false;
+                        depth++;
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> {
+                        depth--;
+                        if (openTag) {
+                            out.append("/>");
+                        } else {
+                            if (!inlineText) {
+                                newLine(out, depth);
+                            }
+                            out.append("</").append(qualifiedName(reader.getPrefix(), reader.getLocalName())).append('>');
+                        }
+                        openTag = false;
+                        inlineText = false;
+                    }
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE -> {
+                        String text = reader.getText();
+                        if (text.trim().isEmpty()) {
+                            break;
+                        }
+                        if (openTag) {
+                            out.append('>');
+                            openTag = false;
+                            inlineText = true;
+                        } else if (!inlineText) {
+                            newLine(out, depth);
+                        }
+                        if (event == XMLStreamConstants.CDATA) {
+                            out.append("<![CDATA[").append(text).append("]]>");
+                        } else {
+                            out.append(escapeText(inlineText ? text : text.trim()));
+                        }
+                    }
+                    case XMLStreamConstants.COMMENT -> {
+                        if (openTag) {
+                            out.append('>');
+                            openTag = false;
+                        }
+                        newLine(out, depth);
+                        out.append("<!--").append(reader.getText()).append("-->");
+                        inlineText = false;
+                    }
+                    case XMLStreamConstants.PROCESSING_INSTRUCTION -> {
+                        if (openTag) {
+                            out.append('>');
+                            openTag = false;
+                        }
+                        newLine(out, depth);
+                        out.append("<?").append(reader.getPITarget());
+                        if (reader.getPIData() != null && !reader.getPIData().isEmpty()) {
+                            out.append(' ').append(reader.getPIData());
+                        }
+                        out.append("?>");
+                    }
+                    default -> {
+                        // Document start/end, DTD: nothing to print
+                    }
+                }
+            }
+            return out.toString().trim();
+        } catch (XMLStreamException e) {
+            return xml;
+        } finally {
+            close(reader);
+        }
+    }
+
+    /**
+     * Sets element text or attribute values in an XML payload in one streaming pass.
+     * Each path is applied to its first match; an element's children are replaced by the text.
+     *
+     * @param xml    The payload.
+     * @param values Compiled paths and the text to set.
+     * @param missed Receives the paths that matched nothing.
+     * @return The edited document.
+     * @throws XMLStreamException If the payload is not well-formed XML.
+     */
+    public static String applyEdits(String xml, Map<XmlPath, String> values, Set<XmlPath> missed) throws XMLStreamException {
+        Set<XmlPath> pending = new HashSet<>(values.keySet());
+        boolean declared = xml.trim().startsWith("<?xml");
+        StringWriter out = new StringWriter(xml.length() + 64);
+        XMLEventReader reader = INPUT.createXMLEventReader(new StringReader(xml));
+        XMLEventWriter writer = OUTPUT.createXMLEventWriter(out);
+        try {
+            XmlPath.Cursor cursor = new XmlPath.Cursor();
+            while (reader.hasNext()) {
+                XMLEvent event = reader.nextEvent();
+                if (event.isStartDocument() && !declared) {
+                    continue; // Do not add an XML declaration the template did not have
+                }
+                if (!event.isStartElement()) {
+                    if (event.isEndElement()) {
+                        cursor.pop();
+                    }
+                    writer.add(event);
+                    continue;
+                }
+                StartElement start = event.asStartElement();
+                cursor.push(start.getName().getLocalPart(), attributesOf(start));
+                String text = null;
+                Map<String, String> attributeEdits = null;
+                for (Iterator<XmlPath> it = pending.iterator(); it.hasNext(); ) {
+                    XmlPath path = it.next();
+                    if (!path.matches(cursor)) {
+                        continue;
+                    }
+                    it.remove();
+                    if (path.getAttribute() != null) {
+                        if (attributeEdits == null) {
+                            attributeEdits = new LinkedHashMap<>();
+                        }
+                        attributeEdits.put(path.getAttribute(), values.get(path));
+                    } else {
+                        text = values.get(path);
+                    }
+                }
+                writer.add(attributeEdits == null ? start : withAttributes(start, attributeEdits));
+                if (text != null) {
+                    writer.add(EVENTS.createCharacters(text));
+                    skipContent(reader); // Drop the old content; the end tag is written next
+                }
+            }
+            writer.flush();
+        } finally {
+            reader.close();
+            writer.close();
+        }
+        missed.addAll(pending);
+        return out.toString();
+    }
+
+    private static void skipContent(XMLEventReader reader) throws XMLStreamException {
+        int depth = 0;
+        while (reader.hasNext()) {
+            XMLEvent next = reader.peek();
+            if (next.isEndElement() && depth == 0) {
+                return;
+            }
+            reader.nextEvent();
+            if (next.isStartElement()) {
+                depth++;
+            } else if (next.isEndElement()) {
+                depth--;
+            }
+        }
+    }
+
+    private static StartElement withAttributes(StartElement start, Map<String, String> edits) {
+        List<Attribute> attributes = new ArrayList<>();
+        Iterator<Attribute> it = start.getAttributes();
+        while (it.hasNext()) {
+            Attribute attribute = it.next();
+            String edit = edits.remove(attribute.getName().getLocalPart());
+            attributes.add(edit == null ? attribute : EVENTS.createAttribute(attribute.getName(), edit));
+        }
+        for (Map.Entry<String, String> added : edits.entrySet()) {
+            attributes.add(EVENTS.createAttribute(added.getKey(), added.getValue()));
+        }
+        return EVENTS.createStartElement(start.getName(), attributes.iterator(), start.getNamespaces());
+    }
+
+    static Map<String, String> attributesOf(StartElement start) {
+        Map<String, String> attributes = new HashMap<>();
+        Iterator<Attribute> it = start.getAttributes();
+        while (it.hasNext()) {
+            Attribute attribute = it.next();
+            attributes.put(attribute.getName().getLocalPart(), attribute.getValue());
+        }
+        return attributes;
+    }
+
+    static Map<String, String> attributesOf(XMLStreamReader reader) {
+        Map<String, String> attributes = new HashMap<>();
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            attributes.put(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+        }
+        return attributes;
+    }
+
+    static void close(XMLStreamReader reader) {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (XMLStreamException ignored) {
+                // Reading a String; nothing to release
+            }
+        }
+    }
+
+    private static String qualifiedName(String prefix, String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+    }
+
+    private static void newLine(StringBuilder out, int depth) {
+        if (out.length() > 0) {
+            out.append('\n');
+        }
+        for (int i = 0; i < depth; i++) {
+            out.append("  ");
+        }
+    }
+
+    private static String escapeText(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    private static String escapeAttribute(String text) {
+        return escapeText(text).replace("\"", "&quot;");
+    }
+}